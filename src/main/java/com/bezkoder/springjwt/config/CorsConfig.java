@@ -19,6 +19,8 @@ public class CorsConfig {
         config.addAllowedOrigin("*");
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        // Paged lists tell their total in this header; browsers hide it unless exposed
+        config.addExposedHeader("X-Total-Count");
         
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
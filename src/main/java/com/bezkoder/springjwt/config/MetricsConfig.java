@@ -75,6 +75,45 @@ public class MetricsConfig {
                 .register(meterRegistry);
     }
 
+    @Bean
+    public Timer reportBatchTimer(MeterRegistry meterRegistry) {
+        return Timer.builder("cashback_report_batch_duration")
+                .description("Time taken for batch report runs")
+                .tag("type", "batch")
+                .register(meterRegistry);
+    }
+
+    @Bean
+    public Timer bonusBatchTimer(MeterRegistry meterRegistry) {
+        return Timer.builder("cashback_bonus_batch_duration")
+                .description("Time taken for batch bonus runs")
+                .tag("type", "batch")
+                .register(meterRegistry);
+    }
+
+    @Bean
+    public Timer bonusBatchReadTimer(MeterRegistry meterRegistry) {
+        return bonusBatchStepTimer(meterRegistry, "read");
+    }
+
+    @Bean
+    public Timer bonusBatchProcessTimer(MeterRegistry meterRegistry) {
+        return bonusBatchStepTimer(meterRegistry, "process");
+    }
+
+    @Bean
+    public Timer bonusBatchWriteTimer(MeterRegistry meterRegistry) {
+        return bonusBatchStepTimer(meterRegistry, "write");
+    }
+
+    private Timer bonusBatchStepTimer(MeterRegistry meterRegistry, String step) {
+        return Timer.builder("cashback_bonus_batch_step_duration")
+                .description("Time taken per chunk by each step of batch bonus runs")
+                .tag("type", "batch")
+                .tag("step", step)
+                .register(meterRegistry);
+    }
+
     @Bean
     public Gauge activeUsersGauge(MeterRegistry meterRegistry) {
         return Gauge.builder("cashback_active_users", this, config -> config.getActiveUsers().get())
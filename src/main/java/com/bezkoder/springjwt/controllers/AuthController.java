@@ -1,25 +1,24 @@
 package com.bezkoder.springjwt.controllers;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -27,17 +26,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
-import com.bezkoder.springjwt.models.ERole;
 import com.bezkoder.springjwt.models.Role;
 import com.bezkoder.springjwt.models.User;
 import com.bezkoder.springjwt.payload.request.LoginRequest;
 import com.bezkoder.springjwt.payload.request.SignupRequest;
+import com.bezkoder.springjwt.payload.request.TokenRefreshRequest;
 import com.bezkoder.springjwt.payload.response.JwtResponse;
 import com.bezkoder.springjwt.payload.response.MessageResponse;
-import com.bezkoder.springjwt.repository.RoleRepository;
+import com.bezkoder.springjwt.payload.response.TokenRefreshResponse;
 import com.bezkoder.springjwt.repository.UserRepository;
 import com.bezkoder.springjwt.security.jwt.JwtUtils;
+import com.bezkoder.springjwt.security.services.RefreshTokenService;
+import com.bezkoder.springjwt.security.services.SignInService;
+import com.bezkoder.springjwt.security.services.TokenRevocationService;
 import com.bezkoder.springjwt.security.services.UserDetailsImpl;
+import com.bezkoder.springjwt.services.UserOnboardingService;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -45,45 +48,92 @@ import com.bezkoder.springjwt.security.services.UserDetailsImpl;
 @Tag(name = "Authentication", description = "Authentication management APIs")
 public class AuthController {
   @Autowired
-  AuthenticationManager authenticationManager;
+  UserRepository userRepository;
 
   @Autowired
-  UserRepository userRepository;
+  PasswordEncoder encoder;
 
   @Autowired
-  RoleRepository roleRepository;
+  JwtUtils jwtUtils;
 
   @Autowired
-  PasswordEncoder encoder;
+  SignInService signInService;
 
   @Autowired
-  JwtUtils jwtUtils;
+  RefreshTokenService refreshTokenService;
+
+  @Autowired
+  TokenRevocationService tokenRevocationService;
+
+  @Autowired
+  UserOnboardingService userOnboardingService;
 
   @Operation(summary = "Authenticate user", description = "Sign in a user and return a JWT token")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Successfully authenticated",
           content = @Content(schema = @Schema(implementation = JwtResponse.class))),
-      @ApiResponse(responseCode = "401", description = "Invalid credentials")
+      @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+      @ApiResponse(responseCode = "429", description = "Too many sign-in attempts in progress")
   })
   @PostMapping("/signin")
-  public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+  public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    // The password check runs on the sign-in pool and the tokens are issued on its own pool;
+    // the request thread is released meanwhile
+    return signInService.authenticate(loginRequest.getUsername(), loginRequest.getPassword())
+        .thenApply(authentication -> {
+          String jwt = jwtUtils.generateJwtToken(authentication);
+
+          UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+          String refreshToken = refreshTokenService.createRefreshToken(userDetails);
+          List<String> roles = userDetails.getAuthorities().stream()
+              .map(item -> item.getAuthority())
+              .collect(Collectors.toList());
+
+          return ResponseEntity.ok(new JwtResponse(jwt,
+                               refreshToken,
+                               userDetails.getId(),
+                               userDetails.getUsername(),
+                               userDetails.getEmail(),
+                               roles));
+        });
+  }
 
-    Authentication authentication = authenticationManager.authenticate(
-        new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+  @Operation(summary = "Refresh access token",
+      description = "Exchange a refresh token for a new access token and a new refresh token; the old one can no longer be used")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Token refreshed",
+          content = @Content(schema = @Schema(implementation = TokenRefreshResponse.class))),
+      @ApiResponse(responseCode = "403", description = "Refresh token unknown, expired, revoked or already used")
+  })
+  @PostMapping("/refreshtoken")
+  public ResponseEntity<?> refreshToken(@Valid @RequestBody TokenRefreshRequest request) {
+    RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+    String jwt = jwtUtils.generateTokenFromUserDetails(rotation.getUser());
 
-    SecurityContextHolder.getContext().setAuthentication(authentication);
-    String jwt = jwtUtils.generateJwtToken(authentication);
+    return ResponseEntity.ok(new TokenRefreshResponse(jwt, rotation.getRefreshToken()));
+  }
 
-    UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-    List<String> roles = userDetails.getAuthorities().stream()
-        .map(item -> item.getAuthority())
-        .collect(Collectors.toList());
+  @Operation(summary = "Sign out",
+      description = "Revoke the access token of the request and, when given, the refresh token of the session")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Signed out",
+          content = @Content(schema = @Schema(implementation = MessageResponse.class)))
+  })
+  @PostMapping("/signout")
+  public ResponseEntity<?> logoutUser(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                      @RequestBody(required = false) TokenRefreshRequest request) {
+    if (authorization != null && authorization.startsWith("Bearer ")) {
+      Claims claims = jwtUtils.getVerifiedClaims(authorization.substring(7));
+      if (claims != null && claims.getExpiration() != null) {
+        tokenRevocationService.revoke(claims.getId(), claims.get("uid", Long.class),
+            claims.getExpiration().toInstant(), "signout");
+      }
+    }
+    if (request != null && request.getRefreshToken() != null) {
+      refreshTokenService.revoke(request.getRefreshToken());
+    }
 
-    return ResponseEntity.ok(new JwtResponse(jwt,
-                         userDetails.getId(),
-                         userDetails.getUsername(),
-                         userDetails.getEmail(),
-                         roles));
+    return ResponseEntity.ok(new MessageResponse("You've been signed out!"));
   }
 
 
@@ -97,16 +147,12 @@ public class AuthController {
 
   @PostMapping("/signup")
   public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
-    if (userRepository.existsByUsername(signUpRequest.getUsername())) {
+    // One query for both unique columns
+    String conflict = userOnboardingService.findConflict(signUpRequest.getUsername(), signUpRequest.getEmail(), null);
+    if (conflict != null) {
       return ResponseEntity
           .badRequest()
-          .body(new MessageResponse("Error: Username is already taken!"));
-    }
-
-    if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-      return ResponseEntity
-          .badRequest()
-          .body(new MessageResponse("Error: Email is already in use!"));
+          .body(new MessageResponse(conflict));
     }
 
     // Create new user's account
@@ -116,35 +162,7 @@ public class AuthController {
                signUpRequest.getUsername(), // Using username as firstName by default
                "");                         // Empty lastName by default
 
-    Set<String> strRoles = signUpRequest.getRole();
-    Set<Role> roles = new HashSet<>();
-
-    if (strRoles == null) {
-      Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-          .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-      roles.add(userRole);
-    } else {
-      strRoles.forEach(role -> {
-        switch (role) {
-        case "admin":
-          Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-              .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-          roles.add(adminRole);
-
-          break;
-        case "mod":
-          Role modRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-              .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-          roles.add(modRole);
-
-          break;
-        default:
-          Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-              .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-          roles.add(userRole);
-        }
-      });
-    }
+    Set<Role> roles = userOnboardingService.resolveRoles(signUpRequest.getRole());
 
     user.setRoles(roles);
     userRepository.save(user);
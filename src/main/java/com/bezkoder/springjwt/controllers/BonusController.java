@@ -0,0 +1,89 @@
+package com.bezkoder.springjwt.controllers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.validation.Valid;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import com.bezkoder.springjwt.models.BatchRun;
+import com.bezkoder.springjwt.payload.request.BonusSimulationRequest;
+import com.bezkoder.springjwt.payload.response.BonusSimulationResult;
+import com.bezkoder.springjwt.repository.BonusRepository;
+import com.bezkoder.springjwt.repository.BonusSummary;
+import com.bezkoder.springjwt.services.BonusBatchService;
+import com.bezkoder.springjwt.services.BonusService;
+import com.bezkoder.springjwt.services.BonusSimulationService;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/bonuses")
+public class BonusController {
+    @Autowired
+    BonusRepository bonusRepository;
+
+    @Autowired
+    BonusService bonusService;
+
+    @Autowired
+    BonusSimulationService bonusSimulationService;
+
+    @Autowired
+    BonusBatchService bonusBatchService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<List<BonusSummary>> getBonusesByPeriod(
+            @RequestParam("startPeriod") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startPeriod,
+            @RequestParam("endPeriod") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endPeriod) {
+        List<BonusSummary> bonuses = bonusRepository.findSummariesByPeriod(startPeriod, endPeriod);
+        return new ResponseEntity<>(bonuses, HttpStatus.OK);
+    }
+
+    @PostMapping("/simulate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<BonusSimulationResult>> simulateBonuses(@Valid @RequestBody BonusSimulationRequest request) {
+        return new ResponseEntity<>(bonusSimulationService.simulate(request), HttpStatus.OK);
+    }
+
+    @PostMapping("/calculate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> calculateBonuses(
+            @RequestParam("startPeriod") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startPeriod,
+            @RequestParam("endPeriod") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endPeriod) {
+        return new ResponseEntity<>(bonusService.calculateBonuses(startPeriod, endPeriod), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BatchRun> startBatchRun(
+            @RequestParam("startPeriod") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startPeriod,
+            @RequestParam("endPeriod") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endPeriod) {
+        return new ResponseEntity<>(bonusBatchService.startRun(startPeriod, endPeriod), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<BatchRun>> getRecentBatchRuns() {
+        return new ResponseEntity<>(bonusBatchService.getRecentRuns(), HttpStatus.OK);
+    }
+
+    @GetMapping("/batch/{runId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getBatchRunStatus(@PathVariable("runId") Long runId) {
+        return new ResponseEntity<>(bonusBatchService.getRunStatus(runId), HttpStatus.OK);
+    }
+
+    @PostMapping("/batch/{runId}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BatchRun> resumeBatchRun(@PathVariable("runId") Long runId) {
+        return new ResponseEntity<>(bonusBatchService.resumeRun(runId), HttpStatus.ACCEPTED);
+    }
+}
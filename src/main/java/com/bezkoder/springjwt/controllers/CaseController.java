@@ -2,6 +2,7 @@ package com.bezkoder.springjwt.controllers;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -21,6 +22,7 @@ import com.bezkoder.springjwt.models.Report;
 import com.bezkoder.springjwt.repository.CaseRepository;
 import com.bezkoder.springjwt.repository.EngineerRepository;
 import com.bezkoder.springjwt.repository.ReportRepository;
+import com.bezkoder.springjwt.services.CaseStatisticsService;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -34,6 +36,9 @@ public class CaseController {
     
     @Autowired
     ReportRepository reportRepository;
+
+    @Autowired
+    CaseStatisticsService caseStatisticsService;
     
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
@@ -116,22 +121,12 @@ public class CaseController {
             @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         
-        Optional<Engineer> engineerData = engineerRepository.findById(engineerId);
-        
-        if (engineerData.isPresent()) {
-            Engineer engineer = engineerData.get();
-            Long caseCount = caseRepository.countCasesResolvedByEngineer(engineer, startDate, endDate);
-            Double avgRating = caseRepository.calculateAverageCesRating(engineer, startDate, endDate);
-            
-            return ResponseEntity.ok()
-                    .body(java.util.Map.of(
-                            "engineerId", engineerId,
-                            "engineerName", engineer.getFullName(),
-                            "caseCount", caseCount,
-                            "averageCesRating", avgRating != null ? avgRating : 0.0,
-                            "startDate", startDate,
-                            "endDate", endDate
-                    ));
+        // Identical concurrent requests share one computation
+        Optional<Map<String, Object>> statistics =
+                caseStatisticsService.engineerStatistics(engineerId, startDate, endDate);
+
+        if (statistics.isPresent()) {
+            return ResponseEntity.ok().body(statistics.get());
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -0,0 +1,38 @@
+package com.bezkoder.springjwt.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bezkoder.springjwt.payload.response.DashboardResponse;
+import com.bezkoder.springjwt.services.DashboardService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/dashboard")
+@Tag(name = "Dashboard", description = "Organisation-wide figures of the landing page")
+public class DashboardController {
+    @Autowired
+    DashboardService dashboardService;
+
+    @Operation(summary = "Dashboard", description = "Case counts, team sizes, active users and recent reports, "
+        + "precomputed in the background. The Age header tells how old the figures are")
+    @GetMapping
+    @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<DashboardResponse> getDashboard() {
+        DashboardService.Snapshot snapshot = dashboardService.dashboard();
+        return ResponseEntity.ok()
+            .header(HttpHeaders.AGE, String.valueOf(snapshot.getAgeMs() / 1000))
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(snapshot.getResponse());
+    }
+}
@@ -13,8 +13,13 @@ import org.springframework.web.bind.annotation.*;
 
 import com.bezkoder.springjwt.models.Engineer;
 import com.bezkoder.springjwt.models.Team;
+import com.bezkoder.springjwt.payload.request.BulkEngineerRequest;
+import com.bezkoder.springjwt.payload.response.BulkEngineerResponse;
+import com.bezkoder.springjwt.payload.response.EngineerSuggestion;
 import com.bezkoder.springjwt.repository.EngineerRepository;
 import com.bezkoder.springjwt.repository.TeamRepository;
+import com.bezkoder.springjwt.services.EngineerOnboardingService;
+import com.bezkoder.springjwt.services.EngineerSearchService;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -26,6 +31,12 @@ public class EngineerController {
     @Autowired
     TeamRepository teamRepository;
 
+    @Autowired
+    EngineerSearchService engineerSearchService;
+
+    @Autowired
+    EngineerOnboardingService engineerOnboardingService;
+
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
     public ResponseEntity<List<Engineer>> getAllEngineers() {
@@ -33,6 +44,15 @@ public class EngineerController {
         return new ResponseEntity<>(engineers, HttpStatus.OK);
     }
 
+    // Name autocomplete: the best matches of the name or manager prefix, from memory
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<List<EngineerSuggestion>> searchEngineers(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return new ResponseEntity<>(engineerSearchService.search(query, limit), HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
     public ResponseEntity<Engineer> getEngineerById(@PathVariable("id") Long id) {
@@ -76,6 +96,13 @@ public class EngineerController {
         }
     }
 
+    // Create or update up to 5000 engineers, matched on email or name, with their team by name
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<BulkEngineerResponse> upsertEngineers(@Valid @RequestBody BulkEngineerRequest bulkEngineerRequest) {
+        return new ResponseEntity<>(engineerOnboardingService.upsertAll(bulkEngineerRequest.getEngineers()), HttpStatus.OK);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
     public ResponseEntity<Engineer> updateEngineer(@PathVariable("id") Long id, @Valid @RequestBody Engineer engineer) {
@@ -5,6 +5,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.bezkoder.springjwt.models.Case;
+import com.bezkoder.springjwt.payload.response.EngineerMergeDecision;
 import com.bezkoder.springjwt.payload.response.MessageResponse;
 import com.bezkoder.springjwt.services.ExcelImportService;
 
@@ -92,16 +94,27 @@ public class ExcelImportController {
 
             int totalRows = (int) result.get("totalRows");
             List<String> errors = (List<String>) result.get("errors");
+            List<EngineerMergeDecision> engineerMerges = (List<EngineerMergeDecision>) result.get("engineerMerges");
 
+            StringBuilder message;
             if (errors.isEmpty()) {
-                return ResponseEntity.ok(new MessageResponse("Successfully imported " + totalRows + " cases"));
+                message = new StringBuilder("Successfully imported " + totalRows + " cases");
             } else {
-                StringBuilder message = new StringBuilder("Imported " + totalRows + " cases with " + errors.size() + " errors:\n");
+                message = new StringBuilder("Imported " + totalRows + " cases with " + errors.size() + " errors:\n");
                 for (String error : errors) {
                     message.append("- ").append(error).append("\n");
                 }
-                return ResponseEntity.ok(new MessageResponse(message.toString()));
             }
+            if (engineerMerges != null && !engineerMerges.isEmpty()) {
+                message.append(errors.isEmpty() ? "\n" : "")
+                    .append("Matched ").append(engineerMerges.size()).append(" engineer names to existing engineers:\n");
+                for (EngineerMergeDecision merge : engineerMerges) {
+                    message.append("- Row ").append(merge.getRow()).append(": '").append(merge.getImportedName())
+                        .append("' as '").append(merge.getEngineerName()).append("' (id ").append(merge.getEngineerId())
+                        .append(", ").append(String.format(Locale.ROOT, "%.2f", merge.getSimilarity())).append(")\n");
+                }
+            }
+            return ResponseEntity.ok(new MessageResponse(message.toString()));
         } catch (Exception e) {
             return ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,40 @@
+package com.bezkoder.springjwt.controllers;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bezkoder.springjwt.security.services.JwtKeyService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/.well-known")
+@Tag(name = "Authentication", description = "Authentication management APIs")
+public class JwksController {
+  @Autowired
+  JwtKeyService jwtKeyService;
+
+  // How long verifiers may cache the key set; keep it below jwtKeyPublishDelayMs
+  @Value("${bezkoder.app.jwksMaxAgeSeconds:300}")
+  private long jwksMaxAgeSeconds = 300;
+
+  @Operation(summary = "Token signing keys",
+      description = "Public keys verifying the access tokens, as a JWK set keyed by the kid header of the tokens")
+  @GetMapping("/jwks.json")
+  public ResponseEntity<Map<String, Object>> jwks() {
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.maxAge(jwksMaxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+        .body(jwtKeyService.jwks());
+  }
+}
@@ -0,0 +1,97 @@
+package com.bezkoder.springjwt.controllers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import com.bezkoder.springjwt.exception.InvalidDataException;
+import com.bezkoder.springjwt.models.EPayoutFormat;
+import com.bezkoder.springjwt.services.PayoutFileService;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/payouts")
+public class PayoutController {
+    // Request attributes of Tomcat's sendfile support (zero-copy transfer by the connector)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    PayoutFileService payoutFileService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> generatePayoutFile(
+            @RequestParam("startPeriod") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startPeriod,
+            @RequestParam("endPeriod") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endPeriod,
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        EPayoutFormat payoutFormat;
+        try {
+            payoutFormat = EPayoutFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException("Unknown payout format: " + format + " (expected csv or fixed)");
+        }
+
+        return new ResponseEntity<>(payoutFileService.generatePayoutFile(startPeriod, endPeriod, payoutFormat),
+                HttpStatus.CREATED);
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getPayoutFiles() {
+        return new ResponseEntity<>(payoutFileService.listPayoutFiles(), HttpStatus.OK);
+    }
+
+    /**
+     * Download a payout file or its manifest. Range requests are answered by Spring's
+     * resource region support; full downloads are handed to Tomcat's sendfile when
+     * the connector supports it, so the file is never copied through the heap.
+     */
+    @GetMapping("/{fileName:.+}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Resource> downloadPayoutFile(@PathVariable("fileName") String fileName,
+                                                       @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                       HttpServletRequest request) {
+        Path file = payoutFileService.resolvePayoutFile(fileName);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(fileName.endsWith(".csv") ? MediaType.parseMediaType("text/csv") : MediaType.TEXT_PLAIN);
+        headers.setContentDisposition(ContentDisposition.attachment().filename(fileName).build());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (range == null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            try {
+                long size = Files.size(file);
+                request.setAttribute(SENDFILE_FILENAME, file.toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, size);
+                headers.setContentLength(size);
+                return new ResponseEntity<>(headers, HttpStatus.OK);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return new ResponseEntity<>(new FileSystemResource(file), headers, HttpStatus.OK);
+    }
+}
@@ -1,22 +1,26 @@
 package com.bezkoder.springjwt.controllers;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import com.bezkoder.springjwt.models.Case;
+import com.bezkoder.springjwt.models.BatchRun;
 import com.bezkoder.springjwt.models.Engineer;
 import com.bezkoder.springjwt.models.Report;
-import com.bezkoder.springjwt.repository.CaseRepository;
 import com.bezkoder.springjwt.repository.EngineerRepository;
 import com.bezkoder.springjwt.repository.ReportRepository;
+import com.bezkoder.springjwt.services.ReportBatchService;
+import com.bezkoder.springjwt.services.ReportService;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -26,10 +30,13 @@ public class ReportController {
     ReportRepository reportRepository;
     
     @Autowired
-    CaseRepository caseRepository;
+    EngineerRepository engineerRepository;
     
     @Autowired
-    EngineerRepository engineerRepository;
+    ReportService reportService;
+    
+    @Autowired
+    ReportBatchService reportBatchService;
     
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
@@ -77,32 +84,20 @@ public class ReportController {
     
     @PostMapping("/generate/engineer/{engineerId}")
     @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
-    public ResponseEntity<Report> generateEngineerReport(@PathVariable("engineerId") Long engineerId) {
+    public ResponseEntity<Report> generateEngineerReport(
+            @PathVariable("engineerId") Long engineerId,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        // Either both bounds or none: a half-open range is rejected rather than guessed
+        if ((startDate == null) != (endDate == null)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
         try {
             Optional<Engineer> engineerData = engineerRepository.findById(engineerId);
             
             if (engineerData.isPresent()) {
-                Engineer engineer = engineerData.get();
-                List<Case> engineerCases = caseRepository.findByEngineer(engineer);
-                
-                // Calculate the total cases
-                int totalCases = engineerCases.size();
-                
-                // Create a new report
-                Report report = new Report(
-                        "Cases report for engineer: " + engineer.getFullName(),
-                        totalCases,
-                        engineer.getFullName()
-                );
-                
-                Report savedReport = reportRepository.save(report);
-                
-                // Assign the report to all cases
-                for (Case caseItem : engineerCases) {
-                    caseItem.setReport(savedReport);
-                    caseRepository.save(caseItem);
-                }
-                
+                Report savedReport = reportService.generateEngineerReport(engineerData.get(), startDate, endDate);
                 return new ResponseEntity<>(savedReport, HttpStatus.CREATED);
             } else {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -112,6 +107,38 @@ public class ReportController {
         }
     }
     
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<BatchRun> startBatchRun(
+            @RequestParam(value = "teamId", required = false) Long teamId,
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        if (startDate.isAfter(endDate)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        
+        BatchRun run = reportBatchService.startRun(teamId, startDate, endDate);
+        return new ResponseEntity<>(run, HttpStatus.ACCEPTED);
+    }
+    
+    @GetMapping("/batch")
+    @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<List<BatchRun>> getRecentBatchRuns() {
+        return new ResponseEntity<>(reportBatchService.getRecentRuns(), HttpStatus.OK);
+    }
+    
+    @GetMapping("/batch/{runId}")
+    @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getBatchRunStatus(@PathVariable("runId") Long runId) {
+        return new ResponseEntity<>(reportBatchService.getRunStatus(runId), HttpStatus.OK);
+    }
+    
+    @PostMapping("/batch/{runId}/resume")
+    @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<BatchRun> resumeBatchRun(@PathVariable("runId") Long runId) {
+        return new ResponseEntity<>(reportBatchService.resumeRun(runId), HttpStatus.ACCEPTED);
+    }
+    
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
     public ResponseEntity<Report> updateReport(@PathVariable("id") Long id, @Valid @RequestBody Report report) {
@@ -15,6 +15,7 @@ import com.bezkoder.springjwt.models.Setting;
 import com.bezkoder.springjwt.models.User;
 import com.bezkoder.springjwt.repository.SettingRepository;
 import com.bezkoder.springjwt.repository.UserRepository;
+import com.bezkoder.springjwt.services.SettingsService;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -26,28 +27,30 @@ public class SettingController {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    SettingsService settingsService;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<Setting>> getAllSettings() {
-        List<Setting> settings = settingRepository.findAll();
+        List<Setting> settings = settingsService.getAllSettings();
         return new ResponseEntity<>(settings, HttpStatus.OK);
     }
 
     @GetMapping("/global")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getGlobalSetting() {
-        List<Setting> settings = settingRepository.findAll();
-        if (settings.isEmpty()) {
+        Setting globalSetting = settingsService.getGlobalSetting();
+        if (globalSetting == null) {
             return new ResponseEntity<>("No global setting found", HttpStatus.NOT_FOUND);
         }
-        // Return the first setting as the global setting
-        return new ResponseEntity<>(settings.get(0), HttpStatus.OK);
+        return new ResponseEntity<>(globalSetting, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Setting> getSettingById(@PathVariable("id") Long id) {
-        Optional<Setting> settingData = settingRepository.findById(id);
+        Optional<Setting> settingData = settingsService.getSetting(id);
 
         if (settingData.isPresent()) {
             return new ResponseEntity<>(settingData.get(), HttpStatus.OK);
@@ -62,7 +65,7 @@ public class SettingController {
         Optional<User> userData = userRepository.findById(userId);
 
         if (userData.isPresent()) {
-            List<Setting> settings = settingRepository.findByUser(userData.get());
+            List<Setting> settings = settingsService.getSettingsForUser(userId);
             return new ResponseEntity<>(settings, HttpStatus.OK);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -74,12 +77,11 @@ public class SettingController {
     public ResponseEntity<?> createSetting(@Valid @RequestBody Setting setting) {
         try {
             // Check if a setting already exists
-            List<Setting> existingSettings = settingRepository.findAll();
-            if (!existingSettings.isEmpty()) {
+            if (settingsService.hasSettings()) {
                 return new ResponseEntity<>("Setting not found", HttpStatus.NOT_FOUND);
             }
 
-            Setting savedSetting = settingRepository.save(setting);
+            Setting savedSetting = settingsService.save(setting);
             return new ResponseEntity<>(savedSetting, HttpStatus.CREATED);
         } catch (Exception e) {
             return new ResponseEntity<>("Error creating setting: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -91,8 +93,7 @@ public class SettingController {
     public ResponseEntity<?> createSettingForUser(@Valid @RequestBody Setting setting, @PathVariable("userId") Long userId) {
         try {
             // Check if a setting already exists
-            List<Setting> existingSettings = settingRepository.findAll();
-            if (!existingSettings.isEmpty()) {
+            if (settingsService.hasSettings()) {
                 return new ResponseEntity<>("Setting not found", HttpStatus.NOT_FOUND);
             }
 
@@ -100,7 +101,7 @@ public class SettingController {
 
             if (userData.isPresent()) {
                 setting.setUser(userData.get());
-                Setting savedSetting = settingRepository.save(setting);
+                Setting savedSetting = settingsService.save(setting);
                 return new ResponseEntity<>(savedSetting, HttpStatus.CREATED);
             } else {
                 return new ResponseEntity<>("User not found", HttpStatus.NOT_FOUND);
@@ -122,7 +123,7 @@ public class SettingController {
             existingSetting.setChatCoefficient(setting.getChatCoefficient());
             existingSetting.setUser(setting.getUser());
 
-            return new ResponseEntity<>(settingRepository.save(existingSetting), HttpStatus.OK);
+            return new ResponseEntity<>(settingsService.save(existingSetting), HttpStatus.OK);
         } else {
             return new ResponseEntity<>("Setting not found", HttpStatus.NOT_FOUND);
         }
@@ -132,7 +133,7 @@ public class SettingController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> deleteSetting(@PathVariable("id") Long id) {
         try {
-            settingRepository.deleteById(id);
+            settingsService.delete(id);
             return new ResponseEntity<>("Setting deleted successfully", HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>("Error deleting setting: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -1,11 +1,15 @@
 package com.bezkoder.springjwt.controllers;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -13,8 +17,10 @@ import org.springframework.web.bind.annotation.*;
 
 import com.bezkoder.springjwt.models.Team;
 import com.bezkoder.springjwt.models.User;
+import com.bezkoder.springjwt.payload.response.TeamTreeResponse;
 import com.bezkoder.springjwt.repository.TeamRepository;
 import com.bezkoder.springjwt.repository.UserRepository;
+import com.bezkoder.springjwt.services.TeamTreeService;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -25,6 +31,9 @@ public class TeamController {
     
     @Autowired
     UserRepository userRepository;
+
+    @Autowired
+    TeamTreeService teamTreeService;
     
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
@@ -33,6 +42,24 @@ public class TeamController {
         return new ResponseEntity<>(teams, HttpStatus.OK);
     }
     
+    // Managers, their teams and engineers in one response. Answers 304 to clients
+    // sending the ETag of an unchanged tree.
+    @GetMapping("/tree")
+    @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<TeamTreeResponse> getTeamTree(
+            @RequestParam(value = "startPeriod", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startPeriod,
+            @RequestParam(value = "endPeriod", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endPeriod,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TeamTreeService.Tree tree = teamTreeService.tree(startPeriod, endPeriod);
+        // Revalidate on every use: the tree changes whenever teams or engineers do
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+        if (matches(ifNoneMatch, tree.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tree.getEtag()).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(tree.getEtag()).cacheControl(cacheControl).body(tree.getResponse());
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
     public ResponseEntity<Team> getTeamById(@PathVariable("id") Long id) {
@@ -141,4 +168,21 @@ public class TeamController {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-} 
\ No newline at end of file
+
+    // If-None-Match holds one or more ETags, possibly weak
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
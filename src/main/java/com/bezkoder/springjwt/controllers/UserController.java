@@ -1,12 +1,17 @@
 package com.bezkoder.springjwt.controllers;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,18 +20,24 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.bezkoder.springjwt.models.ERole;
 import com.bezkoder.springjwt.models.Role;
 import com.bezkoder.springjwt.models.User;
+import com.bezkoder.springjwt.payload.request.BulkSignupRequest;
+import com.bezkoder.springjwt.payload.response.BulkSignupResponse;
 import com.bezkoder.springjwt.payload.response.MessageResponse;
 import com.bezkoder.springjwt.payload.response.UserResponse;
-import com.bezkoder.springjwt.repository.RoleRepository;
 import com.bezkoder.springjwt.repository.UserRepository;
+import com.bezkoder.springjwt.security.services.TokenVersionService;
+import com.bezkoder.springjwt.security.services.UserDetailsServiceImpl;
+import com.bezkoder.springjwt.services.UserOnboardingService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -36,37 +47,49 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = UserController.TOTAL_COUNT_HEADER)
 @RestController
 @RequestMapping("/api/users")
 @Tag(name = "User Management", description = "User and manager management APIs")
 public class UserController {
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     @Autowired
     UserRepository userRepository;
 
     @Autowired
-    RoleRepository roleRepository;
+    PasswordEncoder encoder;
 
     @Autowired
-    PasswordEncoder encoder;
+    TokenVersionService tokenVersionService;
+
+    @Autowired
+    UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    UserOnboardingService userOnboardingService;
 
-    @Operation(summary = "Get all managers", description = "Retrieve all users with manager role (ROLE_MODERATOR)")
+    @Operation(summary = "Get all managers",
+        description = "Retrieve a page of the users with manager role (ROLE_MODERATOR), ordered by ID: "
+            + "page 0 of " + DEFAULT_PAGE_SIZE + " managers by default, at most " + MAX_PAGE_SIZE + " per page. "
+            + "The X-Total-Count header carries the number of managers, to tell whether there are more pages")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved managers"),
         @ApiResponse(responseCode = "403", description = "Access denied")
     })
     @GetMapping("/managers")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponse>> getAllManagers() {
-        List<User> users = userRepository.findAll();
-
-        List<UserResponse> managers = users.stream()
-            .filter(user -> user.getRoles().stream()
-                .anyMatch(role -> role.getName() == ERole.ROLE_MODERATOR))
-            .map(this::convertToUserResponse)
-            .collect(Collectors.toList());
-
-        return new ResponseEntity<>(managers, HttpStatus.OK);
+    public ResponseEntity<List<UserResponse>> getAllManagers(
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        Page<Object[]> managers = userRepository.findSummariesByRole(ERole.ROLE_MODERATOR,
+            PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
+
+        return ResponseEntity.ok()
+            .header(TOTAL_COUNT_HEADER, String.valueOf(managers.getTotalElements()))
+            .body(convertToUserResponses(managers.getContent()));
     }
 
     @Operation(summary = "Get manager by ID", description = "Retrieve a specific manager by user ID")
@@ -78,7 +101,7 @@ public class UserController {
     @GetMapping("/managers/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getManagerById(@PathVariable("id") Long id) {
-        Optional<User> userData = userRepository.findById(id);
+        Optional<User> userData = userRepository.findWithRolesById(id);
 
         if (userData.isPresent()) {
             User user = userData.get();
@@ -99,6 +122,21 @@ public class UserController {
         }
     }
 
+    @Operation(summary = "Register users in bulk",
+        description = "Create up to 1000 user accounts at once. Signups whose username or email is taken, "
+            + "by an existing user or an earlier signup of the batch, are rejected, the others created")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see the result of each signup",
+            content = @Content(schema = @Schema(implementation = BulkSignupResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkSignupResponse> registerUsers(@Valid @RequestBody BulkSignupRequest bulkSignupRequest) {
+        return ResponseEntity.ok(userOnboardingService.registerAll(bulkSignupRequest.getUsers()));
+    }
+
     @Operation(summary = "Update user", description = "Update user information")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "User updated successfully"),
@@ -108,36 +146,42 @@ public class UserController {
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> updateUser(@PathVariable("id") Long id, @Valid @RequestBody User userRequest) {
-        Optional<User> userData = userRepository.findById(id);
+        Optional<User> userData = userRepository.findWithRolesById(id);
 
         if (userData.isPresent()) {
             User user = userData.get();
-
-            // Update user fields
-            if (userRequest.getUsername() != null) {
-                // Check if username is already taken by another user
-                if (!user.getUsername().equals(userRequest.getUsername()) &&
-                    userRepository.existsByUsername(userRequest.getUsername())) {
+            String previousUsername = user.getUsername();
+            // Tokens carry the username and email, changing them or the password revokes them
+            boolean revokeTokens = false;
+
+            // Check the changed username and email against other users in one query
+            String newUsername = userRequest.getUsername() != null &&
+                !user.getUsername().equals(userRequest.getUsername()) ? userRequest.getUsername() : null;
+            String newEmail = userRequest.getEmail() != null &&
+                !user.getEmail().equals(userRequest.getEmail()) ? userRequest.getEmail() : null;
+            if (newUsername != null || newEmail != null) {
+                String conflict = userOnboardingService.findConflict(newUsername, newEmail, user.getId());
+                if (conflict != null) {
                     return ResponseEntity
                         .badRequest()
-                        .body(new MessageResponse("Error: Username is already taken!"));
+                        .body(new MessageResponse(conflict));
                 }
-                user.setUsername(userRequest.getUsername());
             }
 
-            if (userRequest.getEmail() != null) {
-                // Check if email is already in use by another user
-                if (!user.getEmail().equals(userRequest.getEmail()) &&
-                    userRepository.existsByEmail(userRequest.getEmail())) {
-                    return ResponseEntity
-                        .badRequest()
-                        .body(new MessageResponse("Error: Email is already in use!"));
-                }
-                user.setEmail(userRequest.getEmail());
+            // Update user fields
+            if (newUsername != null) {
+                user.setUsername(newUsername);
+                revokeTokens = true;
+            }
+
+            if (newEmail != null) {
+                user.setEmail(newEmail);
+                revokeTokens = true;
             }
 
             if (userRequest.getPassword() != null && !userRequest.getPassword().isEmpty()) {
                 user.setPassword(encoder.encode(userRequest.getPassword()));
+                revokeTokens = true;
             }
 
             if (userRequest.getFirstName() != null) {
@@ -149,6 +193,10 @@ public class UserController {
             }
 
             User updatedUser = userRepository.save(user);
+            if (revokeTokens) {
+                tokenVersionService.revokeTokens(updatedUser.getId());
+            }
+            userDetailsService.evictUser(previousUsername);
             return new ResponseEntity<>(convertToUserResponse(updatedUser), HttpStatus.OK);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -165,7 +213,7 @@ public class UserController {
     @PutMapping("/{id}/role/manager")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> addManagerRole(@PathVariable("id") Long id) {
-        Optional<User> userData = userRepository.findById(id);
+        Optional<User> userData = userRepository.findWithRolesById(id);
 
         if (userData.isPresent()) {
             User user = userData.get();
@@ -181,14 +229,15 @@ public class UserController {
             }
 
             // Add manager role
-            Role managerRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-                .orElseThrow(() -> new RuntimeException("Error: Manager role not found."));
+            Role managerRole = userOnboardingService.findRole(ERole.ROLE_MODERATOR);
 
             Set<Role> roles = user.getRoles();
             roles.add(managerRole);
             user.setRoles(roles);
 
             userRepository.save(user);
+            // Tokens carry the roles, the old ones must not keep the previous roles
+            invalidateUser(user.getId(), user.getUsername());
 
             return ResponseEntity.ok(new MessageResponse("Manager role added successfully!"));
         } else {
@@ -206,7 +255,7 @@ public class UserController {
     @PutMapping("/username/{username}/role/manager")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> addManagerRoleByUsername(@PathVariable("username") String username) {
-        Optional<User> userData = userRepository.findByUsername(username);
+        Optional<User> userData = userRepository.findWithRolesByUsername(username);
 
         if (userData.isPresent()) {
             User user = userData.get();
@@ -222,14 +271,15 @@ public class UserController {
             }
 
             // Add manager role
-            Role managerRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-                .orElseThrow(() -> new RuntimeException("Error: Manager role not found."));
+            Role managerRole = userOnboardingService.findRole(ERole.ROLE_MODERATOR);
 
             Set<Role> roles = user.getRoles();
             roles.add(managerRole);
             user.setRoles(roles);
 
             userRepository.save(user);
+            // Tokens carry the roles, the old ones must not keep the previous roles
+            invalidateUser(user.getId(), user.getUsername());
 
             return ResponseEntity.ok(new MessageResponse("Manager role added successfully!"));
         } else {
@@ -247,7 +297,7 @@ public class UserController {
     @DeleteMapping("/{id}/role/manager")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> removeManagerRole(@PathVariable("id") Long id) {
-        Optional<User> userData = userRepository.findById(id);
+        Optional<User> userData = userRepository.findWithRolesById(id);
 
         if (userData.isPresent()) {
             User user = userData.get();
@@ -269,6 +319,8 @@ public class UserController {
             user.setRoles(roles);
 
             userRepository.save(user);
+            // Tokens carry the roles, the old ones must not keep the previous roles
+            invalidateUser(user.getId(), user.getUsername());
 
             return ResponseEntity.ok(new MessageResponse("Manager role removed successfully!"));
         } else {
@@ -286,7 +338,7 @@ public class UserController {
     @DeleteMapping("/username/{username}/role/manager")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> removeManagerRoleByUsername(@PathVariable("username") String username) {
-        Optional<User> userData = userRepository.findByUsername(username);
+        Optional<User> userData = userRepository.findWithRolesByUsername(username);
 
         if (userData.isPresent()) {
             User user = userData.get();
@@ -308,6 +360,8 @@ public class UserController {
             user.setRoles(roles);
 
             userRepository.save(user);
+            // Tokens carry the roles, the old ones must not keep the previous roles
+            invalidateUser(user.getId(), user.getUsername());
 
             return ResponseEntity.ok(new MessageResponse("Manager role removed successfully!"));
         } else {
@@ -315,6 +369,50 @@ public class UserController {
         }
     }
 
+    @Operation(summary = "Revoke user tokens", description = "Sign a user out everywhere: revoke all its access and refresh tokens")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tokens revoked successfully"),
+        @ApiResponse(responseCode = "404", description = "User not found"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PostMapping("/{id}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> revokeTokens(@PathVariable("id") Long id) {
+        Optional<User> userData = userRepository.findById(id);
+
+        if (userData.isPresent()) {
+            User user = userData.get();
+            invalidateUser(user.getId(), user.getUsername());
+
+            return ResponseEntity.ok(new MessageResponse("User tokens revoked successfully!"));
+        } else {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // Revoke the user's tokens and drop its cached user details on every node
+    private void invalidateUser(Long userId, String username) {
+        tokenVersionService.revokeTokens(userId);
+        userDetailsService.evictUser(username);
+    }
+
+    // Users of [id, username, email, firstName, lastName] rows, with their roles loaded in one query
+    private List<UserResponse> convertToUserResponses(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = rows.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+        Map<Long, List<String>> roles = new HashMap<>();
+        for (Object[] row : userRepository.findRoleNamesByUserIds(ids)) {
+            roles.computeIfAbsent((Long) row[0], userId -> new ArrayList<>()).add(((ERole) row[1]).name());
+        }
+
+        return rows.stream()
+            .map(row -> new UserResponse((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                (String) row[4], roles.getOrDefault((Long) row[0], new ArrayList<>())))
+            .collect(Collectors.toList());
+    }
+
     // Helper method to convert User to UserResponse
     private UserResponse convertToUserResponse(User user) {
         List<String> roles = user.getRoles().stream()
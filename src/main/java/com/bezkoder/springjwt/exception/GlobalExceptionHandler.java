@@ -6,6 +6,7 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -32,6 +33,8 @@ import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.servlet.NoHandlerFoundException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import com.bezkoder.springjwt.security.jwt.SecurityErrorWriter;
+
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -44,10 +47,14 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    // Counts and samples the logs of authentication and authorization failures
+    @Autowired
+    private SecurityErrorWriter securityErrorWriter;
+
     // Handle AccessDeniedException (insufficient permissions)
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorResponse> handleAccessDeniedException(AccessDeniedException ex, WebRequest request) {
-        logger.error("Access denied: {}", ex.getMessage());
+        securityErrorWriter.record(HttpStatus.FORBIDDEN.value(), "Access Denied", ex.getMessage(), request.getDescription(false));
         
         ErrorResponse errorResponse = new ErrorResponse(
             new Date(),
@@ -62,7 +69,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     // Handle AuthenticationException (general authentication failures)
     @ExceptionHandler(AuthenticationException.class)
     public ResponseEntity<ErrorResponse> handleAuthenticationException(AuthenticationException ex, WebRequest request) {
-        logger.error("Authentication failed: {}", ex.getMessage());
+        securityErrorWriter.record(HttpStatus.UNAUTHORIZED.value(), "Authentication Failed", ex.getMessage(), request.getDescription(false));
         
         ErrorResponse errorResponse = new ErrorResponse(
             new Date(),
@@ -77,7 +84,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     // Handle BadCredentialsException (invalid username/password)
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ErrorResponse> handleBadCredentialsException(BadCredentialsException ex, WebRequest request) {
-        logger.error("Bad credentials: {}", ex.getMessage());
+        securityErrorWriter.record(HttpStatus.UNAUTHORIZED.value(), "Invalid Credentials", ex.getMessage(), request.getDescription(false));
         
         ErrorResponse errorResponse = new ErrorResponse(
             new Date(),
@@ -92,7 +99,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     // Handle UsernameNotFoundException
     @ExceptionHandler(UsernameNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleUsernameNotFoundException(UsernameNotFoundException ex, WebRequest request) {
-        logger.error("Username not found: {}", ex.getMessage());
+        securityErrorWriter.record(HttpStatus.UNAUTHORIZED.value(), "User Not Found", ex.getMessage(), request.getDescription(false));
         
         ErrorResponse errorResponse = new ErrorResponse(
             new Date(),
@@ -107,7 +114,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     // Handle DisabledException (account disabled)
     @ExceptionHandler(DisabledException.class)
     public ResponseEntity<ErrorResponse> handleDisabledException(DisabledException ex, WebRequest request) {
-        logger.error("Account disabled: {}", ex.getMessage());
+        securityErrorWriter.record(HttpStatus.UNAUTHORIZED.value(), "Account Disabled", ex.getMessage(), request.getDescription(false));
         
         ErrorResponse errorResponse = new ErrorResponse(
             new Date(),
@@ -122,7 +129,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     // Handle LockedException (account locked)
     @ExceptionHandler(LockedException.class)
     public ResponseEntity<ErrorResponse> handleLockedException(LockedException ex, WebRequest request) {
-        logger.error("Account locked: {}", ex.getMessage());
+        securityErrorWriter.record(HttpStatus.UNAUTHORIZED.value(), "Account Locked", ex.getMessage(), request.getDescription(false));
         
         ErrorResponse errorResponse = new ErrorResponse(
             new Date(),
@@ -271,6 +278,23 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
     }
     
+    // Handle TooManyRequestsException (load shedding)
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(TooManyRequestsException ex, WebRequest request) {
+        logger.warn("Request shed: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            new Date(),
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            "Too Many Requests",
+            ex.getMessage(),
+            request.getDescription(false)
+        );
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return new ResponseEntity<>(errorResponse, headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+    
     // Handle MaxUploadSizeExceededException
     @ExceptionHandler(MaxUploadSizeExceededException.class)
     public ResponseEntity<ErrorResponse> handleMaxUploadSizeExceededException(MaxUploadSizeExceededException ex, WebRequest request) {
@@ -334,7 +358,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     // Handle InsufficientAuthenticationException
     @ExceptionHandler(InsufficientAuthenticationException.class)
     public ResponseEntity<ErrorResponse> handleInsufficientAuthenticationException(InsufficientAuthenticationException ex, WebRequest request) {
-        logger.error("Insufficient authentication: {}", ex.getMessage());
+        securityErrorWriter.record(HttpStatus.UNAUTHORIZED.value(), "Authentication Required", ex.getMessage(), request.getDescription(false));
         
         ErrorResponse errorResponse = new ErrorResponse(
             new Date(),
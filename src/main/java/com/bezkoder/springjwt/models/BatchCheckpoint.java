@@ -0,0 +1,95 @@
+package com.bezkoder.springjwt.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A committed unit of work of a {@link BatchRun}. Items are identified by id
+ * and a checkpoint covers the inclusive id range [firstItemId, lastItemId].
+ */
+@Entity
+@Table(name = "batch_checkpoints",
+    uniqueConstraints = {
+      @UniqueConstraint(columnNames = {"run_id", "first_item_id"})
+    })
+public class BatchCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "run_id")
+    private Long runId;
+
+    @NotNull
+    @Column(name = "first_item_id")
+    private Long firstItemId;
+
+    @NotNull
+    private Long lastItemId;
+
+    private Integer itemCount;
+
+    private LocalDateTime committedAt;
+
+    public BatchCheckpoint() {
+    }
+
+    public BatchCheckpoint(Long runId, Long firstItemId, Long lastItemId, Integer itemCount) {
+        this.runId = runId;
+        this.firstItemId = firstItemId;
+        this.lastItemId = lastItemId;
+        this.itemCount = itemCount;
+        this.committedAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRunId() {
+        return runId;
+    }
+
+    public void setRunId(Long runId) {
+        this.runId = runId;
+    }
+
+    public Long getFirstItemId() {
+        return firstItemId;
+    }
+
+    public void setFirstItemId(Long firstItemId) {
+        this.firstItemId = firstItemId;
+    }
+
+    public Long getLastItemId() {
+        return lastItemId;
+    }
+
+    public void setLastItemId(Long lastItemId) {
+        this.lastItemId = lastItemId;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public LocalDateTime getCommittedAt() {
+        return committedAt;
+    }
+
+    public void setCommittedAt(LocalDateTime committedAt) {
+        this.committedAt = committedAt;
+    }
+}
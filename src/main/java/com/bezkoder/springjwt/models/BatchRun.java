@@ -0,0 +1,202 @@
+package com.bezkoder.springjwt.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+@Entity
+@Table(name = "batch_runs",
+    uniqueConstraints = {
+      @UniqueConstraint(columnNames = "run_key")
+    })
+public class BatchRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Size(max = 50)
+    private String jobName;
+
+    // Set for scheduled runs so that only one node can start a given period
+    @Size(max = 100)
+    @Column(name = "run_key")
+    private String runKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private EBatchStatus status;
+
+    private Long teamId;
+
+    private LocalDateTime startDate;
+
+    private LocalDateTime endDate;
+
+    private Integer totalItems;
+
+    private Integer processedItems;
+
+    private Integer failedItems;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private Long durationMs;
+
+    @Size(max = 1000)
+    private String lastError;
+
+    // Bonus runs: fixed when the run starts, so that a resumed run computes like the first attempt
+    private LocalDate calculationDate;
+
+    @JsonIgnore
+    @Lob
+    private String coefficients;
+
+    public BatchRun() {
+    }
+
+    public BatchRun(String jobName, Long teamId, LocalDateTime startDate, LocalDateTime endDate) {
+        this.jobName = jobName;
+        this.teamId = teamId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = EBatchStatus.RUNNING;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public String getRunKey() {
+        return runKey;
+    }
+
+    public void setRunKey(String runKey) {
+        this.runKey = runKey;
+    }
+
+    public EBatchStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(EBatchStatus status) {
+        this.status = status;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+
+    public Integer getTotalItems() {
+        return totalItems;
+    }
+
+    public void setTotalItems(Integer totalItems) {
+        this.totalItems = totalItems;
+    }
+
+    public Integer getProcessedItems() {
+        return processedItems;
+    }
+
+    public void setProcessedItems(Integer processedItems) {
+        this.processedItems = processedItems;
+    }
+
+    public Integer getFailedItems() {
+        return failedItems;
+    }
+
+    public void setFailedItems(Integer failedItems) {
+        this.failedItems = failedItems;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDate getCalculationDate() {
+        return calculationDate;
+    }
+
+    public void setCalculationDate(LocalDate calculationDate) {
+        this.calculationDate = calculationDate;
+    }
+
+    public String getCoefficients() {
+        return coefficients;
+    }
+
+    public void setCoefficients(String coefficients) {
+        this.coefficients = coefficients;
+    }
+}
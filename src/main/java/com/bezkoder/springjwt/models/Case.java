@@ -2,6 +2,10 @@ package com.bezkoder.springjwt.models;
 
 import java.time.LocalDateTime;
 
+import com.bezkoder.springjwt.services.CaseChangeListener;
+import com.bezkoder.springjwt.services.DashboardChangeListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,6 +13,7 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "cases")
+@EntityListeners({ CaseChangeListener.class, DashboardChangeListener.class })
 public class Case {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -56,6 +61,16 @@ public class Case {
     @JoinColumn(name = "report_id")
     private Report report;
 
+    // Engineer and date as last read from the database, so that a reassignment
+    // also marks the bonuses of the previous engineer / period as stale
+    @Transient
+    @JsonIgnore
+    private Long loadedEngineerId;
+
+    @Transient
+    @JsonIgnore
+    private LocalDateTime loadedDate;
+
     public Case() {
     }
 
@@ -215,4 +230,19 @@ public class Case {
     public void setSurveyFeedback(String surveyFeedback) {
         this.surveyFeedback = surveyFeedback;
     }
-}
\ No newline at end of file
+
+    @JsonIgnore
+    public Long getLoadedEngineerId() {
+        return loadedEngineerId;
+    }
+
+    @JsonIgnore
+    public LocalDateTime getLoadedDate() {
+        return loadedDate;
+    }
+
+    public void markLoaded() {
+        this.loadedEngineerId = engineer != null ? engineer.getId() : null;
+        this.loadedDate = date;
+    }
+}
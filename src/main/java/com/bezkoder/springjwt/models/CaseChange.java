@@ -0,0 +1,72 @@
+package com.bezkoder.springjwt.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Outbox row written whenever a {@link Case} is inserted, updated, reassigned or
+ * deleted. It marks the bonuses of the engineer for the periods containing the
+ * case date as stale until the recomputer picks it up.
+ */
+@Entity
+@Table(name = "case_changes")
+public class CaseChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "engineer_id")
+    private Long engineerId;
+
+    @NotNull
+    @Column(name = "case_date")
+    private LocalDate caseDate;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public CaseChange() {
+    }
+
+    public CaseChange(Long engineerId, LocalDate caseDate) {
+        this.engineerId = engineerId;
+        this.caseDate = caseDate;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getEngineerId() {
+        return engineerId;
+    }
+
+    public void setEngineerId(Long engineerId) {
+        this.engineerId = engineerId;
+    }
+
+    public LocalDate getCaseDate() {
+        return caseDate;
+    }
+
+    public void setCaseDate(LocalDate caseDate) {
+        this.caseDate = caseDate;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,57 @@
+package com.bezkoder.springjwt.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Monotonic version of a named piece of cached state (settings, ...). Writers bump
+ * the version in the same transaction as the change, and every node polls it to
+ * know when its in-memory copy is stale.
+ */
+@Entity
+@Table(name = "change_versions")
+public class ChangeVersion {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @NotNull
+    private Long version;
+
+    private LocalDateTime updatedAt;
+
+    public ChangeVersion() {
+    }
+
+    public ChangeVersion(String name, Long version) {
+        this.name = name;
+        this.version = version;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.bezkoder.springjwt.models;
+
+public enum EBatchStatus {
+  RUNNING,
+  COMPLETED,
+  FAILED
+}
@@ -0,0 +1,6 @@
+package com.bezkoder.springjwt.models;
+
+public enum EPayoutFormat {
+  CSV,
+  FIXED
+}
@@ -7,8 +7,12 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import com.bezkoder.springjwt.services.DashboardChangeListener;
+import com.bezkoder.springjwt.services.EngineerIndexListener;
+import com.bezkoder.springjwt.services.TeamTreeChangeListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 @Entity
+@EntityListeners({ TeamTreeChangeListener.class, EngineerIndexListener.class, DashboardChangeListener.class })
 @Table(name = "engineers")
 public class Engineer {
     @Id
@@ -0,0 +1,94 @@
+package com.bezkoder.springjwt.models;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+
+/**
+ * Key pair signing the access tokens, identified by the "kid" header of the tokens
+ * it signed. The private key is stored encrypted.
+ */
+@Entity
+@Table(name = "jwt_signing_keys",
+    uniqueConstraints = @UniqueConstraint(name = "uk_jwt_signing_keys_kid", columnNames = "kid"))
+public class JwtSigningKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "kid", nullable = false, length = 36)
+    private String kid;
+
+    @Column(name = "algorithm", nullable = false, length = 10)
+    private String algorithm;
+
+    // X.509 encoding, base64
+    @Column(name = "public_key", nullable = false, length = 4000)
+    private String publicKey;
+
+    // Encrypted PKCS#8 encoding, base64
+    @Column(name = "private_key", nullable = false, length = 4000)
+    private String privateKey;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public JwtSigningKey() {
+    }
+
+    public JwtSigningKey(String kid, String algorithm, String publicKey, String privateKey) {
+        this.kid = kid;
+        this.algorithm = algorithm;
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        this.createdAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getKid() {
+        return kid;
+    }
+
+    public void setKid(String kid) {
+        this.kid = kid;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public void setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
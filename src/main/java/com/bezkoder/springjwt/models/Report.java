@@ -6,7 +6,10 @@ import java.util.Set;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 
+import com.bezkoder.springjwt.services.DashboardChangeListener;
+
 @Entity
+@EntityListeners(DashboardChangeListener.class)
 @Table(name = "reports")
 public class Report {
     @Id
@@ -7,7 +7,12 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import com.bezkoder.springjwt.services.DashboardChangeListener;
+import com.bezkoder.springjwt.services.TeamTreeChangeListener;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 @Entity
+@EntityListeners({ TeamTreeChangeListener.class, DashboardChangeListener.class })
 @Table(name = "teams")
 public class Team {
     @Id
@@ -18,10 +23,13 @@ public class Team {
     @Size(max = 50)
     private String name;
 
+    // The manager, without the back references that made teams serialize recursively
+    @JsonIgnoreProperties({"password", "settings", "managedTeams"})
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
 
+    @JsonIgnoreProperties("team")
     @OneToMany(mappedBy = "team")
     private Set<Engineer> engineers = new HashSet<>();
 
@@ -8,7 +8,12 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import com.bezkoder.springjwt.services.DashboardChangeListener;
+import com.bezkoder.springjwt.services.TeamTreeChangeListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Entity
+@EntityListeners({ TeamTreeChangeListener.class, DashboardChangeListener.class })
 @Table(name = "users",
     uniqueConstraints = {
       @UniqueConstraint(columnNames = "username"),
@@ -39,6 +44,12 @@ public class User {
   @Size(max = 50)
   private String lastName;
 
+  // Tokens issued with an older version are rejected. Only changed by
+  // UserRepository.incrementTokenVersion, never by saving the entity.
+  @JsonIgnore
+  @Column(name = "token_version", updatable = false)
+  private Long tokenVersion = 0L;
+
   @ManyToMany(fetch = FetchType.LAZY)
   @JoinTable(name = "user_roles",
         joinColumns = @JoinColumn(name = "user_id"),
@@ -110,6 +121,14 @@ public class User {
     this.lastName = lastName;
   }
 
+  public Long getTokenVersion() {
+    return tokenVersion;
+  }
+
+  public void setTokenVersion(Long tokenVersion) {
+    this.tokenVersion = tokenVersion;
+  }
+
   public Set<Role> getRoles() {
     return roles;
   }
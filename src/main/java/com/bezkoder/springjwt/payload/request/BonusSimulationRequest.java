@@ -0,0 +1,101 @@
+package com.bezkoder.springjwt.payload.request;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+
+public class BonusSimulationRequest {
+  @NotNull
+  private LocalDate startPeriod;
+
+  @NotNull
+  private LocalDate endPeriod;
+
+  @NotEmpty
+  @Size(max = 200)
+  @Valid
+  private List<CoefficientSet> coefficientSets;
+
+  // Also return the amount of every engineer, not only the distribution summary
+  private boolean includeEngineers = true;
+
+  public LocalDate getStartPeriod() {
+    return startPeriod;
+  }
+
+  public void setStartPeriod(LocalDate startPeriod) {
+    this.startPeriod = startPeriod;
+  }
+
+  public LocalDate getEndPeriod() {
+    return endPeriod;
+  }
+
+  public void setEndPeriod(LocalDate endPeriod) {
+    this.endPeriod = endPeriod;
+  }
+
+  public List<CoefficientSet> getCoefficientSets() {
+    return coefficientSets;
+  }
+
+  public void setCoefficientSets(List<CoefficientSet> coefficientSets) {
+    this.coefficientSets = coefficientSets;
+  }
+
+  public boolean isIncludeEngineers() {
+    return includeEngineers;
+  }
+
+  public void setIncludeEngineers(boolean includeEngineers) {
+    this.includeEngineers = includeEngineers;
+  }
+
+  public static class CoefficientSet {
+    @Size(max = 100)
+    private String label;
+
+    @NotNull
+    @DecimalMin(value = "0.0")
+    private Double caseCoefficient;
+
+    @NotNull
+    @DecimalMin(value = "0.0")
+    private Double chatCoefficient;
+
+    public CoefficientSet() {
+    }
+
+    public CoefficientSet(String label, Double caseCoefficient, Double chatCoefficient) {
+      this.label = label;
+      this.caseCoefficient = caseCoefficient;
+      this.chatCoefficient = chatCoefficient;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+
+    public void setLabel(String label) {
+      this.label = label;
+    }
+
+    public Double getCaseCoefficient() {
+      return caseCoefficient;
+    }
+
+    public void setCaseCoefficient(Double caseCoefficient) {
+      this.caseCoefficient = caseCoefficient;
+    }
+
+    public Double getChatCoefficient() {
+      return chatCoefficient;
+    }
+
+    public void setChatCoefficient(Double chatCoefficient) {
+      this.chatCoefficient = chatCoefficient;
+    }
+  }
+}
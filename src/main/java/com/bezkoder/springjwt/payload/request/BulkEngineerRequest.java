@@ -0,0 +1,21 @@
+package com.bezkoder.springjwt.payload.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class BulkEngineerRequest {
+  @NotEmpty
+  @Size(max = 5000)
+  private List<@Valid EngineerUpsertRequest> engineers;
+
+  public List<EngineerUpsertRequest> getEngineers() {
+    return engineers;
+  }
+
+  public void setEngineers(List<EngineerUpsertRequest> engineers) {
+    this.engineers = engineers;
+  }
+}
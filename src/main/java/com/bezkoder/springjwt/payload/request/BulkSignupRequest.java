@@ -0,0 +1,21 @@
+package com.bezkoder.springjwt.payload.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class BulkSignupRequest {
+  @NotEmpty
+  @Size(max = 1000)
+  private List<@Valid SignupRequest> users;
+
+  public List<SignupRequest> getUsers() {
+    return users;
+  }
+
+  public void setUsers(List<SignupRequest> users) {
+    this.users = users;
+  }
+}
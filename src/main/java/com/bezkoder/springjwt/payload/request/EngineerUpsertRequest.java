@@ -0,0 +1,81 @@
+package com.bezkoder.springjwt.payload.request;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One engineer of a bulk upsert. Omitted optional fields keep their current value
+ * when the engineer exists.
+ */
+public class EngineerUpsertRequest {
+  @NotBlank
+  @Size(max = 100)
+  private String fullName;
+
+  @Size(max = 20)
+  private String phoneNumber;
+
+  @Email
+  @Size(max = 50)
+  private String email;
+
+  @Size(max = 10)
+  private String gender;
+
+  // Username of the manager
+  @NotBlank
+  @Size(max = 50)
+  private String manager;
+
+  @Size(max = 50)
+  private String teamName;
+
+  public String getFullName() {
+    return fullName;
+  }
+
+  public void setFullName(String fullName) {
+    this.fullName = fullName;
+  }
+
+  public String getPhoneNumber() {
+    return phoneNumber;
+  }
+
+  public void setPhoneNumber(String phoneNumber) {
+    this.phoneNumber = phoneNumber;
+  }
+
+  public String getEmail() {
+    return email;
+  }
+
+  public void setEmail(String email) {
+    this.email = email;
+  }
+
+  public String getGender() {
+    return gender;
+  }
+
+  public void setGender(String gender) {
+    this.gender = gender;
+  }
+
+  public String getManager() {
+    return manager;
+  }
+
+  public void setManager(String manager) {
+    this.manager = manager;
+  }
+
+  public String getTeamName() {
+    return teamName;
+  }
+
+  public void setTeamName(String teamName) {
+    this.teamName = teamName;
+  }
+}
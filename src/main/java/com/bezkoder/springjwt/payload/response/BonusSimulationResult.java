@@ -0,0 +1,83 @@
+package com.bezkoder.springjwt.payload.response;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Outcome of one simulated coefficient set: total payout and distribution of
+ * the per-engineer amounts.
+ */
+public class BonusSimulationResult {
+    private String label;
+    private Double caseCoefficient;
+    private Double chatCoefficient;
+    private int engineers;
+    private BigDecimal totalAmount;
+    private BigDecimal averageAmount;
+    private BigDecimal minAmount;
+    private BigDecimal medianAmount;
+    private BigDecimal p90Amount;
+    private BigDecimal maxAmount;
+    private Map<Long, BigDecimal> amountsByEngineer;
+
+    public BonusSimulationResult(String label, Double caseCoefficient, Double chatCoefficient, int engineers,
+                                 BigDecimal totalAmount, BigDecimal averageAmount, BigDecimal minAmount,
+                                 BigDecimal medianAmount, BigDecimal p90Amount, BigDecimal maxAmount,
+                                 Map<Long, BigDecimal> amountsByEngineer) {
+        this.label = label;
+        this.caseCoefficient = caseCoefficient;
+        this.chatCoefficient = chatCoefficient;
+        this.engineers = engineers;
+        this.totalAmount = totalAmount;
+        this.averageAmount = averageAmount;
+        this.minAmount = minAmount;
+        this.medianAmount = medianAmount;
+        this.p90Amount = p90Amount;
+        this.maxAmount = maxAmount;
+        this.amountsByEngineer = amountsByEngineer;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Double getCaseCoefficient() {
+        return caseCoefficient;
+    }
+
+    public Double getChatCoefficient() {
+        return chatCoefficient;
+    }
+
+    public int getEngineers() {
+        return engineers;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public BigDecimal getAverageAmount() {
+        return averageAmount;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public BigDecimal getMedianAmount() {
+        return medianAmount;
+    }
+
+    public BigDecimal getP90Amount() {
+        return p90Amount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public Map<Long, BigDecimal> getAmountsByEngineer() {
+        return amountsByEngineer;
+    }
+}
@@ -0,0 +1,112 @@
+package com.bezkoder.springjwt.payload.response;
+
+import java.util.List;
+
+public class BulkEngineerResponse {
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String REJECTED = "rejected";
+
+    private int created;
+    private int updated;
+    private int rejected;
+    private List<Item> results;
+
+    public BulkEngineerResponse(int created, int updated, int rejected, List<Item> results) {
+        this.created = created;
+        this.updated = updated;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<Item> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Item> results) {
+        this.results = results;
+    }
+
+    /**
+     * Outcome for one engineer of the request, in request order.
+     */
+    public static class Item {
+        private int index;
+        private String fullName;
+        private Long id;
+        private String status;
+        private String error;
+
+        public Item(int index, String fullName, Long id, String status, String error) {
+            this.index = index;
+            this.fullName = fullName;
+            this.id = id;
+            this.status = status;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        public void setFullName(String fullName) {
+            this.fullName = fullName;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
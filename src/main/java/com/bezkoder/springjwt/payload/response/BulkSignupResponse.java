@@ -0,0 +1,88 @@
+package com.bezkoder.springjwt.payload.response;
+
+import java.util.List;
+
+public class BulkSignupResponse {
+    private int created;
+    private int rejected;
+    private List<Item> results;
+
+    public BulkSignupResponse(int created, int rejected, List<Item> results) {
+        this.created = created;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<Item> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Item> results) {
+        this.results = results;
+    }
+
+    /**
+     * Outcome for one user of the request, in request order.
+     */
+    public static class Item {
+        private int index;
+        private String username;
+        private Long id;
+        private String error;
+
+        public Item(int index, String username, Long id, String error) {
+            this.index = index;
+            this.username = username;
+            this.id = id;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.bezkoder.springjwt.payload.response;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Organisation-wide figures of the landing page, as of {@code generatedAt}.
+ */
+public class DashboardResponse {
+    private final Instant generatedAt;
+    private final long totalCases;
+    private final long recentCases;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Double recentAverageCes;
+    private final int recentDays;
+    private final long teamCount;
+    private final long engineerCount;
+    private final long unassignedEngineers;
+    private final List<TeamSize> largestTeams;
+    private final long userCount;
+    private final long activeUsers;
+    private final List<ReportSummary> recentReports;
+
+    public DashboardResponse(Instant generatedAt, long totalCases, long recentCases, Double recentAverageCes,
+                             int recentDays, long teamCount, long engineerCount, long unassignedEngineers,
+                             List<TeamSize> largestTeams, long userCount, long activeUsers,
+                             List<ReportSummary> recentReports) {
+        this.generatedAt = generatedAt;
+        this.totalCases = totalCases;
+        this.recentCases = recentCases;
+        this.recentAverageCes = recentAverageCes;
+        this.recentDays = recentDays;
+        this.teamCount = teamCount;
+        this.engineerCount = engineerCount;
+        this.unassignedEngineers = unassignedEngineers;
+        this.largestTeams = largestTeams;
+        this.userCount = userCount;
+        this.activeUsers = activeUsers;
+        this.recentReports = recentReports;
+    }
+
+    public Instant getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public long getTotalCases() {
+        return totalCases;
+    }
+
+    // Cases of the last recentDays days
+    public long getRecentCases() {
+        return recentCases;
+    }
+
+    public Double getRecentAverageCes() {
+        return recentAverageCes;
+    }
+
+    public int getRecentDays() {
+        return recentDays;
+    }
+
+    public long getTeamCount() {
+        return teamCount;
+    }
+
+    public long getEngineerCount() {
+        return engineerCount;
+    }
+
+    public long getUnassignedEngineers() {
+        return unassignedEngineers;
+    }
+
+    public List<TeamSize> getLargestTeams() {
+        return largestTeams;
+    }
+
+    public long getUserCount() {
+        return userCount;
+    }
+
+    // Users holding a refresh token that can still be used
+    public long getActiveUsers() {
+        return activeUsers;
+    }
+
+    public List<ReportSummary> getRecentReports() {
+        return recentReports;
+    }
+
+    public static class TeamSize {
+        private final Long id;
+        private final String name;
+        private final long engineers;
+
+        public TeamSize(Long id, String name, long engineers) {
+            this.id = id;
+            this.name = name;
+            this.engineers = engineers;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getEngineers() {
+            return engineers;
+        }
+    }
+
+    public static class ReportSummary {
+        private final Long id;
+        private final String engineerName;
+        private final String chat;
+        private final Integer total;
+
+        public ReportSummary(Long id, String engineerName, String chat, Integer total) {
+            this.id = id;
+            this.engineerName = engineerName;
+            this.chat = chat;
+            this.total = total;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getEngineerName() {
+            return engineerName;
+        }
+
+        public String getChat() {
+            return chat;
+        }
+
+        public Integer getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bezkoder.springjwt.payload.response;
+
+/**
+ * An imported engineer name attributed to an existing engineer of a different name.
+ */
+public class EngineerMergeDecision {
+    private final int row;
+    private final String importedName;
+    private final Long engineerId;
+    private final String engineerName;
+    private final double similarity;
+    private final String reason;
+
+    public EngineerMergeDecision(int row, String importedName, Long engineerId, String engineerName,
+                                 double similarity, String reason) {
+        this.row = row;
+        this.importedName = importedName;
+        this.engineerId = engineerId;
+        this.engineerName = engineerName;
+        this.similarity = similarity;
+        this.reason = reason;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public String getImportedName() {
+        return importedName;
+    }
+
+    public Long getEngineerId() {
+        return engineerId;
+    }
+
+    public String getEngineerName() {
+        return engineerName;
+    }
+
+    public double getSimilarity() {
+        return similarity;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
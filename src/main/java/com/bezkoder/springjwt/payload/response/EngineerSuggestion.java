@@ -0,0 +1,40 @@
+package com.bezkoder.springjwt.payload.response;
+
+/**
+ * An engineer matching a name search.
+ */
+public class EngineerSuggestion {
+    private final Long id;
+    private final String fullName;
+    private final String manager;
+    private final String email;
+    private final Long teamId;
+
+    public EngineerSuggestion(Long id, String fullName, String manager, String email, Long teamId) {
+        this.id = id;
+        this.fullName = fullName;
+        this.manager = manager;
+        this.email = email;
+        this.teamId = teamId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getManager() {
+        return manager;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+}
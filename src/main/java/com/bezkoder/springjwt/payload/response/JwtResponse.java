@@ -5,6 +5,7 @@ import java.util.List;
 public class JwtResponse {
   private String token;
   private String type = "Bearer";
+  private String refreshToken;
   private Long id;
   private String username;
   private String email;
@@ -18,6 +19,11 @@ public class JwtResponse {
     this.roles = roles;
   }
 
+  public JwtResponse(String accessToken, String refreshToken, Long id, String username, String email, List<String> roles) {
+    this(accessToken, id, username, email, roles);
+    this.refreshToken = refreshToken;
+  }
+
   public String getAccessToken() {
     return token;
   }
@@ -26,6 +32,14 @@ public class JwtResponse {
     this.token = accessToken;
   }
 
+  public String getRefreshToken() {
+    return refreshToken;
+  }
+
+  public void setRefreshToken(String refreshToken) {
+    this.refreshToken = refreshToken;
+  }
+
   public String getTokenType() {
     return type;
   }
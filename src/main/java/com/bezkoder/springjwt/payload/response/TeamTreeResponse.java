@@ -0,0 +1,139 @@
+package com.bezkoder.springjwt.payload.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The team hierarchy: managers, their teams and the engineers of each team. Case
+ * statistics are only present when a period was requested.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TeamTreeResponse {
+    private final LocalDate startPeriod;
+    private final LocalDate endPeriod;
+    private final List<ManagerNode> managers;
+    private final List<TeamNode> unmanagedTeams;
+
+    public TeamTreeResponse(LocalDate startPeriod, LocalDate endPeriod, List<ManagerNode> managers,
+                            List<TeamNode> unmanagedTeams) {
+        this.startPeriod = startPeriod;
+        this.endPeriod = endPeriod;
+        this.managers = managers;
+        this.unmanagedTeams = unmanagedTeams;
+    }
+
+    public LocalDate getStartPeriod() {
+        return startPeriod;
+    }
+
+    public LocalDate getEndPeriod() {
+        return endPeriod;
+    }
+
+    public List<ManagerNode> getManagers() {
+        return managers;
+    }
+
+    public List<TeamNode> getUnmanagedTeams() {
+        return unmanagedTeams;
+    }
+
+    public static class ManagerNode {
+        private final Long id;
+        private final String username;
+        private final String firstName;
+        private final String lastName;
+        private final List<TeamNode> teams;
+
+        public ManagerNode(Long id, String username, String firstName, String lastName, List<TeamNode> teams) {
+            this.id = id;
+            this.username = username;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.teams = teams;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public List<TeamNode> getTeams() {
+            return teams;
+        }
+    }
+
+    public static class TeamNode {
+        private final Long id;
+        private final String name;
+        private final List<EngineerNode> engineers;
+
+        public TeamNode(Long id, String name, List<EngineerNode> engineers) {
+            this.id = id;
+            this.name = name;
+            this.engineers = engineers;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<EngineerNode> getEngineers() {
+            return engineers;
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class EngineerNode {
+        private final Long id;
+        private final String fullName;
+        private final String email;
+        private final Long caseCount;
+        private final Double averageCes;
+
+        public EngineerNode(Long id, String fullName, String email, Long caseCount, Double averageCes) {
+            this.id = id;
+            this.fullName = fullName;
+            this.email = email;
+            this.caseCount = caseCount;
+            this.averageCes = averageCes;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public Long getCaseCount() {
+            return caseCount;
+        }
+
+        public Double getAverageCes() {
+            return averageCes;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.bezkoder.springjwt.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.bezkoder.springjwt.models.BatchCheckpoint;
+
+@Repository
+public interface BatchCheckpointRepository extends JpaRepository<BatchCheckpoint, Long> {
+    List<BatchCheckpoint> findByRunId(Long runId);
+
+    long countByRunId(Long runId);
+}
@@ -0,0 +1,16 @@
+package com.bezkoder.springjwt.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.bezkoder.springjwt.models.BatchRun;
+import com.bezkoder.springjwt.models.EBatchStatus;
+
+@Repository
+public interface BatchRunRepository extends JpaRepository<BatchRun, Long> {
+    List<BatchRun> findByJobNameAndStatus(String jobName, EBatchStatus status);
+
+    List<BatchRun> findTop20ByJobNameOrderByIdDesc(String jobName);
+}
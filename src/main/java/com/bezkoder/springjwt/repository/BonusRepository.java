@@ -1,16 +1,23 @@
 package com.bezkoder.springjwt.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bezkoder.springjwt.models.Bonus;
 import com.bezkoder.springjwt.models.Engineer;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface BonusRepository extends JpaRepository<Bonus, Long> {
     List<Bonus> findByEngineer(Engineer engineer);
@@ -25,4 +32,31 @@ public interface BonusRepository extends JpaRepository<Bonus, Long> {
     
     @Query("SELECT b FROM Bonus b WHERE b.engineer.team.id = :teamId")
     List<Bonus> findByTeamId(@Param("teamId") Long teamId);
+
+    @Query("SELECT b.id AS id, e.id AS engineerId, e.fullName AS engineerName, b.amount AS amount, " +
+           "b.calculationDate AS calculationDate, b.startPeriod AS startPeriod, b.endPeriod AS endPeriod " +
+           "FROM Bonus b JOIN b.engineer e " +
+           "WHERE b.startPeriod = :startPeriod AND b.endPeriod = :endPeriod ORDER BY e.id")
+    List<BonusSummary> findSummariesByPeriod(@Param("startPeriod") LocalDate startPeriod,
+                                             @Param("endPeriod") LocalDate endPeriod);
+
+    // Streamed with a fetch size so the driver reads the rows in batches
+    // (MySQL needs useCursorFetch=true for that)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b.id AS bonusId, e.id AS engineerId, e.fullName AS engineerName, e.email AS engineerEmail, " +
+           "t.name AS teamName, b.amount AS amount, b.startPeriod AS startPeriod, b.endPeriod AS endPeriod " +
+           "FROM Bonus b JOIN b.engineer e LEFT JOIN e.team t " +
+           "WHERE b.startPeriod = :startPeriod AND b.endPeriod = :endPeriod ORDER BY e.id")
+    Stream<PayoutLine> streamPayoutLines(@Param("startPeriod") LocalDate startPeriod,
+                                         @Param("endPeriod") LocalDate endPeriod);
+
+    @Query("SELECT DISTINCT b.startPeriod, b.endPeriod FROM Bonus b")
+    List<Object[]> findDistinctPeriods();
+
+    @Modifying
+    @Query("DELETE FROM Bonus b WHERE b.startPeriod = :startPeriod AND b.endPeriod = :endPeriod " +
+           "AND b.engineer.id IN :engineerIds")
+    int deleteByPeriodAndEngineerIds(@Param("startPeriod") LocalDate startPeriod,
+                                     @Param("endPeriod") LocalDate endPeriod,
+                                     @Param("engineerIds") Collection<Long> engineerIds);
 }
@@ -0,0 +1,24 @@
+package com.bezkoder.springjwt.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat view of a {@link com.bezkoder.springjwt.models.Bonus} that avoids
+ * serializing the engineer entity graph.
+ */
+public interface BonusSummary {
+    Long getId();
+
+    Long getEngineerId();
+
+    String getEngineerName();
+
+    BigDecimal getAmount();
+
+    LocalDate getCalculationDate();
+
+    LocalDate getStartPeriod();
+
+    LocalDate getEndPeriod();
+}
@@ -0,0 +1,14 @@
+package com.bezkoder.springjwt.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.bezkoder.springjwt.models.CaseChange;
+
+@Repository
+public interface CaseChangeRepository extends JpaRepository<CaseChange, Long> {
+    List<CaseChange> findByOrderByIdAsc(Pageable pageable);
+}
@@ -1,10 +1,12 @@
 package com.bezkoder.springjwt.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -41,4 +43,54 @@ public interface CaseRepository extends JpaRepository<Case, Long> {
     Double calculateAverageCesRating(@Param("engineer") Engineer engineer,
                                     @Param("startDate") LocalDateTime startDate,
                                     @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    Long countByEngineer(Engineer engineer);
+
+    @Modifying
+    @Query("UPDATE Case c SET c.report = :report WHERE c.engineer = :engineer")
+    int assignReportToEngineerCases(@Param("report") Report report,
+                                    @Param("engineer") Engineer engineer);
+
+    @Modifying
+    @Query("UPDATE Case c SET c.report = :report WHERE c.engineer = :engineer AND c.date BETWEEN :startDate AND :endDate")
+    int assignReportToEngineerCasesBetween(@Param("report") Report report,
+                                           @Param("engineer") Engineer engineer,
+                                           @Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Survey counts per engineer for a period in a single grouped query. Only surveys
+     * rated at least minCesRating are counted towards the Case and Chat totals.
+     */
+    @Query("SELECT e.id AS engineerId, u.id AS managerUserId, " +
+           "SUM(CASE WHEN c.surveySource = 'Case' AND c.cesRating >= :minCesRating THEN 1 ELSE 0 END) AS caseCount, " +
+           "SUM(CASE WHEN c.surveySource = 'Chat' AND c.cesRating >= :minCesRating THEN 1 ELSE 0 END) AS chatCount " +
+           "FROM Case c JOIN c.engineer e LEFT JOIN e.team t LEFT JOIN t.user u " +
+           "WHERE c.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY e.id, u.id")
+    List<EngineerSurveyStats> aggregateSurveyStats(@Param("startDate") LocalDateTime startDate,
+                                                   @Param("endDate") LocalDateTime endDate,
+                                                   @Param("minCesRating") Integer minCesRating);
+
+    @Query("SELECT e.id AS engineerId, u.id AS managerUserId, " +
+           "SUM(CASE WHEN c.surveySource = 'Case' AND c.cesRating >= :minCesRating THEN 1 ELSE 0 END) AS caseCount, " +
+           "SUM(CASE WHEN c.surveySource = 'Chat' AND c.cesRating >= :minCesRating THEN 1 ELSE 0 END) AS chatCount " +
+           "FROM Case c JOIN c.engineer e LEFT JOIN e.team t LEFT JOIN t.user u " +
+           "WHERE c.date BETWEEN :startDate AND :endDate AND e.id IN :engineerIds " +
+           "GROUP BY e.id, u.id")
+    List<EngineerSurveyStats> aggregateSurveyStatsForEngineers(@Param("startDate") LocalDateTime startDate,
+                                                               @Param("endDate") LocalDateTime endDate,
+                                                               @Param("minCesRating") Integer minCesRating,
+                                                               @Param("engineerIds") Collection<Long> engineerIds);
+
+    // [engineerId, case count, average CES] of the engineers with cases in the period
+    @Query("SELECT c.engineer.id, COUNT(c), AVG(c.cesRating) FROM Case c " +
+           "WHERE c.engineer IS NOT NULL AND c.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY c.engineer.id")
+    List<Object[]> countAndAverageCesByEngineer(@Param("startDate") LocalDateTime startDate,
+                                                @Param("endDate") LocalDateTime endDate);
+
+    // [case count, average CES] of the cases since the date, as a single row
+    @Query("SELECT COUNT(c), AVG(c.cesRating) FROM Case c WHERE c.date >= :since")
+    List<Object[]> countAndAverageCesSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,16 @@
+package com.bezkoder.springjwt.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bezkoder.springjwt.models.ChangeVersion;
+
+@Repository
+public interface ChangeVersionRepository extends JpaRepository<ChangeVersion, String> {
+    @Query("SELECT v.version FROM ChangeVersion v WHERE v.name = :name")
+    Optional<Long> findVersionByName(@Param("name") String name);
+}
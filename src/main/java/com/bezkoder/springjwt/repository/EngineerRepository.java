@@ -2,7 +2,10 @@ package com.bezkoder.springjwt.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bezkoder.springjwt.models.Engineer;
@@ -15,4 +18,18 @@ public interface EngineerRepository extends JpaRepository<Engineer, Long> {
     Engineer findByFullName(String fullName);
     
     List<Engineer> findByManager(String manager);
+
+    List<Engineer> findByTeamIdOrderByIdAsc(Long teamId);
+
+    List<Engineer> findAllByOrderByIdAsc();
+
+    long countByTeamIsNull();
+
+    // Keyset paging over engineer ids
+    @Query("SELECT e.id FROM Engineer e WHERE e.id > :afterId ORDER BY e.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // [id, fullName, manager, email, teamId] of every engineer, without loading the entities
+    @Query("SELECT e.id, e.fullName, e.manager, e.email, t.id FROM Engineer e LEFT JOIN e.team t")
+    List<Object[]> findSearchFields();
 } 
\ No newline at end of file
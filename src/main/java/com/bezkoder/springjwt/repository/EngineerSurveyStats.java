@@ -0,0 +1,16 @@
+package com.bezkoder.springjwt.repository;
+
+/**
+ * Per-engineer survey aggregate over a period, as returned by
+ * {@link CaseRepository#aggregateSurveyStats}.
+ */
+public interface EngineerSurveyStats {
+    Long getEngineerId();
+
+    // Manager (team owner) of the engineer, used to pick per-user coefficients
+    Long getManagerUserId();
+
+    Long getCaseCount();
+
+    Long getChatCount();
+}
@@ -0,0 +1,13 @@
+package com.bezkoder.springjwt.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.bezkoder.springjwt.models.JwtSigningKey;
+
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, Long> {
+    List<JwtSigningKey> findAllByOrderByCreatedAtDesc();
+}
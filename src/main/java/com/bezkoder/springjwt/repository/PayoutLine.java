@@ -0,0 +1,25 @@
+package com.bezkoder.springjwt.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One line of a payout file: a bonus with its engineer and team.
+ */
+public interface PayoutLine {
+    Long getBonusId();
+
+    Long getEngineerId();
+
+    String getEngineerName();
+
+    String getEngineerEmail();
+
+    String getTeamName();
+
+    BigDecimal getAmount();
+
+    LocalDate getStartPeriod();
+
+    LocalDate getEndPeriod();
+}
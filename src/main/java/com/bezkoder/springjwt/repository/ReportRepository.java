@@ -2,7 +2,9 @@ package com.bezkoder.springjwt.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.bezkoder.springjwt.models.Report;
@@ -12,4 +14,8 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
     List<Report> findByEngineerName(String engineerName);
     
     List<Report> findByTotalGreaterThan(Integer total);
+
+    // [id, engineerName, chat, total] of the reports, newest first, without their cases
+    @Query("SELECT r.id, r.engineerName, r.chat, r.total FROM Report r ORDER BY r.id DESC")
+    List<Object[]> findRecentSummaries(Pageable pageable);
 } 
\ No newline at end of file
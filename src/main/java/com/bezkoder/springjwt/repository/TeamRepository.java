@@ -1,8 +1,12 @@
 package com.bezkoder.springjwt.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bezkoder.springjwt.models.Team;
@@ -13,4 +17,17 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
     List<Team> findByUser(User user);
     
     Team findByName(String name);
+
+    // Every team with its manager and engineers, in one query
+    @Query("SELECT DISTINCT t FROM Team t LEFT JOIN FETCH t.user LEFT JOIN FETCH t.engineers ORDER BY t.id")
+    List<Team> findAllWithManagerAndEngineers();
+
+    // [id, name] of the teams with one of the lowercase names, ignoring case
+    @Query("SELECT t.id, t.name FROM Team t WHERE LOWER(t.name) IN :names")
+    List<Object[]> findIdsByNames(@Param("names") Collection<String> names);
+
+    // [id, name, engineer count] of the teams, largest first
+    @Query("SELECT t.id, t.name, COUNT(e) FROM Team t LEFT JOIN t.engineers e GROUP BY t.id, t.name "
+        + "ORDER BY COUNT(e) DESC, t.id")
+    List<Object[]> findSizes(Pageable pageable);
 } 
\ No newline at end of file
@@ -1,17 +1,65 @@
 package com.bezkoder.springjwt.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.bezkoder.springjwt.models.ERole;
 import com.bezkoder.springjwt.models.User;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByUsername(String username);
 
+  // The user with its roles, in one query
+  @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id = :id")
+  Optional<User> findWithRolesById(@Param("id") Long id);
+
+  @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.username = :username")
+  Optional<User> findWithRolesByUsername(@Param("username") String username);
+
+  // [id, username, email, firstName, lastName] of a page of the users holding a role,
+  // reached from the role through user_roles instead of scanning all users
+  @Query(value = "SELECT u.id, u.username, u.email, u.firstName, u.lastName FROM User u JOIN u.roles r "
+      + "WHERE r.name = :role ORDER BY u.id",
+      countQuery = "SELECT COUNT(u) FROM User u JOIN u.roles r WHERE r.name = :role")
+  Page<Object[]> findSummariesByRole(@Param("role") ERole role, Pageable pageable);
+
+  // [userId, role name] of the roles of the given users
+  @Query("SELECT u.id, r.name FROM User u JOIN u.roles r WHERE u.id IN :ids")
+  List<Object[]> findRoleNamesByUserIds(@Param("ids") Collection<Long> ids);
+
   Boolean existsByUsername(String username);
 
   Boolean existsByEmail(String email);
+
+  // [id, username, email] of the users holding any of the usernames or emails, in one
+  // query served by the two unique indexes
+  @Query("SELECT u.id, u.username, u.email FROM User u WHERE u.username IN :usernames OR u.email IN :emails")
+  List<Object[]> findByUsernamesOrEmails(@Param("usernames") Collection<String> usernames,
+                                         @Param("emails") Collection<String> emails);
+
+  // [id, username] of the given users
+  @Query("SELECT u.id, u.username FROM User u WHERE u.username IN :usernames")
+  List<Object[]> findIdsByUsernames(@Param("usernames") Collection<String> usernames);
+
+  // [userId, tokenVersion] of the users whose tokens were ever revoked
+  @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0")
+  List<Object[]> findRevokedTokenVersions();
+
+  @Modifying
+  @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+  int updatePassword(@Param("username") String username, @Param("password") String password);
+
+  @Modifying
+  @Query("UPDATE User u SET u.tokenVersion = COALESCE(u.tokenVersion, 0) + 1 WHERE u.id = :id")
+  int incrementTokenVersion(@Param("id") Long id);
 }
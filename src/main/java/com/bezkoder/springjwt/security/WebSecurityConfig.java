@@ -1,6 +1,7 @@
 package com.bezkoder.springjwt.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -20,6 +21,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import com.bezkoder.springjwt.security.jwt.AccessDeniedHandlerImpl;
 import com.bezkoder.springjwt.security.jwt.AuthEntryPointJwt;
 import com.bezkoder.springjwt.security.jwt.AuthTokenFilter;
+import com.bezkoder.springjwt.security.jwt.RateLimitFilter;
+import com.bezkoder.springjwt.security.jwt.SecurityErrorWriter;
+import com.bezkoder.springjwt.security.services.RateLimitService;
 import com.bezkoder.springjwt.security.services.UserDetailsServiceImpl;
 
 @Configuration
@@ -37,6 +41,16 @@ public class WebSecurityConfig { // extends WebSecurityConfigurerAdapter {
   @Autowired
   private AccessDeniedHandlerImpl accessDeniedHandler;
 
+  @Autowired
+  private RateLimitService rateLimitService;
+
+  @Autowired
+  private SecurityErrorWriter securityErrorWriter;
+
+  // BCrypt cost of new hashes; stored hashes with a lower cost are upgraded at sign-in
+  @Value("${bezkoder.app.bcryptStrength:10}")
+  private int bcryptStrength = 10;
+
   @Bean
   public AuthTokenFilter authenticationJwtTokenFilter() {
     return new AuthTokenFilter();
@@ -53,6 +67,7 @@ public class WebSecurityConfig { // extends WebSecurityConfigurerAdapter {
 
       authProvider.setUserDetailsService(userDetailsService);
       authProvider.setPasswordEncoder(passwordEncoder());
+      authProvider.setUserDetailsPasswordService(userDetailsService);
 
       return authProvider;
   }
@@ -70,7 +85,7 @@ public class WebSecurityConfig { // extends WebSecurityConfigurerAdapter {
 
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    return new BCryptPasswordEncoder(bcryptStrength);
   }
 
 //  @Override
@@ -97,6 +112,7 @@ public class WebSecurityConfig { // extends WebSecurityConfigurerAdapter {
         .authorizeHttpRequests(auth ->
           auth.requestMatchers("/api/auth/**").permitAll()
               .requestMatchers("/api/test/**").permitAll()
+              .requestMatchers("/.well-known/jwks.json").permitAll()
               .requestMatchers("/v3/api-docs/**").permitAll()
               .requestMatchers("/v3/api-docs.yaml").permitAll()
               .requestMatchers("/swagger-ui/**").permitAll()
@@ -109,6 +125,7 @@ public class WebSecurityConfig { // extends WebSecurityConfigurerAdapter {
     http.authenticationProvider(authenticationProvider());
 
     http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+    http.addFilterAfter(new RateLimitFilter(rateLimitService, securityErrorWriter), AuthTokenFilter.class);
 
     return http.build();
   }
@@ -1,64 +1,158 @@
 package com.bezkoder.springjwt.security.jwt;
 
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import com.bezkoder.springjwt.security.services.JwtKeyService;
 import com.bezkoder.springjwt.security.services.UserDetailsImpl;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 
+/**
+ * Issues and verifies the access tokens. Tokens are signed with the current key of
+ * {@link JwtKeyService} and name it in their "kid" header; verification looks the
+ * public key up by that id.
+ */
 @Component
 public class JwtUtils {
   private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-  @Value("${bezkoder.app.jwtSecret}")
-  private String jwtSecret;
+  static final String CLAIM_USER_ID = "uid";
+  static final String CLAIM_EMAIL = "email";
+  static final String CLAIM_ROLES = "roles";
+  static final String CLAIM_TOKEN_VERSION = "ver";
+
+  @Autowired
+  private JwtKeyService jwtKeyService;
 
   @Value("${bezkoder.app.jwtExpirationMs}")
   private int jwtExpirationMs;
 
+  // Recently verified tokens kept with their claims, 0 to verify every request
+  @Value("${bezkoder.app.jwtCacheSize:10000}")
+  private int jwtCacheSize = 10000;
+
+  // Built once: building a parser per call showed up on every request
+  private JwtParser parser;
+  private VerifiedTokenCache verifiedTokens;
+
+  @PostConstruct
+  public void init() {
+    parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+      @Override
+      public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        Key key = jwtKeyService.publicKey(header.getKeyId());
+        if (key == null) {
+          throw new SignatureException("Unknown JWT signing key: " + header.getKeyId());
+        }
+        return key;
+      }
+    }).build();
+    verifiedTokens = jwtCacheSize > 0 ? new VerifiedTokenCache(jwtCacheSize) : null;
+  }
+
   public String generateJwtToken(Authentication authentication) {
 
     UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
+    return generateTokenFromUserDetails(userPrincipal);
+  }
+
+  public String generateTokenFromUserDetails(UserDetailsImpl userPrincipal) {
+    List<String> roles = userPrincipal.getAuthorities().stream()
+        .map(GrantedAuthority::getAuthority)
+        .collect(Collectors.toList());
+
+    JwtKeyService.SigningKey signingKey = jwtKeyService.signingKey();
+
     return Jwts.builder()
+        .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
+        .setId(UUID.randomUUID().toString())
         .setSubject((userPrincipal.getUsername()))
+        .claim(CLAIM_USER_ID, userPrincipal.getId())
+        .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+        .claim(CLAIM_ROLES, roles)
+        .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion())
         .setIssuedAt(new Date())
         .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-        .signWith(key(), SignatureAlgorithm.HS256)
+        .signWith(signingKey.getPrivateKey(), signingKey.getAlgorithm())
         .compact();
   }
   
-  private Key key() {
-    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-  }
-
   public String getUserNameFromJwtToken(String token) {
-    return Jwts.parserBuilder().setSigningKey(key()).build()
-               .parseClaimsJws(token).getBody().getSubject();
+    return parser.parseClaimsJws(token).getBody().getSubject();
   }
 
   public boolean validateJwtToken(String authToken) {
+    return getVerifiedClaims(authToken) != null;
+  }
+
+  /**
+   * Verify the signature and expiry of a token and return its claims, or null when
+   * the token is not valid. The token is parsed once; a token verified earlier is
+   * answered from the cache until it expires.
+   */
+  public Claims getVerifiedClaims(String authToken) {
+    if (verifiedTokens != null && authToken != null) {
+      Claims cached = verifiedTokens.get(authToken, System.currentTimeMillis());
+      if (cached != null) {
+        return cached;
+      }
+    }
+
     try {
-      Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-      return true;
+      Claims claims = parser.parseClaimsJws(authToken).getBody();
+      if (verifiedTokens != null) {
+        verifiedTokens.put(authToken, claims);
+      }
+      return claims;
+    } catch (SignatureException e) {
+      // Debug only: invalid tokens come in storms, their rejections are counted and sampled
+      logger.debug("Invalid JWT signature: {}", e.getMessage());
     } catch (MalformedJwtException e) {
-      logger.error("Invalid JWT token: {}", e.getMessage());
+      logger.debug("Invalid JWT token: {}", e.getMessage());
     } catch (ExpiredJwtException e) {
-      logger.error("JWT token is expired: {}", e.getMessage());
+      logger.debug("JWT token is expired: {}", e.getMessage());
     } catch (UnsupportedJwtException e) {
-      logger.error("JWT token is unsupported: {}", e.getMessage());
+      logger.debug("JWT token is unsupported: {}", e.getMessage());
     } catch (IllegalArgumentException e) {
-      logger.error("JWT claims string is empty: {}", e.getMessage());
+      logger.debug("JWT claims string is empty: {}", e.getMessage());
     }
 
-    return false;
+    return null;
+  }
+
+  /**
+   * Build the principal of a verified token from its claims alone. Returns null for
+   * tokens issued without the user id claim.
+   */
+  public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+    Number userId = claims.get(CLAIM_USER_ID, Number.class);
+    if (userId == null) {
+      return null;
+    }
+
+    Collection<?> roles = claims.get(CLAIM_ROLES, Collection.class);
+    List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+        .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+        .collect(Collectors.toList());
+    Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+
+    return new UserDetailsImpl(userId.longValue(), claims.getSubject(), claims.get(CLAIM_EMAIL, String.class),
+        null, authorities, tokenVersion != null ? tokenVersion.longValue() : 0L);
   }
 }
@@ -0,0 +1,59 @@
+package com.bezkoder.springjwt.security.jwt;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.bezkoder.springjwt.security.services.RateLimitService;
+import com.bezkoder.springjwt.security.services.UserDetailsImpl;
+
+/**
+ * Rejects requests of clients over their budget with 429 and a Retry-After header.
+ * Runs after {@link AuthTokenFilter}: authenticated requests count against their
+ * user, the others against their client IP, as resolved from the forwarded headers
+ * of a trusted proxy.
+ *
+ * Not a bean on purpose, Spring Boot would also register it ahead of the security
+ * chain, where no user is known yet.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+  private final RateLimitService rateLimitService;
+  private final SecurityErrorWriter securityErrorWriter;
+
+  public RateLimitFilter(RateLimitService rateLimitService, SecurityErrorWriter securityErrorWriter) {
+    this.rateLimitService = rateLimitService;
+    this.securityErrorWriter = securityErrorWriter;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    RateLimitService.Budget budget = rateLimitService.budgetFor(request.getMethod(), request.getServletPath());
+    if (budget != null) {
+      Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+      long waitNanos = authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user
+          ? rateLimitService.tryAcquire(budget, "user", "u" + user.getId())
+          : rateLimitService.tryAcquire(budget, "ip", request.getRemoteAddr());
+
+      if (waitNanos > 0) {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        securityErrorWriter.reject(request, response, HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests",
+            "Request rate limit exceeded");
+        return;
+      }
+    }
+
+    filterChain.doFilter(request, response);
+  }
+}
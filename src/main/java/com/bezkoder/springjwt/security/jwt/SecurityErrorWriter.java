@@ -0,0 +1,200 @@
+package com.bezkoder.springjwt.security.jwt;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Writes the error responses of requests rejected by the security layer (401, 403,
+ * 429) and logs them.
+ *
+ * Rejections come in storms (expired tokens, credential stuffing), so this path is
+ * kept cheap: the JSON body of each kind of rejection is rendered once, only the
+ * timestamp and path are filled in per request, in the same shape as
+ * {@link com.bezkoder.springjwt.exception.ErrorResponse}. Every rejection is counted,
+ * but only the first {@code securityLogPerMinute} of each status are logged per
+ * minute, followed by the number suppressed.
+ */
+@Component
+public class SecurityErrorWriter {
+  private static final Logger logger = LoggerFactory.getLogger(SecurityErrorWriter.class);
+
+  // Same rendering as the application's ObjectMapper
+  private static final DateTimeFormatter TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSxxx").withZone(ZoneOffset.UTC);
+
+  private static final int MAX_TEMPLATES = 256;
+  private static final long LOG_WINDOW_MS = 60000;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${bezkoder.app.securityLogPerMinute:20}")
+  private int securityLogPerMinute = 20;
+
+  private final Map<String, Template> templates = new ConcurrentHashMap<>();
+  private final Map<Integer, Stats> stats = new ConcurrentHashMap<>();
+
+  private volatile FormattedTime lastTimestamp = new FormattedTime(0, new byte[0]);
+
+  @PostConstruct
+  public void init() {
+    stats(401);
+    stats(403);
+    stats(429);
+  }
+
+  /**
+   * Count and log the rejection, then write its error response.
+   */
+  public void reject(HttpServletRequest request, HttpServletResponse response, int status, String error,
+                     String message) throws IOException {
+    String path = request.getServletPath();
+    record(status, error, message, path);
+
+    byte[] body = render(status, error, message, path, System.currentTimeMillis());
+    response.setStatus(status);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  byte[] render(int status, String error, String message, String path, long nowMillis) {
+    String key = status + "|" + error + "|" + message;
+    Template template = templates.get(key);
+    if (template == null) {
+      template = new Template(status, error, message);
+      // Messages normally come from a small fixed set; don't let unusual ones fill memory
+      if (templates.size() < MAX_TEMPLATES) {
+        templates.putIfAbsent(key, template);
+      }
+    }
+
+    byte[] timestamp = timestamp(nowMillis);
+    byte[] quotedPath = path != null ? JsonStringEncoder.getInstance().quoteAsUTF8(path) : null;
+    byte[] body = new byte[Template.HEAD.length + timestamp.length + template.middle.length
+        + (quotedPath != null ? quotedPath.length + 2 : Template.NULL.length) + 1];
+
+    int at = put(body, 0, Template.HEAD);
+    at = put(body, at, timestamp);
+    at = put(body, at, template.middle);
+    if (quotedPath != null) {
+      body[at++] = '"';
+      at = put(body, at, quotedPath);
+      body[at++] = '"';
+    } else {
+      at = put(body, at, Template.NULL);
+    }
+    body[at] = '}';
+    return body;
+  }
+
+  private static int put(byte[] target, int at, byte[] bytes) {
+    System.arraycopy(bytes, 0, target, at, bytes.length);
+    return at + bytes.length;
+  }
+
+  // Rejections of a storm mostly share the millisecond
+  private byte[] timestamp(long nowMillis) {
+    FormattedTime last = lastTimestamp;
+    if (last.millis != nowMillis) {
+      last = new FormattedTime(nowMillis,
+          TIMESTAMP.format(Instant.ofEpochMilli(nowMillis)).getBytes(StandardCharsets.US_ASCII));
+      lastTimestamp = last;
+    }
+    return last.formatted;
+  }
+
+  /**
+   * Count and log, sampled, a rejection whose response is written elsewhere, or a
+   * rejected token the request goes on without.
+   */
+  public void record(int status, String error, String message, String path) {
+    Stats current = stats(status);
+    current.rejected.increment();
+
+    long now = System.currentTimeMillis();
+    long windowStart = current.windowStart.get();
+    if (now - windowStart >= LOG_WINDOW_MS && current.windowStart.compareAndSet(windowStart, now)) {
+      long suppressed = current.suppressed.getAndSet(0);
+      current.logged.set(0);
+      if (suppressed > 0) {
+        logger.warn("{} {}: {} more rejections not logged in the last minute", status, error, suppressed);
+      }
+    }
+
+    if (current.logged.incrementAndGet() <= securityLogPerMinute) {
+      logger.warn("{} {}: {} ({})", status, error, message, path);
+    } else {
+      current.suppressed.incrementAndGet();
+    }
+  }
+
+  private Stats stats(int status) {
+    return stats.computeIfAbsent(status, s -> new Stats(Counter.builder("cashback_security_rejections_total")
+        .description("Requests rejected by the security layer")
+        .tag("status", String.valueOf(s))
+        .register(meterRegistry)));
+  }
+
+  private static final class Template {
+    static final byte[] HEAD = "{\"timestamp\":\"".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    // From the end of the timestamp to the start of the path value
+    final byte[] middle;
+
+    Template(int status, String error, String message) {
+      middle = ("\",\"status\":" + status
+          + ",\"error\":" + quote(error)
+          + ",\"message\":" + quote(message)
+          + ",\"path\":").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String quote(String value) {
+      return value == null ? "null" : "\"" + new String(JsonStringEncoder.getInstance().quoteAsString(value)) + "\"";
+    }
+  }
+
+  private static final class FormattedTime {
+    final long millis;
+    final byte[] formatted;
+
+    FormattedTime(long millis, byte[] formatted) {
+      this.millis = millis;
+      this.formatted = formatted;
+    }
+  }
+
+  private static final class Stats {
+    final Counter rejected;
+    final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+    final AtomicLong logged = new AtomicLong();
+    final AtomicLong suppressed = new AtomicLong();
+
+    Stats(Counter rejected) {
+      this.rejected = rejected;
+    }
+  }
+}
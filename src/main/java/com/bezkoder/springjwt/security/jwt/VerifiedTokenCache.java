@@ -0,0 +1,118 @@
+package com.bezkoder.springjwt.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Bounded LRU of recently verified tokens and their claims.
+ *
+ * Entries are keyed by the SHA-256 of the token, so no usable token is held in
+ * memory, and are only returned until the token expires. The cache is split into
+ * segments, each an access-ordered map with its own lock, so that concurrent
+ * requests rarely wait on each other.
+ */
+class VerifiedTokenCache {
+  private static final int SEGMENTS = 16;
+
+  private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  });
+
+  private final Segment[] segments;
+
+  VerifiedTokenCache(int maxEntries) {
+    int perSegment = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+    segments = new Segment[SEGMENTS];
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment(perSegment);
+    }
+  }
+
+  /**
+   * Claims of a token verified earlier and not expired yet, null otherwise.
+   */
+  Claims get(String token, long nowMillis) {
+    String hash = hash(token);
+    Segment segment = segmentFor(hash);
+    synchronized (segment) {
+      Entry entry = segment.get(hash);
+      if (entry == null) {
+        return null;
+      }
+      if (entry.expiresAtMillis <= nowMillis) {
+        segment.remove(hash);
+        return null;
+      }
+      return entry.claims;
+    }
+  }
+
+  /**
+   * Remember the claims of a token that was just verified. Tokens without an
+   * expiration are not cached.
+   */
+  void put(String token, Claims claims) {
+    if (claims.getExpiration() == null) {
+      return;
+    }
+    String hash = hash(token);
+    Segment segment = segmentFor(hash);
+    synchronized (segment) {
+      segment.put(hash, new Entry(claims, claims.getExpiration().getTime()));
+    }
+  }
+
+  int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  private Segment segmentFor(String hash) {
+    return segments[(hash.hashCode() & 0x7fffffff) % SEGMENTS];
+  }
+
+  private static String hash(String token) {
+    return Base64.getEncoder().encodeToString(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  private static final class Entry {
+    final Claims claims;
+    final long expiresAtMillis;
+
+    Entry(Claims claims, long expiresAtMillis) {
+      this.claims = claims;
+      this.expiresAtMillis = expiresAtMillis;
+    }
+  }
+
+  private static final class Segment extends LinkedHashMap<String, Entry> {
+    private static final long serialVersionUID = 1L;
+
+    private final int maxEntries;
+
+    Segment(int maxEntries) {
+      super(16, 0.75f, true);
+      this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+      return size() > maxEntries;
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.bezkoder.springjwt.security.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over strings. Thread-safe: bits are only ever set, with atomic
+ * updates, so lookups may run concurrently with additions.
+ */
+class BloomFilter {
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  /**
+   * @param expectedEntries entries the filter is sized for
+   * @param falsePositiveRate false positive rate at that size
+   */
+  BloomFilter(long expectedEntries, double falsePositiveRate) {
+    long entries = Math.max(1, expectedEntries);
+    long optimalBits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    int words = (int) Math.max(1, (optimalBits + 63) / 64);
+    this.bits = new AtomicLongArray(words);
+    this.bitCount = (long) words * 64;
+    this.hashCount = (int) Math.max(1, Math.round((double) bitCount / entries * Math.log(2)));
+  }
+
+  void add(String value) {
+    long hash1 = hash(value);
+    long hash2 = mix(hash1);
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current;
+      do {
+        current = bits.get(word);
+        if ((current & mask) != 0) {
+          break;
+        }
+      } while (!bits.compareAndSet(word, current, current | mask));
+    }
+  }
+
+  boolean mightContain(String value) {
+    long hash1 = hash(value);
+    long hash2 = mix(hash1);
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+      if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // FNV-1a 64
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  // SplitMix64 finalizer, second independent hash for double hashing
+  private static long mix(long hash) {
+    long z = hash + 0x9e3779b97f4a7c15L;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return (z ^ (z >>> 31)) | 1L;
+  }
+}
@@ -0,0 +1,428 @@
+package com.bezkoder.springjwt.security.services;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bezkoder.springjwt.models.JwtSigningKey;
+import com.bezkoder.springjwt.repository.JwtSigningKeyRepository;
+import com.bezkoder.springjwt.services.ChangeVersionService;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Key pairs signing the access tokens, rotated by the application.
+ *
+ * Tokens carry the id ("kid") of the key that signed them, and anyone can verify
+ * them with the public keys published at /.well-known/jwks.json, without a shared
+ * secret. A new key is generated every {@code jwtKeyRotationMs} and published
+ * {@code jwtKeyPublishDelayMs} before it signs anything, so verifiers caching the
+ * key set have it in time. A replaced key stays published while tokens it signed
+ * may still be alive.
+ *
+ * Keys are stored with the private key encrypted by a key derived from
+ * {@code jwtSecret}. Other nodes load a new key set once they polled the "jwt-keys"
+ * change version, or right away when a token names a key they don't know.
+ */
+@Service
+public class JwtKeyService {
+  private static final Logger logger = LoggerFactory.getLogger(JwtKeyService.class);
+
+  public static final String VERSION_NAME = "jwt-keys";
+
+  private static final int GCM_IV_LENGTH = 12;
+  private static final int GCM_TAG_BITS = 128;
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  @Autowired
+  private JwtSigningKeyRepository jwtSigningKeyRepository;
+
+  @Autowired
+  private ChangeVersionService changeVersionService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${bezkoder.app.jwtSecret}")
+  private String jwtSecret;
+
+  @Value("${bezkoder.app.jwtExpirationMs}")
+  private long jwtExpirationMs;
+
+  // RS256, RS384, RS512, ES256, ES384 or ES512; applies to keys generated from now on
+  @Value("${bezkoder.app.jwtSigningAlgorithm:RS256}")
+  private String jwtSigningAlgorithm = "RS256";
+
+  @Value("${bezkoder.app.jwtKeyRotationMs:604800000}")
+  private long jwtKeyRotationMs = 604800000L;
+
+  @Value("${bezkoder.app.jwtKeyPublishDelayMs:600000}")
+  private long jwtKeyPublishDelayMs = 600000L;
+
+  // Least time between two reloads caused by tokens naming an unknown key
+  @Value("${bezkoder.app.jwtKeyMissReloadMs:10000}")
+  private long jwtKeyMissReloadMs = 10000L;
+
+  private final AtomicReference<KeySet> keys = new AtomicReference<>();
+  private final AtomicLong lastMissReload = new AtomicLong();
+
+  private SignatureAlgorithm algorithm;
+  private SecretKey encryptionKey;
+
+  @PostConstruct
+  public void init() {
+    algorithm = SignatureAlgorithm.forName(jwtSigningAlgorithm);
+    if (!algorithm.isRsa() && !algorithm.isEllipticCurve()) {
+      throw new IllegalStateException("Unsupported JWT signing algorithm: " + jwtSigningAlgorithm);
+    }
+    encryptionKey = new SecretKeySpec(sha256("jwt-signing-keys:" + jwtSecret), "AES");
+  }
+
+  /**
+   * Key to sign new tokens with: the newest key published for long enough, or the
+   * oldest one while none is.
+   */
+  public SigningKey signingKey() {
+    List<LoadedKey> loaded = keySet().keys;
+    long publishedBefore = System.currentTimeMillis() - jwtKeyPublishDelayMs;
+    for (LoadedKey key : loaded) {
+      if (key.createdAtMillis <= publishedBefore) {
+        return key.signingKey;
+      }
+    }
+    return loaded.get(loaded.size() - 1).signingKey;
+  }
+
+  /**
+   * Public key with this id, or null when there is none. An unknown id reloads the
+   * keys, at most once every {@code jwtKeyMissReloadMs}.
+   */
+  public PublicKey publicKey(String kid) {
+    if (kid == null) {
+      return null;
+    }
+    PublicKey key = keySet().publicKeys.get(kid);
+    if (key == null) {
+      long now = System.currentTimeMillis();
+      long last = lastMissReload.get();
+      if (now - last >= jwtKeyMissReloadMs && lastMissReload.compareAndSet(last, now)) {
+        key = reload().publicKeys.get(kid);
+      }
+    }
+    return key;
+  }
+
+  /**
+   * Published public keys, as a JWK set.
+   */
+  public Map<String, Object> jwks() {
+    return keySet().jwks;
+  }
+
+  @Scheduled(fixedDelayString = "${bezkoder.app.jwtKeyPollMs:5000}")
+  public void pollVersion() {
+    try {
+      KeySet current = keys.get();
+      if (current == null || current.version != changeVersionService.currentVersion(VERSION_NAME)) {
+        reload();
+      }
+    } catch (Exception e) {
+      logger.error("Could not poll the JWT signing keys: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Generate the next key once the newest one is older than the rotation period,
+   * and delete the keys no live token can be signed with anymore.
+   */
+  @Scheduled(fixedDelayString = "${bezkoder.app.jwtKeyRotationCheckMs:600000}")
+  public void rotateKeys() {
+    try {
+      KeySet current = reload();
+      long now = System.currentTimeMillis();
+      if (current.keys.get(0).createdAtMillis <= now - jwtKeyRotationMs) {
+        generate(now - jwtKeyRotationMs);
+        reload();
+      }
+
+      TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+      Integer deleted = transactionTemplate.execute(status -> {
+        List<JwtSigningKey> retired = retiredKeys(jwtSigningKeyRepository.findAllByOrderByCreatedAtDesc(), now);
+        if (!retired.isEmpty()) {
+          jwtSigningKeyRepository.deleteAll(retired);
+          changeVersionService.bump(VERSION_NAME);
+        }
+        return retired.size();
+      });
+      if (deleted != null && deleted > 0) {
+        logger.info("Deleted {} retired JWT signing keys", deleted);
+        reload();
+      }
+    } catch (Exception e) {
+      logger.error("Could not rotate the JWT signing keys: {}", e.getMessage());
+    }
+  }
+
+  // Keys older than the one signing, whose successor signs for longer than a token lives
+  private List<JwtSigningKey> retiredKeys(List<JwtSigningKey> newestFirst, long now) {
+    List<JwtSigningKey> retired = new ArrayList<>();
+    for (int i = 1; i < newestFirst.size(); i++) {
+      // One more publish delay of slack for nodes that load the successor late
+      long successorSigningSince = newestFirst.get(i - 1).getCreatedAt().toEpochMilli() + jwtKeyPublishDelayMs;
+      if (successorSigningSince + jwtKeyPublishDelayMs + jwtExpirationMs < now) {
+        retired.addAll(newestFirst.subList(i, newestFirst.size()));
+        break;
+      }
+    }
+    return retired;
+  }
+
+  private KeySet keySet() {
+    KeySet current = keys.get();
+    return current != null ? current : reload();
+  }
+
+  KeySet reload() {
+    KeySet loaded = load();
+    if (loaded.keys.isEmpty()) {
+      // Concurrent first generations wait on the version row, only one stores a key
+      generate(Long.MIN_VALUE);
+      loaded = load();
+    }
+    if (loaded.keys.isEmpty()) {
+      throw new IllegalStateException("No JWT signing key available");
+    }
+    return keys.accumulateAndGet(loaded,
+        (current, next) -> current == null || next.version >= current.version ? next : current);
+  }
+
+  private KeySet load() {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    transactionTemplate.setReadOnly(true);
+
+    return transactionTemplate.execute(status -> {
+      long version = changeVersionService.currentVersion(VERSION_NAME);
+      return new KeySet(version, decodeAll(jwtSigningKeyRepository.findAllByOrderByCreatedAtDesc()));
+    });
+  }
+
+  // Stored keys this node can read; keys encrypted under a previous jwtSecret are skipped
+  private List<LoadedKey> decodeAll(List<JwtSigningKey> stored) {
+    List<LoadedKey> loaded = new ArrayList<>();
+    for (JwtSigningKey key : stored) {
+      try {
+        loaded.add(decode(key));
+      } catch (GeneralSecurityException | IllegalArgumentException e) {
+        logger.error("Skipping unreadable JWT signing key {}: {}", key.getKid(), e.getMessage());
+      }
+    }
+    return loaded;
+  }
+
+  /**
+   * Store a new key when there is no readable one, or when the newest readable one
+   * was created before the given time. Keys that cannot be decrypted, after a change
+   * of {@code jwtSecret}, do not count. The version bump locks its row first, so nodes
+   * rotating together do it in turn and only the first one generates.
+   */
+  private void generate(long newestBeforeMillis) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    transactionTemplate.executeWithoutResult(status -> {
+      changeVersionService.bump(VERSION_NAME);
+      List<LoadedKey> existing = decodeAll(jwtSigningKeyRepository.findAllByOrderByCreatedAtDesc());
+      if (!existing.isEmpty() && existing.get(0).createdAtMillis > newestBeforeMillis) {
+        return;
+      }
+
+      String kid = UUID.randomUUID().toString();
+      KeyPair pair = Keys.keyPairFor(algorithm);
+      try {
+        jwtSigningKeyRepository.save(new JwtSigningKey(kid, algorithm.getValue(),
+            Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()),
+            encrypt(kid, pair.getPrivate().getEncoded())));
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("Could not encrypt the JWT signing key", e);
+      }
+      logger.info("Generated JWT signing key {} ({})", kid, algorithm.getValue());
+    });
+  }
+
+  private LoadedKey decode(JwtSigningKey key) throws GeneralSecurityException {
+    SignatureAlgorithm keyAlgorithm = SignatureAlgorithm.forName(key.getAlgorithm());
+    KeyFactory keyFactory = KeyFactory.getInstance(keyAlgorithm.isRsa() ? "RSA" : "EC");
+    PublicKey publicKey = keyFactory.generatePublic(
+        new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey())));
+    PrivateKey privateKey = keyFactory.generatePrivate(
+        new PKCS8EncodedKeySpec(decrypt(key.getKid(), key.getPrivateKey())));
+
+    return new LoadedKey(new SigningKey(key.getKid(), keyAlgorithm, privateKey), publicKey,
+        key.getCreatedAt().toEpochMilli());
+  }
+
+  // AES-GCM, the key id as associated data so stored keys cannot be swapped
+  private String encrypt(String kid, byte[] plain) throws GeneralSecurityException {
+    byte[] iv = new byte[GCM_IV_LENGTH];
+    RANDOM.nextBytes(iv);
+    Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+    cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+    cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+    byte[] encrypted = cipher.doFinal(plain);
+
+    byte[] stored = Arrays.copyOf(iv, iv.length + encrypted.length);
+    System.arraycopy(encrypted, 0, stored, iv.length, encrypted.length);
+    return Base64.getEncoder().encodeToString(stored);
+  }
+
+  private byte[] decrypt(String kid, String encoded) throws GeneralSecurityException {
+    byte[] stored = Base64.getDecoder().decode(encoded);
+    Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+    cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, stored, 0, GCM_IV_LENGTH));
+    cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+    return cipher.doFinal(stored, GCM_IV_LENGTH, stored.length - GCM_IV_LENGTH);
+  }
+
+  private static byte[] sha256(String value) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  static Map<String, Object> toJwk(String kid, SignatureAlgorithm algorithm, PublicKey publicKey) {
+    Map<String, Object> jwk = new LinkedHashMap<>();
+    jwk.put("kid", kid);
+    jwk.put("use", "sig");
+    jwk.put("alg", algorithm.getValue());
+    if (publicKey instanceof RSAPublicKey rsa) {
+      jwk.put("kty", "RSA");
+      jwk.put("n", base64Url(rsa.getModulus(), 0));
+      jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+    } else if (publicKey instanceof ECPublicKey ec) {
+      int size = (ec.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+      jwk.put("kty", "EC");
+      jwk.put("crv", switch (algorithm) {
+        case ES384 -> "P-384";
+        case ES512 -> "P-521";
+        default -> "P-256";
+      });
+      jwk.put("x", base64Url(ec.getW().getAffineX(), size));
+      jwk.put("y", base64Url(ec.getW().getAffineY(), size));
+    }
+    return jwk;
+  }
+
+  // Unsigned big-endian bytes, left-padded to the given length
+  private static String base64Url(BigInteger value, int length) {
+    byte[] bytes = value.toByteArray();
+    if (bytes.length > 1 && bytes[0] == 0) {
+      bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+    }
+    if (bytes.length < length) {
+      byte[] padded = new byte[length];
+      System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+      bytes = padded;
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+
+  /**
+   * Private key signing tokens, with its id and algorithm.
+   */
+  public static final class SigningKey {
+    private final String kid;
+    private final SignatureAlgorithm algorithm;
+    private final PrivateKey privateKey;
+
+    public SigningKey(String kid, SignatureAlgorithm algorithm, PrivateKey privateKey) {
+      this.kid = kid;
+      this.algorithm = algorithm;
+      this.privateKey = privateKey;
+    }
+
+    public String getKid() {
+      return kid;
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+      return algorithm;
+    }
+
+    public PrivateKey getPrivateKey() {
+      return privateKey;
+    }
+  }
+
+  private static final class LoadedKey {
+    final SigningKey signingKey;
+    final PublicKey publicKey;
+    final long createdAtMillis;
+
+    LoadedKey(SigningKey signingKey, PublicKey publicKey, long createdAtMillis) {
+      this.signingKey = signingKey;
+      this.publicKey = publicKey;
+      this.createdAtMillis = createdAtMillis;
+    }
+  }
+
+  static final class KeySet {
+    final long version;
+    // Newest first
+    final List<LoadedKey> keys;
+    final Map<String, PublicKey> publicKeys;
+    final Map<String, Object> jwks;
+
+    KeySet(long version, List<LoadedKey> keys) {
+      this.version = version;
+      this.keys = Collections.unmodifiableList(keys);
+      Map<String, PublicKey> byKid = new HashMap<>();
+      List<Map<String, Object>> published = new ArrayList<>();
+      for (LoadedKey key : keys) {
+        byKid.put(key.signingKey.getKid(), key.publicKey);
+        published.add(toJwk(key.signingKey.getKid(), key.signingKey.getAlgorithm(), key.publicKey));
+      }
+      this.publicKeys = Collections.unmodifiableMap(byKid);
+      this.jwks = Map.of("keys", Collections.unmodifiableList(published));
+    }
+  }
+}
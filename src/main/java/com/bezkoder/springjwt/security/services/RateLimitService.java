@@ -0,0 +1,176 @@
+package com.bezkoder.springjwt.security.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Request budgets per user or client, as token buckets.
+ *
+ * Budgets are configured in {@code bezkoder.app.rateLimits} as rules separated by
+ * semicolons, each {@code [METHOD ]pattern=ratePerSecond/burst}; the first rule
+ * matching a request applies, requests matching none are not limited. Example:
+ * {@code GET /api/cases/**=10/30;/api/**=50/100}.
+ *
+ * Signed-out requests are keyed by client IP. Behind a load balancer this is the
+ * address the trusted proxy forwards ({@code server.forward-headers-strategy}),
+ * otherwise all anonymous clients would share the proxy's bucket.
+ *
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be
+ * full again (the "theoretical arrival time" of GCRA, equivalent to a token bucket),
+ * updated with compare-and-set, so concurrent requests never block each other.
+ * Buckets that refilled are swept, as a new bucket would be the same.
+ */
+@Service
+public class RateLimitService {
+  private static final Logger logger = LoggerFactory.getLogger(RateLimitService.class);
+
+  private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${bezkoder.app.rateLimits:}")
+  private String rateLimits = "";
+
+  private final List<Budget> budgets = new ArrayList<>();
+
+  private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  public void init() {
+    budgets.clear();
+    for (String rule : rateLimits.split(";")) {
+      if (StringUtils.hasText(rule)) {
+        budgets.add(parse(rule.trim()));
+      }
+    }
+    Gauge.builder("cashback_rate_limit_buckets", buckets, Map::size)
+        .description("Token buckets of clients that used part of their budget")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Budget applying to a request, or null when it is not limited.
+   */
+  public Budget budgetFor(String method, String path) {
+    for (Budget budget : budgets) {
+      if ((budget.method == null || budget.method.equalsIgnoreCase(method))
+          && PATH_MATCHER.match(budget.pattern, path)) {
+        return budget;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Take one request from the client's bucket.
+   *
+   * @param client "user" or "ip", for the metrics
+   * @return 0 when the request may proceed, otherwise the nanoseconds until it would
+   */
+  public long tryAcquire(Budget budget, String client, String key) {
+    AtomicLong bucket = buckets.get(budget.name + '|' + key);
+    if (bucket == null) {
+      bucket = buckets.computeIfAbsent(budget.name + '|' + key, k -> new AtomicLong(System.nanoTime()));
+    }
+
+    while (true) {
+      long now = System.nanoTime();
+      long fullAt = bucket.get();
+      long start = fullAt - now > 0 ? fullAt : now;
+      // The bucket holds burst tokens: it may be at most burst - 1 intervals from full
+      long waitNanos = start - now - budget.toleranceNanos;
+      if (waitNanos > 0) {
+        ("user".equals(client) ? budget.throttledUsers : budget.throttledIps).increment();
+        return waitNanos;
+      }
+      if (bucket.compareAndSet(fullAt, start + budget.intervalNanos)) {
+        return 0;
+      }
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${bezkoder.app.rateLimitSweepMs:60000}")
+  public void sweep() {
+    long now = System.nanoTime();
+    buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+  }
+
+  int bucketCount() {
+    return buckets.size();
+  }
+
+  private Budget parse(String rule) {
+    try {
+      int equals = rule.lastIndexOf('=');
+      String target = rule.substring(0, equals).trim();
+      String[] limits = rule.substring(equals + 1).trim().split("/");
+      double ratePerSecond = Double.parseDouble(limits[0].trim());
+      int burst = limits.length > 1 ? Integer.parseInt(limits[1].trim()) : (int) Math.max(1, Math.ceil(ratePerSecond));
+
+      int space = target.indexOf(' ');
+      String method = space > 0 ? target.substring(0, space) : null;
+      String pattern = space > 0 ? target.substring(space + 1).trim() : target;
+      if (ratePerSecond <= 0 || burst < 1 || !pattern.startsWith("/")) {
+        throw new IllegalArgumentException("rate and burst must be positive and the pattern a path");
+      }
+      logger.info("Rate limit {}: {}/s, burst {}", target, ratePerSecond, burst);
+      return new Budget(target, method, pattern, ratePerSecond, burst, meterRegistry);
+    } catch (RuntimeException e) {
+      throw new IllegalStateException("Invalid rate limit rule '" + rule + "': " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * One configured budget.
+   */
+  public static final class Budget {
+    private final String name;
+    private final String method;
+    private final String pattern;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final Counter throttledUsers;
+    private final Counter throttledIps;
+
+    Budget(String name, String method, String pattern, double ratePerSecond, int burst, MeterRegistry meterRegistry) {
+      this.name = name;
+      this.method = method;
+      this.pattern = pattern;
+      this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+      this.toleranceNanos = intervalNanos * (burst - 1);
+      this.throttledUsers = throttledCounter(name, "user", meterRegistry);
+      this.throttledIps = throttledCounter(name, "ip", meterRegistry);
+    }
+
+    private static Counter throttledCounter(String budget, String client, MeterRegistry meterRegistry) {
+      return Counter.builder("cashback_rate_limited_total")
+          .description("Requests rejected because their client exceeded its budget")
+          .tag("budget", budget)
+          .tag("client", client)
+          .register(meterRegistry);
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+}
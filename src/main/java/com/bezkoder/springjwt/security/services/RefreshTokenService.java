@@ -0,0 +1,246 @@
+package com.bezkoder.springjwt.security.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bezkoder.springjwt.exception.TokenRefreshException;
+import com.bezkoder.springjwt.models.RefreshToken;
+import com.bezkoder.springjwt.repository.RefreshTokenRepository;
+import com.bezkoder.springjwt.repository.UserRepository;
+
+/**
+ * Issues and rotates refresh tokens.
+ *
+ * Tokens are random and only their SHA-256 is stored. Tokens issued or looked up
+ * on this node are kept in a bounded cache, so a refresh usually costs no lookup;
+ * the rotation itself is a conditional update, which stays correct whatever the
+ * cache holds. Refresh tokens die with the user's token version, like access tokens.
+ */
+@Service
+public class RefreshTokenService {
+  private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  @Autowired
+  private RefreshTokenRepository refreshTokenRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private UserDetailsServiceImpl userDetailsService;
+
+  @Autowired
+  private TokenVersionService tokenVersionService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${bezkoder.app.jwtRefreshExpirationMs:604800000}")
+  private long jwtRefreshExpirationMs = 604800000L;
+
+  @Value("${bezkoder.app.refreshTokenCacheSize:10000}")
+  private int refreshTokenCacheSize = 10000;
+
+  private final Map<String, CachedToken> cache = new LinkedHashMap<>(16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, CachedToken> eldest) {
+      return size() > refreshTokenCacheSize;
+    }
+  };
+
+  /**
+   * Start a new token family for a sign-in.
+   *
+   * @return the refresh token to hand to the client
+   */
+  public String createRefreshToken(UserDetailsImpl user) {
+    return issue(user.getId(), user.getUsername(), UUID.randomUUID().toString(), user.getTokenVersion());
+  }
+
+  /**
+   * Exchange a refresh token for a new one of the same family.
+   *
+   * @return the new refresh token and the current details of its user
+   * @throws TokenRefreshException when the token is unknown, expired, revoked or reused
+   */
+  public Rotation rotate(String token) {
+    String hash = hash(token);
+    CachedToken current = lookup(hash);
+    if (current == null) {
+      throw new TokenRefreshException(fingerprint(hash), "Refresh token is not in database!");
+    }
+    if (current.expiresAtMillis <= System.currentTimeMillis()) {
+      evict(hash);
+      throw new TokenRefreshException(fingerprint(hash), "Refresh token was expired. Please make a new signin request");
+    }
+    if (!tokenVersionService.isCurrent(current.userId, current.tokenVersion)) {
+      evict(hash);
+      throw new TokenRefreshException(fingerprint(hash), "Refresh token was revoked. Please make a new signin request");
+    }
+
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    Integer rotated = transactionTemplate.execute(status -> refreshTokenRepository.revokeIfActive(current.id));
+    evict(hash);
+    if (rotated == null || rotated == 0) {
+      // Already rotated: the token was copied, nothing of the family can be trusted
+      transactionTemplate.executeWithoutResult(status -> refreshTokenRepository.revokeFamily(current.familyId));
+      logger.warn("Reuse of a rotated refresh token of user {}, family {} revoked", current.username, current.familyId);
+      throw new TokenRefreshException(fingerprint(hash), "Refresh token was already used. Please make a new signin request");
+    }
+
+    UserDetailsImpl user = (UserDetailsImpl) userDetailsService.loadUserByUsername(current.username);
+    String next = issue(current.userId, current.username, current.familyId, current.tokenVersion);
+    return new Rotation(next, user);
+  }
+
+  /**
+   * Revoke the family of a refresh token, on sign-out. Unknown tokens are ignored.
+   */
+  public void revoke(String token) {
+    String hash = hash(token);
+    CachedToken current = lookup(hash);
+    evict(hash);
+    if (current != null) {
+      TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+      transactionTemplate.executeWithoutResult(status -> refreshTokenRepository.revokeFamily(current.familyId));
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${bezkoder.app.refreshTokenCleanupMs:3600000}")
+  public void deleteExpiredTokens() {
+    try {
+      TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+      Integer deleted = transactionTemplate.execute(status -> refreshTokenRepository.deleteExpired(Instant.now()));
+      if (deleted != null && deleted > 0) {
+        logger.info("Deleted {} expired refresh tokens", deleted);
+      }
+    } catch (Exception e) {
+      logger.error("Could not delete expired refresh tokens: {}", e.getMessage());
+    }
+  }
+
+  private String issue(Long userId, String username, String familyId, long tokenVersion) {
+    byte[] random = new byte[32];
+    RANDOM.nextBytes(random);
+    String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+    String hash = hash(token);
+    Instant expiry = Instant.now().plusMillis(jwtRefreshExpirationMs);
+
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    RefreshToken saved = transactionTemplate.execute(status -> refreshTokenRepository.save(
+        new RefreshToken(userRepository.getReferenceById(userId), hash, familyId, tokenVersion, expiry)));
+
+    cache(hash, new CachedToken(saved.getId(), userId, username, familyId, tokenVersion, expiry.toEpochMilli()));
+    return token;
+  }
+
+  // Active token by hash, from the cache or with one indexed lookup
+  private CachedToken lookup(String hash) {
+    synchronized (cache) {
+      CachedToken cached = cache.get(hash);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setReadOnly(true);
+    CachedToken loaded = transactionTemplate.execute(status -> refreshTokenRepository.findByTokenHash(hash)
+        .map(token -> new CachedToken(token.getId(), token.getUser().getId(), token.getUser().getUsername(),
+            token.getFamilyId(), token.getTokenVersion(), token.getExpiryDate().toEpochMilli()))
+        .orElse(null));
+    // Revoked tokens are not cached but still go through the rotation, which detects the reuse
+    if (loaded != null) {
+      cache(hash, loaded);
+    }
+    return loaded;
+  }
+
+  private void cache(String hash, CachedToken token) {
+    if (refreshTokenCacheSize > 0) {
+      synchronized (cache) {
+        cache.put(hash, token);
+      }
+    }
+  }
+
+  private void evict(String hash) {
+    synchronized (cache) {
+      cache.remove(hash);
+    }
+  }
+
+  static String hash(String token) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // Identifies a token in errors and logs without revealing it
+  private static String fingerprint(String hash) {
+    return hash.substring(0, 12);
+  }
+
+  /**
+   * Result of a rotation: the new refresh token and who it belongs to.
+   */
+  public static final class Rotation {
+    private final String refreshToken;
+    private final UserDetailsImpl user;
+
+    Rotation(String refreshToken, UserDetailsImpl user) {
+      this.refreshToken = refreshToken;
+      this.user = user;
+    }
+
+    public String getRefreshToken() {
+      return refreshToken;
+    }
+
+    public UserDetailsImpl getUser() {
+      return user;
+    }
+  }
+
+  private static final class CachedToken {
+    final Long id;
+    final Long userId;
+    final String username;
+    final String familyId;
+    final long tokenVersion;
+    final long expiresAtMillis;
+
+    CachedToken(Long id, Long userId, String username, String familyId, long tokenVersion, long expiresAtMillis) {
+      this.id = id;
+      this.userId = userId;
+      this.username = username;
+      this.familyId = familyId;
+      this.tokenVersion = tokenVersion;
+      this.expiresAtMillis = expiresAtMillis;
+    }
+  }
+}
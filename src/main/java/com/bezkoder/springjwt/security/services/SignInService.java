@@ -0,0 +1,110 @@
+package com.bezkoder.springjwt.security.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import com.bezkoder.springjwt.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs sign-in password checks on a dedicated, bounded pool.
+ *
+ * BCrypt is CPU bound by design, so at most {@code signinThreads} checks run at a
+ * time and at most {@code signinQueueCapacity} wait; anything beyond is refused
+ * at once with a {@link TooManyRequestsException} instead of queuing on request
+ * threads. Callers get a future, so the request thread is released while the
+ * check runs. The future completes on a separate pool, so the work chained on it
+ * (signing tokens, storing the refresh token) does not hold a password check slot.
+ */
+@Service
+public class SignInService {
+  @Autowired
+  private AuthenticationManager authenticationManager;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  // 0 means one per core
+  @Value("${bezkoder.app.signinThreads:0}")
+  private int signinThreads = 0;
+
+  @Value("${bezkoder.app.signinQueueCapacity:100}")
+  private int signinQueueCapacity = 100;
+
+  @Value("${bezkoder.app.signinRetryAfterSeconds:2}")
+  private long signinRetryAfterSeconds = 2;
+
+  private ThreadPoolExecutor signinExecutor;
+  private ThreadPoolExecutor issueExecutor;
+  private Counter rejectedCounter;
+  private Timer signinTimer;
+
+  @PostConstruct
+  public void init() {
+    int threads = signinThreads > 0 ? signinThreads : Runtime.getRuntime().availableProcessors();
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("signin-");
+    threadFactory.setDaemon(true);
+    signinExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, signinQueueCapacity)), threadFactory,
+        new ThreadPoolExecutor.AbortPolicy());
+    // Fed no faster than the checks complete, so its queue stays short
+    CustomizableThreadFactory issueThreadFactory = new CustomizableThreadFactory("signin-issue-");
+    issueThreadFactory.setDaemon(true);
+    issueExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), issueThreadFactory);
+
+    rejectedCounter = Counter.builder("cashback_signin_rejected_total")
+        .description("Sign-in attempts refused because the password check pool was full")
+        .register(meterRegistry);
+    signinTimer = Timer.builder("cashback_signin_password_check_duration")
+        .description("Time spent authenticating a sign-in on the password check pool")
+        .register(meterRegistry);
+    Gauge.builder("cashback_signin_queue_size", signinExecutor, executor -> executor.getQueue().size())
+        .description("Sign-in attempts waiting for a password check")
+        .register(meterRegistry);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    signinExecutor.shutdownNow();
+    issueExecutor.shutdownNow();
+  }
+
+  /**
+   * Authenticate the credentials on the password check pool. The returned future
+   * completes on the token issuing pool.
+   *
+   * @throws TooManyRequestsException when the pool and its queue are full
+   */
+  public CompletableFuture<Authentication> authenticate(String username, String password) {
+    UsernamePasswordAuthenticationToken credentials = new UsernamePasswordAuthenticationToken(username, password);
+    try {
+      return CompletableFuture.supplyAsync(
+          () -> signinTimer.record(() -> authenticationManager.authenticate(credentials)), signinExecutor)
+          .thenApplyAsync(Function.identity(), issueExecutor);
+    } catch (RejectedExecutionException e) {
+      rejectedCounter.increment();
+      throw new TooManyRequestsException("Too many sign-in attempts in progress, retry shortly",
+          signinRetryAfterSeconds);
+    }
+  }
+}
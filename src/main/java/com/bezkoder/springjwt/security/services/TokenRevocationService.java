@@ -0,0 +1,192 @@
+package com.bezkoder.springjwt.security.services;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bezkoder.springjwt.models.RevokedToken;
+import com.bezkoder.springjwt.repository.RevokedTokenRepository;
+import com.bezkoder.springjwt.services.ChangeVersionService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Revocation list of individual access tokens, by token id (jti).
+ *
+ * Every request is checked against an in-memory Bloom filter of the revoked ids,
+ * so a token that was never revoked costs no lookup; only filter hits are
+ * confirmed in the database. Revocations made on this node are added to the
+ * filter at once. The filter is rebuilt from the database when the
+ * "revoked-tokens" change version moves, so every node converges within a poll
+ * interval, and at least every {@code revocationRebuildMs} to drop expired ids.
+ *
+ * Revoking every token of a user is done through its token version, see
+ * {@link TokenVersionService}.
+ */
+@Service
+public class TokenRevocationService {
+  private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+  public static final String VERSION_NAME = "revoked-tokens";
+
+  private static final double FALSE_POSITIVE_RATE = 0.01;
+
+  @Autowired
+  private RevokedTokenRepository revokedTokenRepository;
+
+  @Autowired
+  private ChangeVersionService changeVersionService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  // Revoked ids the filter is sized for; it is rebuilt bigger when exceeded
+  @Value("${bezkoder.app.revocationExpectedTokens:100000}")
+  private long revocationExpectedTokens = 100000;
+
+  @Value("${bezkoder.app.revocationRebuildMs:3600000}")
+  private long revocationRebuildMs = 3600000;
+
+  private final AtomicReference<Filter> filter = new AtomicReference<>();
+
+  private Counter lookupCounter;
+  private Counter falsePositiveCounter;
+
+  @PostConstruct
+  public void init() {
+    lookupCounter = Counter.builder("cashback_token_revocation_lookups_total")
+        .description("Revocation checks that passed the Bloom filter and needed a lookup")
+        .register(meterRegistry);
+    falsePositiveCounter = Counter.builder("cashback_token_revocation_false_positives_total")
+        .description("Revocation lookups for tokens that were not revoked")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Whether the access token with this id was revoked.
+   */
+  public boolean isRevoked(String jti) {
+    if (jti == null) {
+      return false;
+    }
+    Filter current = filter.get();
+    if (current == null) {
+      current = rebuild();
+    }
+    if (!current.bloom.mightContain(jti)) {
+      return false;
+    }
+
+    lookupCounter.increment();
+    boolean revoked = revokedTokenRepository.existsByJti(jti);
+    if (!revoked) {
+      falsePositiveCounter.increment();
+    }
+    return revoked;
+  }
+
+  /**
+   * Revoke one access token until its expiry.
+   */
+  public void revoke(String jti, Long userId, Instant expiresAt, String reason) {
+    if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+      return;
+    }
+
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        revokedTokenRepository.save(new RevokedToken(jti, userId, expiresAt, reason));
+        changeVersionService.bump(VERSION_NAME);
+      });
+    } catch (DataIntegrityViolationException e) {
+      // A concurrent revocation of the same token wins the unique jti; anything else is a real failure
+      if (!revokedTokenRepository.existsByJti(jti)) {
+        throw e;
+      }
+    }
+
+    Filter current = filter.get();
+    if (current != null) {
+      current.bloom.add(jti);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${bezkoder.app.revocationPollMs:5000}")
+  public void pollVersion() {
+    try {
+      Filter current = filter.get();
+      if (current == null
+          || current.version != changeVersionService.currentVersion(VERSION_NAME)
+          || System.currentTimeMillis() - current.builtAtMillis > revocationRebuildMs) {
+        rebuild();
+      }
+    } catch (Exception e) {
+      logger.error("Could not refresh the token revocation filter: {}", e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${bezkoder.app.revocationCleanupMs:3600000}")
+  public void deleteExpired() {
+    try {
+      TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+      Integer deleted = transactionTemplate.execute(status -> revokedTokenRepository.deleteExpired(Instant.now()));
+      if (deleted != null && deleted > 0) {
+        logger.info("Deleted {} expired token revocations", deleted);
+      }
+    } catch (Exception e) {
+      logger.error("Could not delete expired token revocations: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Rebuild the filter from the database. The version is read before the ids, so
+   * a revocation committed in between is picked up by the next poll.
+   */
+  Filter rebuild() {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    transactionTemplate.setReadOnly(true);
+
+    Filter built = transactionTemplate.execute(status -> {
+      long version = changeVersionService.currentVersion(VERSION_NAME);
+      List<String> jtis = revokedTokenRepository.findActiveJtis(Instant.now());
+      BloomFilter bloom = new BloomFilter(Math.max(revocationExpectedTokens, jtis.size() * 2L), FALSE_POSITIVE_RATE);
+      jtis.forEach(bloom::add);
+      return new Filter(version, bloom, System.currentTimeMillis());
+    });
+
+    Filter published = filter.accumulateAndGet(built,
+        (current, next) -> current == null || next.version >= current.version ? next : current);
+    logger.debug("Token revocation filter rebuilt at version {}", published.version);
+    return published;
+  }
+
+  static final class Filter {
+    final long version;
+    final BloomFilter bloom;
+    final long builtAtMillis;
+
+    Filter(long version, BloomFilter bloom, long builtAtMillis) {
+      this.version = version;
+      this.bloom = bloom;
+      this.builtAtMillis = builtAtMillis;
+    }
+  }
+}
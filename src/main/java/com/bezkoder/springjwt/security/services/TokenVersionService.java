@@ -0,0 +1,119 @@
+package com.bezkoder.springjwt.security.services;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bezkoder.springjwt.repository.UserRepository;
+import com.bezkoder.springjwt.services.ChangeVersionService;
+
+/**
+ * Token versions of the users, so that JWTs can be trusted without loading the user.
+ *
+ * Every token carries the version of its user at issue time. Revoking a user's
+ * tokens (role, username or password change) increments that version, and tokens
+ * with an older one are refused. The versions of all users ever revoked are kept
+ * in memory; other nodes see a revocation once they polled the "user-tokens"
+ * change version.
+ */
+@Service
+public class TokenVersionService {
+  private static final Logger logger = LoggerFactory.getLogger(TokenVersionService.class);
+
+  public static final String VERSION_NAME = "user-tokens";
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ChangeVersionService changeVersionService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private final AtomicReference<Versions> versions = new AtomicReference<>();
+
+  /**
+   * Whether a token issued at the given version is still valid for the user.
+   */
+  public boolean isCurrent(Long userId, long tokenVersion) {
+    Versions current = versions.get();
+    if (current == null) {
+      current = refresh();
+    }
+    return tokenVersion >= current.byUser.getOrDefault(userId, 0L);
+  }
+
+  /**
+   * Invalidate every token issued so far to the user. Takes effect on this node once
+   * the caller's transaction commits.
+   */
+  @Transactional
+  public void revokeTokens(Long userId) {
+    userRepository.incrementTokenVersion(userId);
+    changeVersionService.bump(VERSION_NAME);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          refresh();
+        }
+      });
+    } else {
+      refresh();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${bezkoder.app.tokenVersionPollMs:5000}")
+  public void pollVersion() {
+    try {
+      Versions current = versions.get();
+      if (current == null || current.version != changeVersionService.currentVersion(VERSION_NAME)) {
+        refresh();
+      }
+    } catch (Exception e) {
+      logger.error("Could not poll the token versions: {}", e.getMessage());
+    }
+  }
+
+  Versions refresh() {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    transactionTemplate.setReadOnly(true);
+
+    Versions loaded = transactionTemplate.execute(status -> {
+      long version = changeVersionService.currentVersion(VERSION_NAME);
+      Map<Long, Long> byUser = new HashMap<>();
+      for (Object[] row : userRepository.findRevokedTokenVersions()) {
+        byUser.put((Long) row[0], (Long) row[1]);
+      }
+      return new Versions(version, byUser);
+    });
+
+    return versions.accumulateAndGet(loaded,
+        (current, next) -> current == null || next.version >= current.version ? next : current);
+  }
+
+  static final class Versions {
+    final long version;
+    final Map<Long, Long> byUser;
+
+    Versions(long version, Map<Long, Long> byUser) {
+      this.version = version;
+      this.byUser = Collections.unmodifiableMap(byUser);
+    }
+  }
+}
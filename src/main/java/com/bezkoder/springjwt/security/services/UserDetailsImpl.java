@@ -26,13 +26,21 @@ public class UserDetailsImpl implements UserDetails {
 
   private Collection<? extends GrantedAuthority> authorities;
 
+  private long tokenVersion;
+
   public UserDetailsImpl(Long id, String username, String email, String password,
       Collection<? extends GrantedAuthority> authorities) {
+    this(id, username, email, password, authorities, 0L);
+  }
+
+  public UserDetailsImpl(Long id, String username, String email, String password,
+      Collection<? extends GrantedAuthority> authorities, long tokenVersion) {
     this.id = id;
     this.username = username;
     this.email = email;
     this.password = password;
     this.authorities = authorities;
+    this.tokenVersion = tokenVersion;
   }
 
   public static UserDetailsImpl build(User user) {
@@ -45,7 +53,8 @@ public class UserDetailsImpl implements UserDetails {
         user.getUsername(), 
         user.getEmail(),
         user.getPassword(), 
-        authorities);
+        authorities,
+        user.getTokenVersion() != null ? user.getTokenVersion() : 0L);
   }
 
   @Override
@@ -61,6 +70,11 @@ public class UserDetailsImpl implements UserDetails {
     return email;
   }
 
+  @JsonIgnore
+  public long getTokenVersion() {
+    return tokenVersion;
+  }
+
   @Override
   public String getPassword() {
     return password;
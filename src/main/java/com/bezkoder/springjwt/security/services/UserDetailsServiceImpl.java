@@ -1,27 +1,218 @@
 package com.bezkoder.springjwt.security.services;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.bezkoder.springjwt.models.User;
 import com.bezkoder.springjwt.repository.UserRepository;
+import com.bezkoder.springjwt.services.ChangeVersionService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 
+/**
+ * Loads users for authentication through a bounded cache keyed by username.
+ *
+ * Entries expire after {@code userDetailsCacheTtlMs}. Changes to a user must be
+ * published with {@link #evictUser(String)}, which drops the entry on this node and
+ * bumps the "user-details" change version; the other nodes clear their cache when
+ * they see the version move.
+ *
+ * Also stores the new hash when a sign-in finds the password hashed with a lower
+ * BCrypt strength than configured.
+ */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+  private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
+
+  public static final String VERSION_NAME = "user-details";
+
   @Autowired
   UserRepository userRepository;
 
+  @Autowired
+  private ChangeVersionService changeVersionService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${bezkoder.app.userDetailsCacheSize:1000}")
+  private int userDetailsCacheSize = 1000;
+
+  @Value("${bezkoder.app.userDetailsCacheTtlMs:300000}")
+  private long userDetailsCacheTtlMs = 300000;
+
+  private final Map<String, CachedUser> cache = new LinkedHashMap<>(16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+      return size() > userDetailsCacheSize;
+    }
+  };
+
+  // Change version the cache content is consistent with, -1 until first polled
+  private volatile long seenVersion = -1;
+
+  // Incremented on every eviction, guarded by the cache lock. A user read from the
+  // database is only cached if nothing was evicted while it was being loaded.
+  private long generation;
+
+  private Counter hitCounter;
+  private Counter missCounter;
+
+  @PostConstruct
+  public void init() {
+    hitCounter = Counter.builder("cashback_user_details_cache_total")
+        .description("User details lookups by cache result")
+        .tag("result", "hit")
+        .register(meterRegistry);
+    missCounter = Counter.builder("cashback_user_details_cache_total")
+        .description("User details lookups by cache result")
+        .tag("result", "miss")
+        .register(meterRegistry);
+    Gauge.builder("cashback_user_details_cache_hit_ratio", this, service -> service.hitRatio())
+        .description("Share of user details lookups answered from the cache")
+        .register(meterRegistry);
+    Gauge.builder("cashback_user_details_cache_size", this, service -> service.cacheSize())
+        .description("Number of cached user details")
+        .register(meterRegistry);
+  }
+
   @Override
-  @Transactional
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    User user = userRepository.findByUsername(username)
-        .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+    long now = System.currentTimeMillis();
+    long loadGeneration;
+    synchronized (cache) {
+      CachedUser cached = cache.get(username);
+      if (cached != null && cached.expiresAtMillis > now) {
+        hitCounter.increment();
+        return cached.userDetails;
+      }
+      loadGeneration = generation;
+    }
+    missCounter.increment();
 
-    return UserDetailsImpl.build(user);
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setReadOnly(true);
+    UserDetailsImpl userDetails = transactionTemplate.execute(status -> {
+      User user = userRepository.findByUsername(username)
+          .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+
+      return UserDetailsImpl.build(user);
+    });
+
+    synchronized (cache) {
+      if (userDetailsCacheSize > 0 && loadGeneration == generation) {
+        cache.put(username, new CachedUser(userDetails, now + userDetailsCacheTtlMs));
+      }
+    }
+    return userDetails;
+  }
+
+  /**
+   * Rehash on login: called by the authentication provider after a successful
+   * check when the stored hash needs upgrading. Same password, so tokens and other
+   * nodes' caches stay valid; only the local entry is replaced.
+   */
+  @Override
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.executeWithoutResult(status -> userRepository.updatePassword(user.getUsername(), newPassword));
+
+    UserDetailsImpl current = (UserDetailsImpl) user;
+    UserDetailsImpl updated = new UserDetailsImpl(current.getId(), current.getUsername(), current.getEmail(),
+        newPassword, current.getAuthorities(), current.getTokenVersion());
+    synchronized (cache) {
+      generation++;
+      if (userDetailsCacheSize > 0) {
+        cache.put(updated.getUsername(), new CachedUser(updated, System.currentTimeMillis() + userDetailsCacheTtlMs));
+      }
+    }
+    logger.info("Rehashed the password of user {}", user.getUsername());
+    return updated;
+  }
+
+  /**
+   * Drop a user from the cache of every node, after a change to its roles,
+   * username or password. Called with the previous username on renames.
+   */
+  public void evictUser(String username) {
+    changeVersionService.bump(VERSION_NAME);
+    evictLocally(username);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      // Again once committed, a concurrent load may have read the old row
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          evictLocally(username);
+        }
+      });
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${bezkoder.app.userDetailsPollMs:5000}")
+  public void pollVersion() {
+    try {
+      long version = changeVersionService.currentVersion(VERSION_NAME);
+      if (version != seenVersion) {
+        synchronized (cache) {
+          cache.clear();
+          generation++;
+          seenVersion = version;
+        }
+      }
+    } catch (Exception e) {
+      logger.error("Could not poll the user details version: {}", e.getMessage());
+    }
+  }
+
+  int cacheSize() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  private double hitRatio() {
+    double hits = hitCounter.count();
+    double total = hits + missCounter.count();
+    return total > 0 ? hits / total : 0;
   }
 
+  private void evictLocally(String username) {
+    synchronized (cache) {
+      cache.remove(username);
+      generation++;
+    }
+  }
+
+  private static final class CachedUser {
+    final UserDetailsImpl userDetails;
+    final long expiresAtMillis;
+
+    CachedUser(UserDetailsImpl userDetails, long expiresAtMillis) {
+      this.userDetails = userDetails;
+      this.expiresAtMillis = expiresAtMillis;
+    }
+  }
 }
@@ -0,0 +1,319 @@
+package com.bezkoder.springjwt.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bezkoder.springjwt.exception.InvalidDataException;
+import com.bezkoder.springjwt.exception.OperationNotAllowedException;
+import com.bezkoder.springjwt.exception.ResourceNotFoundException;
+import com.bezkoder.springjwt.models.BatchCheckpoint;
+import com.bezkoder.springjwt.models.BatchRun;
+import com.bezkoder.springjwt.models.EBatchStatus;
+import com.bezkoder.springjwt.repository.BatchCheckpointRepository;
+import com.bezkoder.springjwt.repository.BatchRunRepository;
+import com.bezkoder.springjwt.repository.EngineerRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Chunk-oriented bonus calculation for every engineer over a period.
+ *
+ * Engineer ids are read in keyset pages of {@code bonusBatchChunkSize}. Each page is
+ * a chunk: its survey counts are aggregated (process), then its bonus rows are
+ * replaced and a checkpoint covering the chunk's id range is committed in the
+ * same transaction (write). Chunks run on a bounded worker pool. A run that was
+ * interrupted can be resumed and skips every engineer already covered by a
+ * checkpoint. The coefficients and calculation date are stored on the run when it
+ * starts, so a resumed run writes the same bonuses as an uninterrupted one even if
+ * the settings changed meanwhile. Read, process and write times are exported per
+ * chunk.
+ */
+@Service
+public class BonusBatchService {
+    private static final Logger logger = LoggerFactory.getLogger(BonusBatchService.class);
+
+    public static final String JOB_NAME = "bonus-calculation";
+
+    // Change version locked while starting a run, so that nodes start runs in turn
+    static final String RUNS_VERSION_NAME = "bonus-runs";
+
+    @Autowired
+    private EngineerRepository engineerRepository;
+
+    @Autowired
+    private BonusService bonusService;
+
+    @Autowired
+    private BatchRunRepository batchRunRepository;
+
+    @Autowired
+    private BatchCheckpointRepository batchCheckpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Autowired
+    private Timer bonusBatchTimer;
+
+    @Autowired
+    private Timer bonusBatchReadTimer;
+
+    @Autowired
+    private Timer bonusBatchProcessTimer;
+
+    @Autowired
+    private Timer bonusBatchWriteTimer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bezkoder.app.bonusBatchThreads:4}")
+    private int bonusBatchThreads = 4;
+
+    @Value("${bezkoder.app.bonusBatchChunkSize:200}")
+    private int bonusBatchChunkSize = 200;
+
+    // Runs currently executing on this node
+    private final Set<Long> activeRuns = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor workerExecutor;
+    private ExecutorService runExecutor;
+
+    @PostConstruct
+    public void init() {
+        int threads = Math.max(1, bonusBatchThreads);
+        workerExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 2), namedThreads("bonus-batch-worker"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        runExecutor = Executors.newSingleThreadExecutor(namedThreads("bonus-batch-run"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runExecutor.shutdownNow();
+        workerExecutor.shutdownNow();
+    }
+
+    /**
+     * Start a new run for the period in the background. Only one run per period can
+     * be in progress; an interrupted one must be resumed instead.
+     */
+    public BatchRun startRun(LocalDate startPeriod, LocalDate endPeriod) {
+        if (startPeriod.isAfter(endPeriod)) {
+            throw new InvalidDataException("startPeriod must not be after endPeriod");
+        }
+        // Fails fast without a global setting; every chunk, and any resume, uses these
+        SettingsService.Snapshot coefficients = bonusService.loadCoefficients();
+
+        // Whole seconds, so that the end date does not round up to the next day when stored
+        BatchRun started = new BatchRun(JOB_NAME, null, startPeriod.atStartOfDay(), endPeriod.atTime(23, 59, 59));
+        started.setCalculationDate(LocalDate.now());
+        started.setCoefficients(coefficients.toJson());
+
+        BatchRun run = new TransactionTemplate(transactionManager).execute(status -> {
+            // The version row lock makes the check below hold across nodes until commit
+            changeVersionService.bump(RUNS_VERSION_NAME);
+            for (BatchRun running : batchRunRepository.findByJobNameAndStatus(JOB_NAME, EBatchStatus.RUNNING)) {
+                if (running.getStartDate().toLocalDate().equals(startPeriod)
+                        && running.getEndDate().toLocalDate().equals(endPeriod)) {
+                    throw new OperationNotAllowedException("Bonus run " + running.getId()
+                            + " is already in progress for this period, resume it instead");
+                }
+            }
+            return batchRunRepository.save(started);
+        });
+        submit(run);
+        return run;
+    }
+
+    /**
+     * Resume a run that failed or whose node died, from its checkpoints.
+     */
+    public BatchRun resumeRun(Long runId) {
+        BatchRun run = batchRunRepository.findById(runId)
+                .orElseThrow(() -> new ResourceNotFoundException("BatchRun", "id", runId));
+
+        if (!JOB_NAME.equals(run.getJobName())) {
+            throw new OperationNotAllowedException("Batch run " + runId + " is not a bonus run");
+        }
+        if (activeRuns.contains(runId)) {
+            throw new OperationNotAllowedException("Batch run " + runId + " is already running");
+        }
+        if (run.getStatus() == EBatchStatus.COMPLETED) {
+            throw new OperationNotAllowedException("Batch run " + runId + " is already completed");
+        }
+
+        run.setStatus(EBatchStatus.RUNNING);
+        run.setFinishedAt(null);
+        run.setLastError(null);
+        run = batchRunRepository.save(run);
+        submit(run);
+        return run;
+    }
+
+    public Map<String, Object> getRunStatus(Long runId) {
+        BatchRun run = batchRunRepository.findById(runId)
+                .orElseThrow(() -> new ResourceNotFoundException("BatchRun", "id", runId));
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("run", run);
+        status.put("checkpointedChunks", batchCheckpointRepository.countByRunId(runId));
+        status.put("activeOnThisNode", activeRuns.contains(runId));
+        return status;
+    }
+
+    public List<BatchRun> getRecentRuns() {
+        return batchRunRepository.findTop20ByJobNameOrderByIdDesc(JOB_NAME);
+    }
+
+    private void submit(BatchRun run) {
+        activeRuns.add(run.getId());
+        runExecutor.submit(() -> {
+            try {
+                execute(run);
+            } finally {
+                activeRuns.remove(run.getId());
+            }
+        });
+    }
+
+    BatchRun execute(BatchRun run) {
+        Timer.Sample runSample = Timer.start();
+        long started = System.nanoTime();
+
+        try {
+            LocalDate startPeriod = run.getStartDate().toLocalDate();
+            LocalDate endPeriod = run.getEndDate().toLocalDate();
+            // Stored at start: every chunk of every attempt uses the same coefficients and date.
+            // Runs started before they were stored use the current ones.
+            LocalDate calculationDate = run.getCalculationDate() != null ? run.getCalculationDate() : LocalDate.now();
+            SettingsService.Snapshot coefficients = run.getCoefficients() != null
+                    ? SettingsService.Snapshot.fromJson(run.getCoefficients())
+                    : bonusService.loadCoefficients();
+
+            // firstItemId -> lastItemId of the chunks already committed
+            NavigableMap<Long, Long> checkpointed = new TreeMap<>();
+            int alreadyProcessed = 0;
+            for (BatchCheckpoint checkpoint : batchCheckpointRepository.findByRunId(run.getId())) {
+                checkpointed.put(checkpoint.getFirstItemId(), checkpoint.getLastItemId());
+                alreadyProcessed += checkpoint.getItemCount() != null ? checkpoint.getItemCount() : 0;
+            }
+
+            AtomicInteger processed = new AtomicInteger(alreadyProcessed);
+            AtomicInteger failed = new AtomicInteger();
+            AtomicReference<String> lastError = new AtomicReference<>();
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            int total = 0;
+            long afterId = 0L;
+            while (true) {
+                Timer.Sample readSample = Timer.start();
+                List<Long> page = engineerRepository.findIdsAfter(afterId, PageRequest.of(0, bonusBatchChunkSize));
+                readSample.stop(bonusBatchReadTimer);
+                if (page.isEmpty()) {
+                    break;
+                }
+                total += page.size();
+                afterId = page.get(page.size() - 1);
+
+                List<Long> chunk = page.stream().filter(id -> !isCheckpointed(checkpointed, id)).toList();
+                if (chunk.isEmpty()) {
+                    continue;
+                }
+
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        Timer.Sample processSample = Timer.start();
+                        List<Object[]> rows = bonusService.computeBonusRows(startPeriod, endPeriod, chunk,
+                                coefficients, calculationDate);
+                        processSample.stop(bonusBatchProcessTimer);
+
+                        Timer.Sample writeSample = Timer.start();
+                        transactionTemplate.executeWithoutResult(status -> {
+                            bonusService.replaceBonusRows(startPeriod, endPeriod, chunk, rows);
+                            batchCheckpointRepository.save(new BatchCheckpoint(run.getId(), chunk.get(0),
+                                    chunk.get(chunk.size() - 1), chunk.size()));
+                        });
+                        writeSample.stop(bonusBatchWriteTimer);
+
+                        processed.addAndGet(chunk.size());
+                        meterRegistry.counter("cashback_bonus_batch_chunks_total", "outcome", "success").increment();
+                    } catch (Exception e) {
+                        failed.addAndGet(chunk.size());
+                        lastError.set("Engineers " + chunk.get(0) + "-" + chunk.get(chunk.size() - 1) + ": " + e.getMessage());
+                        meterRegistry.counter("cashback_bonus_batch_chunks_total", "outcome", "failure").increment();
+                        logger.error("Bonus run {} failed for engineers {}-{}: {}", run.getId(),
+                                chunk.get(0), chunk.get(chunk.size() - 1), e.getMessage());
+                    }
+                }, workerExecutor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+            run.setTotalItems(total);
+            run.setProcessedItems(processed.get());
+            run.setFailedItems(failed.get());
+            run.setLastError(truncate(lastError.get()));
+            run.setStatus(failed.get() > 0 ? EBatchStatus.FAILED : EBatchStatus.COMPLETED);
+        } catch (Exception e) {
+            logger.error("Bonus run {} aborted: {}", run.getId(), e.getMessage());
+            run.setStatus(EBatchStatus.FAILED);
+            run.setLastError(truncate(e.getMessage()));
+        }
+
+        run.setFinishedAt(LocalDateTime.now());
+        run.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        runSample.stop(bonusBatchTimer);
+
+        logger.info("Bonus run {} finished with status {} in {} ms ({} processed, {} failed)",
+                run.getId(), run.getStatus(), run.getDurationMs(), run.getProcessedItems(), run.getFailedItems());
+        return batchRunRepository.save(run);
+    }
+
+    private static boolean isCheckpointed(NavigableMap<Long, Long> checkpointed, Long id) {
+        Map.Entry<Long, Long> range = checkpointed.floorEntry(id);
+        return range != null && id <= range.getValue();
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private static CustomizableThreadFactory namedThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix + "-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
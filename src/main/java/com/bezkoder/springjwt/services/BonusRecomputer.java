@@ -0,0 +1,36 @@
+package com.bezkoder.springjwt.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background job draining the case_changes outbox filled by {@link CaseChangeListener}.
+ * Each batch is consumed in its own transaction, so a failure only retries that
+ * batch on the next tick.
+ */
+@Component
+public class BonusRecomputer {
+    private static final Logger logger = LoggerFactory.getLogger(BonusRecomputer.class);
+
+    @Autowired
+    private BonusService bonusService;
+
+    @Value("${bezkoder.app.bonusRecomputeBatchSize:500}")
+    private int bonusRecomputeBatchSize = 500;
+
+    @Scheduled(fixedDelayString = "${bezkoder.app.bonusRecomputeDelayMs:30000}")
+    public void recomputeChangedBonuses() {
+        try {
+            int consumed;
+            do {
+                consumed = bonusService.recomputeChangedBonuses(bonusRecomputeBatchSize);
+            } while (consumed >= bonusRecomputeBatchSize);
+        } catch (Exception e) {
+            logger.error("Incremental bonus recomputation failed: {}", e.getMessage());
+        }
+    }
+}
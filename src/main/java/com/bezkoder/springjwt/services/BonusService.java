@@ -0,0 +1,237 @@
+package com.bezkoder.springjwt.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bezkoder.springjwt.exception.InvalidDataException;
+import com.bezkoder.springjwt.models.Bonus;
+import com.bezkoder.springjwt.models.CaseChange;
+import com.bezkoder.springjwt.models.Setting;
+import com.bezkoder.springjwt.repository.BonusRepository;
+import com.bezkoder.springjwt.repository.CaseChangeRepository;
+import com.bezkoder.springjwt.repository.CaseRepository;
+import com.bezkoder.springjwt.repository.EngineerSurveyStats;
+
+/**
+ * Bonus calculation engine.
+ *
+ * For a period, the bonus of an engineer is:
+ *   caseCoefficient * (Case surveys rated >= min CES) + chatCoefficient * (Chat surveys rated >= min CES)
+ *
+ * Coefficients come from the setting of the engineer's manager (the user owning the
+ * engineer's team) when there is one, otherwise from the global setting, both read
+ * from the {@link SettingsService} snapshot. Survey counts are aggregated by the
+ * database in one grouped query and the resulting {@link Bonus} rows are written
+ * with JDBC batches.
+ *
+ * Between full runs, {@link #recomputeChangedBonuses(int)} keeps already calculated
+ * periods up to date from the case_changes outbox.
+ */
+@Service
+public class BonusService {
+    private static final Logger logger = LoggerFactory.getLogger(BonusService.class);
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String DELETE_PERIOD_SQL =
+            "DELETE FROM bonuses WHERE start_period = ? AND end_period = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO bonuses (amount, calculation_date, start_period, end_period, engineer_id) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private SettingsService settingsService;
+
+    @Autowired
+    private BonusRepository bonusRepository;
+
+    @Autowired
+    private CaseChangeRepository caseChangeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Bonus rule: a survey earns its coefficient only when rated at least this CES
+    @Value("${bezkoder.app.bonusMinCesRating:4}")
+    private int bonusMinCesRating = 4;
+
+    /**
+     * Compute and store the bonuses of every engineer with surveys in the period.
+     * Bonuses previously computed for exactly the same period are replaced.
+     *
+     * @return a summary of the run
+     */
+    @Transactional
+    public Map<String, Object> calculateBonuses(LocalDate startPeriod, LocalDate endPeriod) {
+        if (startPeriod.isAfter(endPeriod)) {
+            throw new InvalidDataException("startPeriod must not be after endPeriod");
+        }
+
+        long started = System.nanoTime();
+        LocalDate calculationDate = LocalDate.now();
+
+        List<EngineerSurveyStats> stats = caseRepository.aggregateSurveyStats(
+                startPeriod.atStartOfDay(), endPeriod.atTime(LocalTime.MAX), bonusMinCesRating);
+
+        SettingsService.Snapshot coefficients = loadCoefficients();
+
+        List<Object[]> rows = buildRows(stats, coefficients, calculationDate, startPeriod, endPeriod);
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (Object[] row : rows) {
+            totalAmount = totalAmount.add((BigDecimal) row[0]);
+        }
+
+        int replaced = jdbcTemplate.update(DELETE_PERIOD_SQL, Date.valueOf(startPeriod), Date.valueOf(endPeriod));
+        insertRows(rows);
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        logger.info("Calculated {} bonuses for {} - {} in {} ms ({} replaced)",
+                rows.size(), startPeriod, endPeriod, durationMs, replaced);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("startPeriod", startPeriod);
+        result.put("endPeriod", endPeriod);
+        result.put("engineers", rows.size());
+        result.put("replaced", replaced);
+        result.put("totalAmount", totalAmount);
+        result.put("durationMs", durationMs);
+        return result;
+    }
+
+    /**
+     * Refresh the bonuses affected by the oldest pending case changes, at most
+     * {@code limit} changes at a time. Only periods that were already calculated
+     * are refreshed, and only for the engineers whose cases changed. The consumed
+     * changes are deleted in the same transaction.
+     *
+     * @return the number of case changes consumed
+     */
+    @Transactional
+    public int recomputeChangedBonuses(int limit) {
+        List<CaseChange> changes = caseChangeRepository.findByOrderByIdAsc(PageRequest.of(0, limit));
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        // (startPeriod, endPeriod) -> engineers with a changed case in that period
+        Map<List<LocalDate>, Set<Long>> affected = new HashMap<>();
+        for (Object[] period : bonusRepository.findDistinctPeriods()) {
+            LocalDate startPeriod = (LocalDate) period[0];
+            LocalDate endPeriod = (LocalDate) period[1];
+            for (CaseChange change : changes) {
+                if (!change.getCaseDate().isBefore(startPeriod) && !change.getCaseDate().isAfter(endPeriod)) {
+                    affected.computeIfAbsent(List.of(startPeriod, endPeriod), k -> new HashSet<>())
+                            .add(change.getEngineerId());
+                }
+            }
+        }
+
+        int refreshed = 0;
+        if (!affected.isEmpty()) {
+            SettingsService.Snapshot coefficients = loadCoefficients();
+            LocalDate calculationDate = LocalDate.now();
+
+            for (Map.Entry<List<LocalDate>, Set<Long>> entry : affected.entrySet()) {
+                LocalDate startPeriod = entry.getKey().get(0);
+                LocalDate endPeriod = entry.getKey().get(1);
+
+                List<Object[]> rows = computeBonusRows(startPeriod, endPeriod, entry.getValue(),
+                        coefficients, calculationDate);
+                replaceBonusRows(startPeriod, endPeriod, entry.getValue(), rows);
+                refreshed += rows.size();
+            }
+        }
+
+        caseChangeRepository.deleteAllByIdInBatch(changes.stream().map(CaseChange::getId).toList());
+
+        logger.info("Consumed {} case changes, refreshed {} bonuses over {} periods",
+                changes.size(), refreshed, affected.size());
+        return changes.size();
+    }
+
+    /**
+     * Bonus rows of the given engineers for a period, ready for
+     * {@link #replaceBonusRows}. Engineers without surveys in the period get no row.
+     */
+    public List<Object[]> computeBonusRows(LocalDate startPeriod, LocalDate endPeriod, Collection<Long> engineerIds,
+                                           SettingsService.Snapshot coefficients, LocalDate calculationDate) {
+        List<EngineerSurveyStats> stats = caseRepository.aggregateSurveyStatsForEngineers(
+                startPeriod.atStartOfDay(), endPeriod.atTime(LocalTime.MAX), bonusMinCesRating, engineerIds);
+        return buildRows(stats, coefficients, calculationDate, startPeriod, endPeriod);
+    }
+
+    /**
+     * Replace the bonuses of the given engineers for a period. Engineers left without
+     * qualifying surveys simply lose their row, as they would in a full calculation.
+     */
+    @Transactional
+    public void replaceBonusRows(LocalDate startPeriod, LocalDate endPeriod, Collection<Long> engineerIds,
+                                 List<Object[]> rows) {
+        bonusRepository.deleteByPeriodAndEngineerIds(startPeriod, endPeriod, engineerIds);
+        insertRows(rows);
+    }
+
+    public SettingsService.Snapshot loadCoefficients() {
+        SettingsService.Snapshot coefficients = settingsService.snapshot();
+        if (coefficients.getGlobalSetting() == null) {
+            throw new InvalidDataException("No bonus setting found: create the global setting first");
+        }
+        return coefficients;
+    }
+
+    private List<Object[]> buildRows(List<EngineerSurveyStats> stats, SettingsService.Snapshot coefficients,
+                                     LocalDate calculationDate, LocalDate startPeriod, LocalDate endPeriod) {
+        List<Object[]> rows = new ArrayList<>(stats.size());
+        for (EngineerSurveyStats engineerStats : stats) {
+            Setting setting = coefficients.getEffectiveSetting(engineerStats.getManagerUserId());
+            BigDecimal amount = computeAmount(engineerStats.getCaseCount(), engineerStats.getChatCount(),
+                    setting.getCaseCoefficient(), setting.getChatCoefficient());
+
+            rows.add(new Object[] { amount, Date.valueOf(calculationDate), Date.valueOf(startPeriod),
+                    Date.valueOf(endPeriod), engineerStats.getEngineerId() });
+        }
+        return rows;
+    }
+
+    private void insertRows(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setBigDecimal(1, (BigDecimal) row[0]);
+            ps.setDate(2, (Date) row[1]);
+            ps.setDate(3, (Date) row[2]);
+            ps.setDate(4, (Date) row[3]);
+            ps.setLong(5, (Long) row[4]);
+        });
+    }
+
+    /**
+     * Bonus amount for the given qualifying survey counts, rounded to cents.
+     */
+    public static BigDecimal computeAmount(Long caseCount, Long chatCount, Double caseCoefficient, Double chatCoefficient) {
+        BigDecimal caseAmount = BigDecimal.valueOf(caseCoefficient).multiply(BigDecimal.valueOf(caseCount != null ? caseCount : 0L));
+        BigDecimal chatAmount = BigDecimal.valueOf(chatCoefficient).multiply(BigDecimal.valueOf(chatCount != null ? chatCount : 0L));
+        return caseAmount.add(chatAmount).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,190 @@
+package com.bezkoder.springjwt.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.bezkoder.springjwt.exception.InvalidDataException;
+import com.bezkoder.springjwt.payload.request.BonusSimulationRequest;
+import com.bezkoder.springjwt.payload.request.BonusSimulationRequest.CoefficientSet;
+import com.bezkoder.springjwt.payload.response.BonusSimulationResult;
+import com.bezkoder.springjwt.repository.CaseRepository;
+import com.bezkoder.springjwt.repository.EngineerSurveyStats;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * What-if simulator for bonus coefficients. Nothing is written to the database.
+ *
+ * The qualifying survey counts of the period are read once into primitive arrays,
+ * then every candidate coefficient set is evaluated on its own worker. Amounts are
+ * computed in fixed point (coefficients scaled by {@link #COEFFICIENT_SCALE}) and
+ * rounded half-up to cents, which matches {@link BonusService#computeAmount} for
+ * coefficients with up to four decimals.
+ */
+@Service
+public class BonusSimulationService {
+    private static final Logger logger = LoggerFactory.getLogger(BonusSimulationService.class);
+
+    static final long COEFFICIENT_SCALE = 10_000L;
+
+    // Coefficient units per cent
+    private static final long UNITS_PER_CENT = COEFFICIENT_SCALE / 100;
+
+    static final int MAX_COEFFICIENT_SETS = 200;
+
+    // Keeps count * coefficient units far away from long overflow
+    private static final double MAX_COEFFICIENT = 1_000_000d;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    // Bonus rule: a survey earns its coefficient only when rated at least this CES
+    @Value("${bezkoder.app.bonusMinCesRating:4}")
+    private int bonusMinCesRating = 4;
+
+    @Value("${bezkoder.app.bonusSimulationThreads:0}")
+    private int bonusSimulationThreads = 0;
+
+    private ThreadPoolExecutor simulationExecutor;
+
+    @PostConstruct
+    public void init() {
+        int threads = bonusSimulationThreads > 0 ? bonusSimulationThreads : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("bonus-simulation-");
+        threadFactory.setDaemon(true);
+        simulationExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_COEFFICIENT_SETS), threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        simulationExecutor.shutdownNow();
+    }
+
+    public List<BonusSimulationResult> simulate(BonusSimulationRequest request) {
+        if (request.getStartPeriod().isAfter(request.getEndPeriod())) {
+            throw new InvalidDataException("startPeriod must not be after endPeriod");
+        }
+        if (request.getCoefficientSets().size() > MAX_COEFFICIENT_SETS) {
+            throw new InvalidDataException("At most " + MAX_COEFFICIENT_SETS + " coefficient sets can be simulated at once");
+        }
+        for (CoefficientSet coefficientSet : request.getCoefficientSets()) {
+            toFixedPoint(coefficientSet.getCaseCoefficient());
+            toFixedPoint(coefficientSet.getChatCoefficient());
+        }
+
+        long started = System.nanoTime();
+        Snapshot snapshot = loadSnapshot(request.getStartPeriod(), request.getEndPeriod());
+
+        List<CompletableFuture<BonusSimulationResult>> futures = new ArrayList<>();
+        for (CoefficientSet coefficientSet : request.getCoefficientSets()) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> evaluate(snapshot, coefficientSet, request.isIncludeEngineers()), simulationExecutor));
+        }
+        List<BonusSimulationResult> results = futures.stream().map(CompletableFuture::join).toList();
+
+        logger.info("Simulated {} coefficient sets over {} engineers in {} ms", results.size(),
+                snapshot.engineerIds.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return results;
+    }
+
+    Snapshot loadSnapshot(LocalDate startPeriod, LocalDate endPeriod) {
+        List<EngineerSurveyStats> stats = caseRepository.aggregateSurveyStats(
+                startPeriod.atStartOfDay(), endPeriod.atTime(LocalTime.MAX), bonusMinCesRating);
+
+        Snapshot snapshot = new Snapshot(stats.size());
+        for (int i = 0; i < stats.size(); i++) {
+            EngineerSurveyStats engineerStats = stats.get(i);
+            snapshot.engineerIds[i] = engineerStats.getEngineerId();
+            snapshot.caseCounts[i] = engineerStats.getCaseCount() != null ? engineerStats.getCaseCount() : 0L;
+            snapshot.chatCounts[i] = engineerStats.getChatCount() != null ? engineerStats.getChatCount() : 0L;
+        }
+        return snapshot;
+    }
+
+    static BonusSimulationResult evaluate(Snapshot snapshot, CoefficientSet coefficientSet, boolean includeEngineers) {
+        long caseUnits = toFixedPoint(coefficientSet.getCaseCoefficient());
+        long chatUnits = toFixedPoint(coefficientSet.getChatCoefficient());
+
+        int size = snapshot.engineerIds.length;
+        long[] cents = new long[size];
+        long totalCents = 0;
+        for (int i = 0; i < size; i++) {
+            long units = Math.addExact(Math.multiplyExact(snapshot.caseCounts[i], caseUnits),
+                    Math.multiplyExact(snapshot.chatCounts[i], chatUnits));
+            cents[i] = (units + UNITS_PER_CENT / 2) / UNITS_PER_CENT;
+            totalCents += cents[i];
+        }
+
+        Map<Long, BigDecimal> amountsByEngineer = null;
+        if (includeEngineers) {
+            amountsByEngineer = new LinkedHashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                amountsByEngineer.put(snapshot.engineerIds[i], BigDecimal.valueOf(cents[i], 2));
+            }
+        }
+
+        long[] sorted = cents.clone();
+        Arrays.sort(sorted);
+        BigDecimal total = BigDecimal.valueOf(totalCents, 2);
+        BigDecimal average = size > 0
+                ? total.divide(BigDecimal.valueOf(size), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO.setScale(2);
+
+        return new BonusSimulationResult(coefficientSet.getLabel(), coefficientSet.getCaseCoefficient(),
+                coefficientSet.getChatCoefficient(), size, total, average,
+                percentile(sorted, 0.0), percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 1.0),
+                amountsByEngineer);
+    }
+
+    private static long toFixedPoint(Double coefficient) {
+        if (coefficient == null || coefficient < 0 || coefficient > MAX_COEFFICIENT) {
+            throw new InvalidDataException("Coefficients must be between 0 and " + MAX_COEFFICIENT);
+        }
+        return Math.round(coefficient * COEFFICIENT_SCALE);
+    }
+
+    // Nearest-rank percentile over sorted cents
+    private static BigDecimal percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return BigDecimal.valueOf(sorted[Math.max(0, rank - 1)], 2);
+    }
+
+    /**
+     * Per-engineer qualifying survey counts of a period, as parallel arrays.
+     */
+    static final class Snapshot {
+        final long[] engineerIds;
+        final long[] caseCounts;
+        final long[] chatCounts;
+
+        Snapshot(int size) {
+            this.engineerIds = new long[size];
+            this.caseCounts = new long[size];
+            this.chatCounts = new long[size];
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.bezkoder.springjwt.services;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bezkoder.springjwt.models.Case;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Entity listener recording every change of a {@link Case} in the case_changes
+ * outbox, consumed by {@link BonusRecomputer}.
+ *
+ * The outbox row is inserted with plain JDBC on the connection of the running
+ * transaction (JPA does not allow persisting entities from a callback), so it
+ * commits or rolls back together with the case itself. Instances are created
+ * and autowired by Spring through Hibernate's bean container.
+ */
+public class CaseChangeListener {
+    private static final String INSERT_SQL =
+            "INSERT INTO case_changes (engineer_id, case_date, created_at) VALUES (?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostLoad
+    public void onLoad(Case caseObj) {
+        caseObj.markLoaded();
+    }
+
+    @PostPersist
+    public void onPersist(Case caseObj) {
+        recordCurrent(caseObj);
+        caseObj.markLoaded();
+    }
+
+    @PostUpdate
+    public void onUpdate(Case caseObj) {
+        recordCurrent(caseObj);
+        Long currentEngineerId = caseObj.getEngineer() != null ? caseObj.getEngineer().getId() : null;
+        if (!Objects.equals(caseObj.getLoadedEngineerId(), currentEngineerId)
+                || !Objects.equals(caseObj.getLoadedDate(), caseObj.getDate())) {
+            record(caseObj.getLoadedEngineerId(), caseObj.getLoadedDate());
+        }
+        caseObj.markLoaded();
+    }
+
+    @PostRemove
+    public void onRemove(Case caseObj) {
+        if (caseObj.getLoadedEngineerId() != null) {
+            record(caseObj.getLoadedEngineerId(), caseObj.getLoadedDate());
+        } else {
+            recordCurrent(caseObj);
+        }
+    }
+
+    private void recordCurrent(Case caseObj) {
+        if (caseObj.getEngineer() != null) {
+            record(caseObj.getEngineer().getId(), caseObj.getDate());
+        }
+    }
+
+    private void record(Long engineerId, LocalDateTime caseDate) {
+        if (engineerId == null || caseDate == null) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_SQL, engineerId, Date.valueOf(caseDate.toLocalDate()),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
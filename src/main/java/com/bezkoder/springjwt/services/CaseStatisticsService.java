@@ -0,0 +1,151 @@
+package com.bezkoder.springjwt.services;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.bezkoder.springjwt.models.Engineer;
+import com.bezkoder.springjwt.repository.CaseRepository;
+import com.bezkoder.springjwt.repository.EngineerRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Case statistics behind {@code /api/cases/statistics}, shared between identical
+ * requests.
+ *
+ * Many users open the same statistics at the same moment (after a weekly email, for
+ * instance). Requests with the same parameters share one computation: the first runs
+ * the queries, the others arriving meanwhile wait for its result, and those arriving
+ * within {@code statisticsTtlMs} after it reuse that result. The share of requests
+ * answered without running the queries is published as
+ * {@code cashback_statistics_dedupe_ratio}.
+ */
+@Service
+public class CaseStatisticsService {
+    static final String REQUESTS_METRIC = "cashback_statistics_requests_total";
+    static final String DEDUPE_RATIO_METRIC = "cashback_statistics_dedupe_ratio";
+
+    // Results kept before the expired ones are dropped
+    static final int MAX_ENTRIES = 1000;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private EngineerRepository engineerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bezkoder.app.statisticsTtlMs:5000}")
+    private long statisticsTtlMs = 5000;
+
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder computations = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge(DEDUPE_RATIO_METRIC, this, CaseStatisticsService::dedupeRatio);
+    }
+
+    /**
+     * Case count and average CES of an engineer over a period, empty when the
+     * engineer does not exist.
+     */
+    public Optional<Map<String, Object>> engineerStatistics(Long engineerId, LocalDateTime startDate,
+                                                            LocalDateTime endDate) {
+        // LocalDateTime.toString is canonical, however the dates were written in the request
+        String key = "engineer/" + engineerId + "/" + startDate + "/" + endDate;
+        return share(key, () -> engineerRepository.findById(engineerId).map(engineer ->
+            computeEngineerStatistics(engineer, startDate, endDate)));
+    }
+
+    private Map<String, Object> computeEngineerStatistics(Engineer engineer, LocalDateTime startDate,
+                                                          LocalDateTime endDate) {
+        Long caseCount = caseRepository.countCasesResolvedByEngineer(engineer, startDate, endDate);
+        Double avgRating = caseRepository.calculateAverageCesRating(engineer, startDate, endDate);
+        return Map.of(
+            "engineerId", engineer.getId(),
+            "engineerName", engineer.getFullName(),
+            "caseCount", caseCount,
+            "averageCesRating", avgRating != null ? avgRating : 0.0,
+            "startDate", startDate,
+            "endDate", endDate);
+    }
+
+    /**
+     * The result of the computation for the key: computed here, or shared with the
+     * identical computation in progress or finished less than the TTL ago.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T share(String key, Supplier<T> computation) {
+        long now = System.currentTimeMillis();
+        Flight started = new Flight();
+        Flight flight = flights.compute(key,
+            (k, existing) -> existing != null && !existing.isExpired(now, statisticsTtlMs) ? existing : started);
+        requests.increment();
+
+        if (flight != started) {
+            meterRegistry.counter(REQUESTS_METRIC, "outcome", flight.result.isDone() ? "cached" : "coalesced")
+                .increment();
+            try {
+                return (T) flight.result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        computations.increment();
+        meterRegistry.counter(REQUESTS_METRIC, "outcome", "computed").increment();
+        try {
+            T value = computation.get();
+            flight.completedAt = System.currentTimeMillis();
+            flight.result.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Not kept, whatever the failure: the next request tries again instead of
+            // waiting for a flight that never completes
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (flights.size() > MAX_ENTRIES) {
+                long purgedAt = System.currentTimeMillis();
+                flights.values().removeIf(f -> f.isExpired(purgedAt, statisticsTtlMs));
+            }
+        }
+    }
+
+    /**
+     * Share of the requests answered without running the queries.
+     */
+    double dedupeRatio() {
+        long total = requests.sum();
+        return total == 0 ? 0.0 : 1.0 - (double) computations.sum() / total;
+    }
+
+    private static final class Flight {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile long completedAt;
+
+        boolean isExpired(long now, long ttlMs) {
+            return result.isDone() && now - completedAt >= ttlMs;
+        }
+    }
+}
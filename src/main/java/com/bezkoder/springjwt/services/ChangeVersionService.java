@@ -0,0 +1,57 @@
+package com.bezkoder.springjwt.services;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bezkoder.springjwt.models.ChangeVersion;
+import com.bezkoder.springjwt.repository.ChangeVersionRepository;
+
+/**
+ * Reads and bumps the versions of {@link ChangeVersion}, used by the in-memory
+ * caches to detect changes made on other nodes.
+ */
+@Service
+public class ChangeVersionService {
+    // One statement, so the first writers of a name cannot both insert it (MySQL, or H2 in MySQL mode)
+    private static final String UPSERT_SQL =
+            "INSERT INTO change_versions (name, version, updated_at) VALUES (?, 1, ?) "
+            + "ON DUPLICATE KEY UPDATE version = version + 1, updated_at = ?";
+
+    @Autowired
+    private ChangeVersionRepository changeVersionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Current version, 0 when nothing was ever published under that name.
+     */
+    @Transactional(readOnly = true)
+    public long currentVersion(String name) {
+        return changeVersionRepository.findVersionByName(name).orElse(0L);
+    }
+
+    /**
+     * Bump the version in the caller's transaction, creating it on first use. The
+     * row lock also serializes concurrent writers of the same name until they commit.
+     */
+    @Transactional
+    public void bump(String name) {
+        bump(jdbcTemplate, name);
+    }
+
+    /**
+     * Same as {@link #bump}, with plain JDBC on the connection of the running
+     * transaction. For entity listeners: they may not use the persistence context
+     * while it flushes, nor depend on the JPA repositories.
+     */
+    public static void bump(JdbcTemplate jdbcTemplate, String name) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(UPSERT_SQL, name, now, now);
+    }
+}
@@ -0,0 +1,25 @@
+package com.bezkoder.springjwt.services;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Entity listener of the cases, reports, teams, engineers and users, telling
+ * {@link DashboardService} once a change is committed. Other nodes pick the change
+ * up with their scheduled refresh.
+ */
+public class DashboardChangeListener {
+    @Autowired
+    private ObjectProvider<DashboardService> dashboardService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        AfterCommit.run(() -> dashboardService.getObject().dataChanged());
+    }
+}
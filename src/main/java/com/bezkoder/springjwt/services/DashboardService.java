@@ -0,0 +1,224 @@
+package com.bezkoder.springjwt.services;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bezkoder.springjwt.payload.response.DashboardResponse;
+import com.bezkoder.springjwt.payload.response.DashboardResponse.ReportSummary;
+import com.bezkoder.springjwt.payload.response.DashboardResponse.TeamSize;
+import com.bezkoder.springjwt.repository.CaseRepository;
+import com.bezkoder.springjwt.repository.EngineerRepository;
+import com.bezkoder.springjwt.repository.RefreshTokenRepository;
+import com.bezkoder.springjwt.repository.ReportRepository;
+import com.bezkoder.springjwt.repository.TeamRepository;
+import com.bezkoder.springjwt.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The landing page aggregate behind {@code /api/dashboard}, served from memory.
+ *
+ * The aggregate is recomputed in the background every {@code dashboardRefreshMs},
+ * and after data changes reported by {@link DashboardChangeListener}, but not more
+ * often than every {@code dashboardMinRefreshMs} so that imports do not keep it
+ * recomputing. Requests never wait for a recomputation once there is an aggregate:
+ * a stale one is returned while the next is computed. Only one recomputation runs
+ * at a time; callers asking for one meanwhile share it.
+ */
+@Service
+public class DashboardService {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    static final int RECENT_DAYS = 30;
+    static final int LARGEST_TEAMS = 5;
+    static final int RECENT_REPORTS = 5;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private EngineerRepository engineerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bezkoder.app.dashboardRefreshMs:60000}")
+    private long dashboardRefreshMs = 60000;
+
+    @Value("${bezkoder.app.dashboardMinRefreshMs:2000}")
+    private long dashboardMinRefreshMs = 2000;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    // The recomputation in progress, if any
+    private final AtomicReference<CompletableFuture<Snapshot>> refreshing = new AtomicReference<>();
+
+    // When data last changed on this node, 0 when it did not since startup
+    private final AtomicLong changedAt = new AtomicLong();
+
+    private ExecutorService refreshExecutor;
+
+    @PostConstruct
+    public void init() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("dashboard-refresh-");
+        threadFactory.setDaemon(true);
+        refreshExecutor = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * The latest aggregate. Only the very first request waits for it to be computed.
+     */
+    public Snapshot dashboard() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            return refresh().join();
+        }
+        if (isStale(current, System.currentTimeMillis())) {
+            refresh();
+        }
+        return current;
+    }
+
+    /**
+     * Data shown on the dashboard changed and was committed.
+     */
+    public void dataChanged() {
+        long now = System.currentTimeMillis();
+        changedAt.set(now);
+        Snapshot current = snapshot.get();
+        if (current != null && now - current.computedAt >= dashboardMinRefreshMs) {
+            refresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bezkoder.app.dashboardRefreshMs:60000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * Start a recomputation, or join the one in progress.
+     */
+    CompletableFuture<Snapshot> refresh() {
+        CompletableFuture<Snapshot> started = new CompletableFuture<>();
+        CompletableFuture<Snapshot> running = refreshing.compareAndExchange(null, started);
+        if (running != null) {
+            return running;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Snapshot computed = compute();
+                    snapshot.set(computed);
+                    refreshing.set(null);
+                    started.complete(computed);
+                } catch (Throwable e) {
+                    // Errors too: a future left incomplete would block every later refresh
+                    logger.error("Could not compute the dashboard: {}", e.toString());
+                    refreshing.set(null);
+                    started.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(null);
+            started.completeExceptionally(e);
+        }
+        return started;
+    }
+
+    private boolean isStale(Snapshot current, long now) {
+        long age = now - current.computedAt;
+        // Changes during a computation may not be in it, compare with its start
+        return age >= dashboardRefreshMs
+            || (changedAt.get() >= current.startedAt && age >= dashboardMinRefreshMs);
+    }
+
+    private Snapshot compute() {
+        long startedAt = System.currentTimeMillis();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        DashboardResponse response = transactionTemplate.execute(status -> {
+            Object[] recent = caseRepository.countAndAverageCesSince(LocalDateTime.now().minusDays(RECENT_DAYS)).get(0);
+            List<TeamSize> largestTeams = teamRepository.findSizes(PageRequest.of(0, LARGEST_TEAMS)).stream()
+                .map(row -> new TeamSize((Long) row[0], (String) row[1], (Long) row[2]))
+                .toList();
+            List<ReportSummary> recentReports = reportRepository.findRecentSummaries(PageRequest.of(0, RECENT_REPORTS))
+                .stream()
+                .map(row -> new ReportSummary((Long) row[0], (String) row[1], (String) row[2], (Integer) row[3]))
+                .toList();
+
+            return new DashboardResponse(Instant.ofEpochMilli(startedAt), caseRepository.count(),
+                (Long) recent[0], (Double) recent[1], RECENT_DAYS, teamRepository.count(),
+                engineerRepository.count(), engineerRepository.countByTeamIsNull(), largestTeams,
+                userRepository.count(), refreshTokenRepository.countUsersWithActiveTokens(Instant.now()),
+                recentReports);
+        });
+
+        long computedAt = System.currentTimeMillis();
+        logger.debug("Dashboard computed in {} ms", computedAt - startedAt);
+        return new Snapshot(response, startedAt, computedAt);
+    }
+
+    /**
+     * An aggregate and when it was computed.
+     */
+    public static final class Snapshot {
+        private final DashboardResponse response;
+        final long startedAt;
+        final long computedAt;
+
+        Snapshot(DashboardResponse response, long startedAt, long computedAt) {
+            this.response = response;
+            this.startedAt = startedAt;
+            this.computedAt = computedAt;
+        }
+
+        public DashboardResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * Milliseconds since the aggregate was computed.
+         */
+        public long getAgeMs() {
+            return Math.max(0, System.currentTimeMillis() - computedAt);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.bezkoder.springjwt.services;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bezkoder.springjwt.models.Engineer;
+import com.bezkoder.springjwt.payload.response.EngineerSuggestion;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Entity listener keeping the name index of {@link EngineerSearchService} current.
+ * Every change bumps the "engineers" change version in its transaction, for the
+ * other nodes, and is applied to the local index once committed.
+ *
+ * The search service is looked up when needed: it depends on the JPA repositories,
+ * which are not available yet when Hibernate creates its listeners.
+ */
+public class EngineerIndexListener {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectProvider<EngineerSearchService> engineerSearchService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Engineer engineer) {
+        EngineerSuggestion saved = new EngineerSuggestion(engineer.getId(), engineer.getFullName(),
+                engineer.getManager(), engineer.getEmail(),
+                engineer.getTeam() != null ? engineer.getTeam().getId() : null);
+        ChangeVersionService.bump(jdbcTemplate, EngineerSearchService.VERSION_NAME);
+        AfterCommit.run(() -> engineerSearchService.getObject().engineerSaved(saved));
+    }
+
+    @PostRemove
+    public void onRemove(Engineer engineer) {
+        Long id = engineer.getId();
+        ChangeVersionService.bump(jdbcTemplate, EngineerSearchService.VERSION_NAME);
+        AfterCommit.run(() -> engineerSearchService.getObject().engineerRemoved(id));
+    }
+}
@@ -0,0 +1,203 @@
+package com.bezkoder.springjwt.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.bezkoder.springjwt.models.Engineer;
+
+/**
+ * Resolves engineer names of one import to the engineers they most likely mean.
+ *
+ * Names are keyed by their normalized words in sorted order, so "Smith, John",
+ * "john  smith" and "John Smith" share the key "john smith" and are found with one
+ * hash lookup. Other names are looked up through an index of the key trigrams: only
+ * engineers sharing enough trigrams with the name are compared by Jaro-Winkler
+ * similarity, and the most similar one at or above the threshold is the match.
+ *
+ * Not thread safe; built for one import and discarded afterwards.
+ */
+final class EngineerNameMatcher {
+
+    enum Reason {
+        // Same name
+        EXACT,
+        // Same words, differing in case, spacing, accents, punctuation or order
+        SAME_WORDS,
+        // Similar words
+        SIMILAR
+    }
+
+    // Share of trigrams (Dice coefficient) a candidate needs to be compared at all
+    private static final double MIN_TRIGRAM_OVERLAP = 0.5;
+
+    private final double threshold;
+    private final Map<String, Engineer> byName = new HashMap<>();
+    private final Map<String, Engineer> byKey = new HashMap<>();
+    private final List<String> keys = new ArrayList<>();
+    private final List<Engineer> engineers = new ArrayList<>();
+    private final List<Integer> trigramCounts = new ArrayList<>();
+    private final Map<String, List<Integer>> byTrigram = new HashMap<>();
+
+    EngineerNameMatcher(Collection<Engineer> existing, double threshold) {
+        this.threshold = threshold;
+        for (Engineer engineer : existing) {
+            add(engineer);
+        }
+    }
+
+    /**
+     * Make an engineer created during the import a match for the rows that follow.
+     */
+    void add(Engineer engineer) {
+        if (engineer.getFullName() == null) {
+            return;
+        }
+        byName.putIfAbsent(engineer.getFullName(), engineer);
+        String key = key(engineer.getFullName());
+        if (key.isEmpty() || byKey.putIfAbsent(key, engineer) != null) {
+            // Keeps the first engineer (the lowest id) of a key
+            return;
+        }
+        int slot = keys.size();
+        keys.add(key);
+        engineers.add(engineer);
+        Set<String> trigrams = trigrams(key);
+        trigramCounts.add(trigrams.size());
+        for (String trigram : trigrams) {
+            byTrigram.computeIfAbsent(trigram, t -> new ArrayList<>()).add(slot);
+        }
+    }
+
+    /**
+     * The engineer a name refers to, or null when no known engineer is close enough.
+     */
+    Match match(String name) {
+        Engineer exact = byName.get(name);
+        if (exact != null) {
+            return new Match(exact, 1.0, Reason.EXACT);
+        }
+        String key = key(name);
+        if (key.isEmpty()) {
+            return null;
+        }
+        Engineer same = byKey.get(key);
+        if (same != null) {
+            return new Match(same, 1.0, Reason.SAME_WORDS);
+        }
+        if (threshold >= 1.0) {
+            return null;
+        }
+
+        Set<String> trigrams = trigrams(key);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String trigram : trigrams) {
+            for (Integer slot : byTrigram.getOrDefault(trigram, List.of())) {
+                shared.merge(slot, 1, Integer::sum);
+            }
+        }
+
+        int best = -1;
+        double bestSimilarity = 0;
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            int slot = candidate.getKey();
+            double overlap = 2.0 * candidate.getValue() / (trigrams.size() + trigramCounts.get(slot));
+            if (overlap < MIN_TRIGRAM_OVERLAP) {
+                continue;
+            }
+            double similarity = jaroWinkler(key, keys.get(slot));
+            if (similarity > bestSimilarity || (similarity == bestSimilarity && best >= 0 && slot < best)) {
+                best = slot;
+                bestSimilarity = similarity;
+            }
+        }
+        return best >= 0 && bestSimilarity >= threshold
+            ? new Match(engineers.get(best), bestSimilarity, Reason.SIMILAR)
+            : null;
+    }
+
+    /**
+     * The normalized words of a name in sorted order.
+     */
+    static String key(String name) {
+        String normalized = EngineerSearchService.normalize(name);
+        if (normalized.isEmpty()) {
+            return normalized;
+        }
+        String[] words = normalized.split(" ");
+        Arrays.sort(words);
+        return String.join(" ", words);
+    }
+
+    private static Set<String> trigrams(String key) {
+        String padded = " " + key + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] aMatched = new boolean[a.length()];
+        boolean[] bMatched = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!bMatched[j] && a.charAt(i) == b.charAt(j)) {
+                    aMatched[i] = true;
+                    bMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (aMatched[i]) {
+                while (!bMatched[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double jaro = ((double) matches / a.length() + (double) matches / b.length()
+            + (matches - transpositions / 2.0) / matches) / 3.0;
+
+        int prefix = 0;
+        while (prefix < 4 && prefix < a.length() && prefix < b.length() && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1.0 - jaro);
+    }
+
+    static final class Match {
+        final Engineer engineer;
+        final double similarity;
+        final Reason reason;
+
+        Match(Engineer engineer, double similarity, Reason reason) {
+            this.engineer = engineer;
+            this.similarity = similarity;
+            this.reason = reason;
+        }
+    }
+}
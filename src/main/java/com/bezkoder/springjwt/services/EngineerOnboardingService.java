@@ -0,0 +1,226 @@
+package com.bezkoder.springjwt.services;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bezkoder.springjwt.payload.request.EngineerUpsertRequest;
+import com.bezkoder.springjwt.payload.response.BulkEngineerResponse;
+import com.bezkoder.springjwt.repository.EngineerRepository;
+import com.bezkoder.springjwt.repository.TeamRepository;
+
+/**
+ * Bulk creation and update of engineers, for onboarding a whole region at once.
+ *
+ * A batch costs a constant number of statements whatever its size: teams are
+ * resolved by name with one query, existing engineers matched with one query on
+ * their email or, without one, on their name words (as the case import does, see
+ * {@link EngineerNameMatcher#key}), and rows written with JDBC batches.
+ *
+ * JDBC writes bypass the entity listeners, so the "engineers" and "team-tree"
+ * change versions are bumped here once per batch; the engineer search index and the
+ * team hierarchy reload on their next check.
+ */
+@Service
+public class EngineerOnboardingService {
+    private static final Logger logger = LoggerFactory.getLogger(EngineerOnboardingService.class);
+
+    static final int BATCH_SIZE = 500;
+
+    static final String TEAM_NOT_FOUND = "Error: Team is not found: ";
+    static final String DUPLICATE = "Error: Same engineer as item ";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO engineers (full_name, phone_number, email, gender, manager, team_id) VALUES (?, ?, ?, ?, ?, ?)";
+    // Omitted optional fields keep their value
+    private static final String UPDATE_SQL =
+        "UPDATE engineers SET full_name = ?, phone_number = COALESCE(?, phone_number), email = COALESCE(?, email), "
+            + "gender = COALESCE(?, gender), manager = ?, team_id = COALESCE(?, team_id) WHERE id = ?";
+
+    @Autowired
+    private EngineerRepository engineerRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create or update the engineers of a batch. Engineers of an unknown team, or
+     * matching the same engineer as an earlier item of the batch, are rejected.
+     *
+     * @return the outcome of every engineer, in request order
+     */
+    @Transactional
+    public BulkEngineerResponse upsertAll(List<EngineerUpsertRequest> requests) {
+        long started = System.nanoTime();
+        int size = requests.size();
+        String[] errors = new String[size];
+        String[] statuses = new String[size];
+        Long[] ids = new Long[size];
+        Long[] teamIds = new Long[size];
+
+        // Teams, one query
+        List<String> teamNames = requests.stream()
+            .map(EngineerUpsertRequest::getTeamName)
+            .filter(name -> name != null && !name.isBlank())
+            .map(EngineerOnboardingService::normalize)
+            .distinct()
+            .toList();
+        Map<String, Long> teams = new HashMap<>();
+        if (!teamNames.isEmpty()) {
+            for (Object[] row : teamRepository.findIdsByNames(teamNames)) {
+                teams.putIfAbsent(normalize((String) row[1]), (Long) row[0]);
+            }
+        }
+
+        // Existing engineers by email and by name, one query
+        Map<String, Long> byEmail = new HashMap<>();
+        Map<String, Long> byName = new HashMap<>();
+        Map<Long, String> emails = new HashMap<>();
+        for (Object[] row : engineerRepository.findSearchFields()) {
+            Long id = (Long) row[0];
+            String email = (String) row[3];
+            byName.merge(EngineerNameMatcher.key((String) row[1]), id, Math::min);
+            if (email != null && !email.isBlank()) {
+                byEmail.merge(normalize(email), id, Math::min);
+                emails.put(id, email);
+            }
+        }
+
+        List<Integer> updates = new ArrayList<>();
+        List<Integer> inserts = new ArrayList<>();
+        Map<String, Integer> seen = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            EngineerUpsertRequest request = requests.get(i);
+            String teamName = request.getTeamName();
+            if (teamName != null && !teamName.isBlank()) {
+                teamIds[i] = teams.get(normalize(teamName));
+                if (teamIds[i] == null) {
+                    errors[i] = TEAM_NOT_FOUND + teamName;
+                    statuses[i] = BulkEngineerResponse.REJECTED;
+                    continue;
+                }
+            }
+
+            String email = request.getEmail() != null && !request.getEmail().isBlank()
+                ? normalize(request.getEmail()) : null;
+            String name = EngineerNameMatcher.key(request.getFullName());
+            Long id = email != null ? byEmail.get(email) : null;
+            if (id == null) {
+                // A name match is the same engineer unless both have different emails
+                Long named = byName.get(name);
+                if (named != null && (email == null || !emails.containsKey(named))) {
+                    id = named;
+                }
+            }
+
+            String key = id != null ? "#" + id : email != null ? "@" + email : name;
+            Integer first = seen.putIfAbsent(key, i);
+            if (first != null) {
+                errors[i] = DUPLICATE + first;
+                statuses[i] = BulkEngineerResponse.REJECTED;
+            } else if (id != null) {
+                ids[i] = id;
+                statuses[i] = BulkEngineerResponse.UPDATED;
+                updates.add(i);
+            } else {
+                statuses[i] = BulkEngineerResponse.CREATED;
+                inserts.add(i);
+            }
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates, BATCH_SIZE, (ps, i) -> {
+            EngineerUpsertRequest request = requests.get(i);
+            ps.setString(1, request.getFullName());
+            ps.setString(2, request.getPhoneNumber());
+            ps.setString(3, request.getEmail());
+            ps.setString(4, request.getGender());
+            ps.setString(5, request.getManager());
+            setTeamId(ps, 6, teamIds[i]);
+            ps.setLong(7, ids[i]);
+        });
+        insert(requests, inserts, teamIds, ids);
+
+        if (!updates.isEmpty() || !inserts.isEmpty()) {
+            changeVersionService.bump(EngineerSearchService.VERSION_NAME);
+            changeVersionService.bump(TeamTreeService.VERSION_NAME);
+        }
+
+        List<BulkEngineerResponse.Item> results = IntStream.range(0, size)
+            .mapToObj(i -> new BulkEngineerResponse.Item(i, requests.get(i).getFullName(), ids[i], statuses[i],
+                errors[i]))
+            .toList();
+
+        int rejected = size - updates.size() - inserts.size();
+        logger.info("Bulk engineer upsert: {} created, {} updated, {} rejected in {} ms", inserts.size(),
+            updates.size(), rejected, (System.nanoTime() - started) / 1_000_000);
+        return new BulkEngineerResponse(inserts.size(), updates.size(), rejected, results);
+    }
+
+    // JdbcTemplate batches do not return generated keys, so batch on the connection
+    private void insert(List<EngineerUpsertRequest> requests, List<Integer> inserts, Long[] teamIds, Long[] ids) {
+        if (inserts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < inserts.size(); from += BATCH_SIZE) {
+                    List<Integer> batch = inserts.subList(from, Math.min(from + BATCH_SIZE, inserts.size()));
+                    for (Integer i : batch) {
+                        EngineerUpsertRequest request = requests.get(i);
+                        ps.setString(1, request.getFullName());
+                        ps.setString(2, request.getPhoneNumber());
+                        ps.setString(3, request.getEmail());
+                        ps.setString(4, request.getGender());
+                        ps.setString(5, request.getManager());
+                        setTeamId(ps, 6, teamIds[i]);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (Integer i : batch) {
+                            if (keys.next()) {
+                                ids[i] = keys.getLong(1);
+                            }
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void setTeamId(PreparedStatement ps, int index, Long teamId) throws SQLException {
+        if (teamId != null) {
+            ps.setLong(index, teamId);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    // Team names and emails compare case-insensitively in MySQL, match them the same way everywhere
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
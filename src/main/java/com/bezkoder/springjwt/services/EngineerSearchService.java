@@ -0,0 +1,362 @@
+package com.bezkoder.springjwt.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bezkoder.springjwt.payload.response.EngineerSuggestion;
+import com.bezkoder.springjwt.repository.EngineerRepository;
+
+/**
+ * Prefix search over engineer names and managers, served from memory.
+ *
+ * The index is a sorted array of normalized keys (the full name, the manager and each
+ * of their words) with the engineer of each key alongside, searched by binary search
+ * for the first key starting with the query. Normalization lowercases, strips accents
+ * and turns punctuation into spaces, so "Zoë O'Neil" is found as "zoe o neil".
+ *
+ * Engineer changes are applied to the index by {@link EngineerIndexListener} once
+ * committed, by merging the changed keys into a copy of the arrays rather than
+ * reloading. Each change also bumps the "engineers" change version; when the polled
+ * version moved by more than the changes applied here, another node (or a bulk
+ * write) changed engineers and the index is reloaded.
+ */
+@Service
+public class EngineerSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(EngineerSearchService.class);
+
+    public static final String VERSION_NAME = "engineers";
+
+    static final int MAX_RESULTS = 50;
+
+    // Keys examined per search at most, so that one-letter queries stay cheap
+    static final int MAX_CANDIDATES = 2000;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Autowired
+    private EngineerRepository engineerRepository;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicReference<Index> index = new AtomicReference<>();
+
+    /**
+     * Engineers whose name or manager starts with the query, or has words starting
+     * with each word of the query. Name matches come first, then matches on the
+     * manager, each in name order.
+     */
+    public List<EngineerSuggestion> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        String[] words = normalized.split(" ");
+        Index current = index();
+
+        Set<Long> seen = new HashSet<>();
+        List<Match> matches = new ArrayList<>();
+        int budget = MAX_CANDIDATES;
+        // Keys starting with the whole query, then keys starting with its first word
+        budget = collect(current, normalized, normalized, words, seen, matches, budget);
+        if (words.length > 1) {
+            collect(current, words[0], normalized, words, seen, matches, budget);
+        }
+
+        matches.sort(Comparator.comparingInt((Match m) -> m.rank)
+            .thenComparing(m -> m.entry.name)
+            .thenComparingLong(m -> m.entry.id));
+        return matches.stream()
+            .limit(Math.min(Math.max(limit, 1), MAX_RESULTS))
+            .map(m -> m.entry.suggestion)
+            .toList();
+    }
+
+    private static int collect(Index current, String prefix, String query, String[] words, Set<Long> seen,
+                               List<Match> matches, int budget) {
+        int at = Arrays.binarySearch(current.keys, prefix);
+        for (int i = at >= 0 ? at : -at - 1; i < current.keys.length && budget > 0; i++, budget--) {
+            if (!current.keys[i].startsWith(prefix)) {
+                break;
+            }
+            if (seen.add(current.ids[i])) {
+                Entry entry = current.entries.get(current.ids[i]);
+                int rank = entry.rank(query, words);
+                if (rank >= 0) {
+                    matches.add(new Match(entry, rank));
+                }
+            }
+        }
+        return budget;
+    }
+
+    /**
+     * Apply a committed create or update of an engineer.
+     */
+    public void engineerSaved(EngineerSuggestion engineer) {
+        Entry entry = new Entry(engineer);
+        index.updateAndGet(current -> current == null ? null : current.with(entry.id, entry));
+    }
+
+    /**
+     * Apply a committed removal of an engineer.
+     */
+    public void engineerRemoved(Long id) {
+        index.updateAndGet(current -> current == null ? null : current.with(id, null));
+    }
+
+    @Scheduled(fixedDelayString = "${bezkoder.app.engineerIndexPollMs:5000}")
+    public void pollVersion() {
+        try {
+            Index current = index.get();
+            if (current == null) {
+                return;
+            }
+            long version = changeVersionService.currentVersion(VERSION_NAME);
+            if (version == current.version + current.localChanges) {
+                // Every change since the last load was applied here
+                if (current.localChanges > 0) {
+                    index.compareAndSet(current, current.at(version));
+                }
+            } else {
+                reload();
+            }
+        } catch (Exception e) {
+            logger.error("Could not poll the engineers version: {}", e.getMessage());
+        }
+    }
+
+    int size() {
+        return index().entries.size();
+    }
+
+    private Index index() {
+        Index current = index.get();
+        return current != null ? current : reload();
+    }
+
+    /**
+     * Load the index. The version is read before the rows, so a change committed in
+     * between is picked up again by the next poll.
+     */
+    Index reload() {
+        long started = System.nanoTime();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+
+        Index loaded = transactionTemplate.execute(status -> {
+            long version = changeVersionService.currentVersion(VERSION_NAME);
+            Map<Long, Entry> entries = new HashMap<>();
+            for (Object[] row : engineerRepository.findSearchFields()) {
+                Entry entry = new Entry(new EngineerSuggestion((Long) row[0], (String) row[1], (String) row[2],
+                    (String) row[3], (Long) row[4]));
+                entries.put(entry.id, entry);
+            }
+            return Index.build(version, entries);
+        });
+
+        Index published = index.accumulateAndGet(loaded,
+            (current, next) -> current == null || next.version >= current.version ? next : current);
+        logger.debug("Engineer index at version {} ({} engineers, {} keys) in {} ms", published.version,
+            published.entries.size(), published.keys.length, (System.nanoTime() - started) / 1_000_000);
+        return published;
+    }
+
+    /**
+     * Lowercase, without accents, words separated by single spaces.
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static final class Entry {
+        final long id;
+        final EngineerSuggestion suggestion;
+        final String name;
+        final String manager;
+        final String[] nameWords;
+        final String[] managerWords;
+
+        Entry(EngineerSuggestion suggestion) {
+            this.id = suggestion.getId();
+            this.suggestion = suggestion;
+            this.name = normalize(suggestion.getFullName());
+            this.manager = normalize(suggestion.getManager());
+            this.nameWords = name.isEmpty() ? new String[0] : name.split(" ");
+            this.managerWords = manager.isEmpty() ? new String[0] : manager.split(" ");
+        }
+
+        Set<String> keys() {
+            Set<String> keys = new LinkedHashSet<>();
+            keys.add(name);
+            keys.add(manager);
+            keys.addAll(Arrays.asList(nameWords));
+            keys.addAll(Arrays.asList(managerWords));
+            keys.remove("");
+            return keys;
+        }
+
+        // 0: the name starts with the query, 1: its words start with the query words,
+        // 2: the same on the manager, -1: no match
+        int rank(String query, String[] words) {
+            if (name.startsWith(query)) {
+                return 0;
+            }
+            if (allPrefixed(words, nameWords)) {
+                return 1;
+            }
+            if (manager.startsWith(query) || allPrefixed(words, managerWords)) {
+                return 2;
+            }
+            return -1;
+        }
+
+        private static boolean allPrefixed(String[] words, String[] candidates) {
+            for (String word : words) {
+                boolean found = false;
+                for (String candidate : candidates) {
+                    if (candidate.startsWith(word)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Match {
+        final Entry entry;
+        final int rank;
+
+        Match(Entry entry, int rank) {
+            this.entry = entry;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * Immutable index: keys sorted, with the engineer of each key at the same position.
+     */
+    static final class Index {
+        // Change version the index was loaded at
+        final long version;
+        // Changes applied since, each of which also bumped the version
+        final int localChanges;
+        final Map<Long, Entry> entries;
+        final String[] keys;
+        final long[] ids;
+
+        private Index(long version, int localChanges, Map<Long, Entry> entries, String[] keys, long[] ids) {
+            this.version = version;
+            this.localChanges = localChanges;
+            this.entries = entries;
+            this.keys = keys;
+            this.ids = ids;
+        }
+
+        static Index build(long version, Map<Long, Entry> entries) {
+            List<Posting> postings = new ArrayList<>();
+            for (Entry entry : entries.values()) {
+                for (String key : entry.keys()) {
+                    postings.add(new Posting(key, entry.id));
+                }
+            }
+            postings.sort(null);
+            return of(version, 0, entries, postings);
+        }
+
+        // A copy with the engineer replaced (or removed when entry is null), merging its
+        // keys in instead of sorting again
+        Index with(long id, Entry entry) {
+            Map<Long, Entry> changedEntries = new HashMap<>(entries);
+            List<Posting> added = new ArrayList<>();
+            if (entry != null) {
+                changedEntries.put(id, entry);
+                for (String key : entry.keys()) {
+                    added.add(new Posting(key, id));
+                }
+                added.sort(null);
+            } else {
+                changedEntries.remove(id);
+            }
+
+            List<Posting> merged = new ArrayList<>(keys.length + added.size());
+            int next = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (ids[i] == id) {
+                    continue;
+                }
+                Posting existing = new Posting(keys[i], ids[i]);
+                while (next < added.size() && added.get(next).compareTo(existing) < 0) {
+                    merged.add(added.get(next++));
+                }
+                merged.add(existing);
+            }
+            merged.addAll(added.subList(next, added.size()));
+            return of(version, localChanges + 1, changedEntries, merged);
+        }
+
+        Index at(long syncedVersion) {
+            return new Index(syncedVersion, 0, entries, keys, ids);
+        }
+
+        private static Index of(long version, int localChanges, Map<Long, Entry> entries, List<Posting> postings) {
+            String[] keys = new String[postings.size()];
+            long[] ids = new long[postings.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = postings.get(i).key;
+                ids[i] = postings.get(i).id;
+            }
+            return new Index(version, localChanges, entries, keys, ids);
+        }
+    }
+
+    private static final class Posting implements Comparable<Posting> {
+        final String key;
+        final long id;
+
+        Posting(String key, long id) {
+            this.key = key;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Posting other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Long.compare(id, other.id);
+        }
+    }
+}
@@ -19,12 +19,14 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.bezkoder.springjwt.exception.InvalidDataException;
 import com.bezkoder.springjwt.models.Case;
 import com.bezkoder.springjwt.models.Engineer;
+import com.bezkoder.springjwt.payload.response.EngineerMergeDecision;
 import com.bezkoder.springjwt.repository.CaseRepository;
 import com.bezkoder.springjwt.repository.EngineerRepository;
 
@@ -53,6 +55,10 @@ import com.bezkoder.springjwt.repository.EngineerRepository;
  * - Survey Source must be either "Case" or "Chat"
  * - CES Rating must be between 1 and 5
  * - Manager field will be set to "Default Manager" if not provided in the Excel
+ *
+ * Engineer names are matched to existing engineers by {@link EngineerNameMatcher},
+ * so that "Smith, John" or a misspelling does not create a second engineer. Names
+ * attributed to an engineer of a different name are listed in "engineerMerges".
  */
 @Service
 public class ExcelImportService {
@@ -64,6 +70,9 @@ public class ExcelImportService {
     @Autowired
     private CaseRepository caseRepository;
 
+    @Value("${bezkoder.app.engineerMatchThreshold:0.95}")
+    private double engineerMatchThreshold = 0.95;
+
     public static final String TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
 
     public boolean isExcelFormat(MultipartFile file) {
@@ -74,6 +83,7 @@ public class ExcelImportService {
         Map<String, Object> result = new HashMap<>();
         List<Case> importedCases = new ArrayList<>();
         List<String> errors = new ArrayList<>();
+        List<EngineerMergeDecision> engineerMerges = new ArrayList<>();
 
         try (InputStream is = file.getInputStream();
              Workbook workbook = new XSSFWorkbook(is)) {
@@ -81,6 +91,10 @@ public class ExcelImportService {
             // Get the first sheet only
             Sheet sheet = workbook.getSheetAt(0);
 
+            // Every engineer once, rather than a query per row
+            EngineerNameMatcher engineerMatcher =
+                new EngineerNameMatcher(engineerRepository.findAllByOrderByIdAsc(), engineerMatchThreshold);
+
             // Skip header row
             boolean isFirstRow = true;
             int rowCount = 0;
@@ -92,7 +106,7 @@ public class ExcelImportService {
                 }
 
                 try {
-                    Case importedCase = processRow(row);
+                    Case importedCase = processRow(row, engineerMatcher, engineerMerges);
                     if (importedCase != null) {
                         importedCases.add(importedCase);
                         rowCount++;
@@ -106,6 +120,7 @@ public class ExcelImportService {
             result.put("totalRows", rowCount);
             result.put("importedCases", importedCases);
             result.put("errors", errors);
+            result.put("engineerMerges", engineerMerges);
 
             return result;
 
@@ -115,7 +130,7 @@ public class ExcelImportService {
         }
     }
 
-    private Case processRow(Row row) {
+    private Case processRow(Row row, EngineerNameMatcher engineerMatcher, List<EngineerMergeDecision> engineerMerges) {
         // Extract data from the row based on the new Excel structure
         String engineerFullName = getCellValueAsString(row.getCell(0));
         String timeHierarchy = getCellValueAsString(row.getCell(1));
@@ -157,13 +172,19 @@ public class ExcelImportService {
         }
 
         // Find or create engineer
-        Engineer engineer = engineerRepository.findByFullName(engineerFullName);
+        EngineerNameMatcher.Match match = engineerMatcher.match(engineerFullName);
+        Engineer engineer = match != null ? match.engineer : null;
         boolean needsSave = false;
 
         if (engineer == null) {
             engineer = new Engineer();
             engineer.setFullName(engineerFullName);
             needsSave = true;
+        } else if (match.reason != EngineerNameMatcher.Reason.EXACT) {
+            engineerMerges.add(new EngineerMergeDecision(row.getRowNum() + 1, engineerFullName, engineer.getId(),
+                engineer.getFullName(), match.similarity, match.reason.name()));
+            logger.info("Row {}: engineer '{}' merged into '{}' (id {}, {}, similarity {})", row.getRowNum() + 1,
+                engineerFullName, engineer.getFullName(), engineer.getId(), match.reason, match.similarity);
         }
 
         // Check if we need to update the manager
@@ -175,7 +196,11 @@ public class ExcelImportService {
 
         // Only save if we created a new engineer or updated the manager
         if (needsSave) {
+            boolean created = engineer.getId() == null;
             engineer = engineerRepository.save(engineer);
+            if (created) {
+                engineerMatcher.add(engineer);
+            }
             logger.info("Saved engineer: {} with manager: {}", engineerFullName, engineer.getManager());
         }
 
@@ -0,0 +1,281 @@
+package com.bezkoder.springjwt.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bezkoder.springjwt.exception.InvalidDataException;
+import com.bezkoder.springjwt.exception.ResourceNotFoundException;
+import com.bezkoder.springjwt.models.EPayoutFormat;
+import com.bezkoder.springjwt.repository.BonusRepository;
+import com.bezkoder.springjwt.repository.PayoutLine;
+
+/**
+ * Writes the payout file of a bonus period to local storage.
+ *
+ * Bonus rows are streamed from the database and encoded straight into a direct
+ * buffer flushed to a {@link FileChannel}, so memory use does not depend on the
+ * number of engineers. The file is written under a temporary name and moved in
+ * place once complete, next to a {@code .sha256} manifest in sha256sum format.
+ *
+ * FIXED lines are 158 ASCII characters:
+ *   engineer id (10, zero padded) | name (40) | email (50) | team (30) |
+ *   amount in cents (12, zero padded) | start period (8, yyyyMMdd) | end period (8, yyyyMMdd)
+ */
+@Service
+public class PayoutFileService {
+    private static final Logger logger = LoggerFactory.getLogger(PayoutFileService.class);
+
+    static final String MANIFEST_SUFFIX = ".sha256";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Pattern FILE_NAME = Pattern.compile("payout-[0-9A-Za-z_.-]+\\.(csv|txt)(\\.sha256)?");
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS");
+
+    private static final DateTimeFormatter FIXED_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String CSV_HEADER = "bonus_id,engineer_id,engineer_name,engineer_email,team,amount,start_period,end_period\n";
+
+    @Autowired
+    private BonusRepository bonusRepository;
+
+    @Value("${bezkoder.app.payoutDir:payouts}")
+    private String payoutDir = "payouts";
+
+    /**
+     * Generate the payout file of a period.
+     *
+     * @return file name, manifest name, row count, total amount, size and checksum
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> generatePayoutFile(LocalDate startPeriod, LocalDate endPeriod, EPayoutFormat format) {
+        if (startPeriod.isAfter(endPeriod)) {
+            throw new InvalidDataException("startPeriod must not be after endPeriod");
+        }
+
+        long started = System.nanoTime();
+        String fileName = "payout-" + startPeriod + "_" + endPeriod + "-" + LocalDateTime.now().format(TIMESTAMP)
+                + (format == EPayoutFormat.CSV ? ".csv" : ".txt");
+
+        try {
+            Path directory = storageDirectory();
+            Path target = directory.resolve(fileName);
+            Path partial = directory.resolve(fileName + ".part");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long rows = 0;
+            long bytes;
+            BigDecimal totalAmount = BigDecimal.ZERO;
+
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                 Stream<PayoutLine> lines = bonusRepository.streamPayoutLines(startPeriod, endPeriod)) {
+                ChannelWriter writer = new ChannelWriter(channel, digest);
+                if (format == EPayoutFormat.CSV) {
+                    writer.write(CSV_HEADER);
+                }
+
+                Iterator<PayoutLine> iterator = lines.iterator();
+                while (iterator.hasNext()) {
+                    PayoutLine line = iterator.next();
+                    writer.write(format == EPayoutFormat.CSV ? csvLine(line) : fixedLine(line));
+                    totalAmount = totalAmount.add(amount(line));
+                    rows++;
+                }
+
+                writer.flush();
+                channel.force(true);
+                bytes = channel.size();
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(partial);
+                throw e;
+            }
+
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+
+            String checksum = HexFormat.of().formatHex(digest.digest());
+            String manifestName = fileName + MANIFEST_SUFFIX;
+            Files.writeString(directory.resolve(manifestName), checksum + "  " + fileName + "\n", StandardCharsets.US_ASCII);
+
+            logger.info("Wrote payout file {} ({} rows, {} bytes) in {} ms", fileName, rows, bytes,
+                    (System.nanoTime() - started) / 1_000_000);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("fileName", fileName);
+            result.put("manifest", manifestName);
+            result.put("format", format);
+            result.put("startPeriod", startPeriod);
+            result.put("endPeriod", endPeriod);
+            result.put("rows", rows);
+            result.put("totalAmount", totalAmount);
+            result.put("bytes", bytes);
+            result.put("sha256", checksum);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write payout file " + fileName, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Payout files currently stored, newest first.
+     */
+    public List<Map<String, Object>> listPayoutFiles() {
+        try (Stream<Path> files = Files.list(storageDirectory())) {
+            List<Map<String, Object>> result = new ArrayList<>();
+            files.filter(path -> FILE_NAME.matcher(path.getFileName().toString()).matches())
+                    .filter(path -> !path.getFileName().toString().endsWith(MANIFEST_SUFFIX))
+                    .sorted((a, b) -> b.getFileName().toString().compareTo(a.getFileName().toString()))
+                    .forEach(path -> {
+                        Map<String, Object> file = new LinkedHashMap<>();
+                        file.put("fileName", path.getFileName().toString());
+                        file.put("bytes", path.toFile().length());
+                        file.put("lastModified", path.toFile().lastModified());
+                        result.add(file);
+                    });
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list payout files", e);
+        }
+    }
+
+    /**
+     * Resolve a payout file or manifest by name, refusing anything outside the
+     * storage directory.
+     */
+    public Path resolvePayoutFile(String fileName) {
+        if (fileName == null || !FILE_NAME.matcher(fileName).matches()) {
+            throw new ResourceNotFoundException("PayoutFile", "name", fileName);
+        }
+        try {
+            Path directory = storageDirectory();
+            Path file = directory.resolve(fileName).normalize();
+            if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+                throw new ResourceNotFoundException("PayoutFile", "name", fileName);
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read payout storage", e);
+        }
+    }
+
+    static String csvLine(PayoutLine line) {
+        return line.getBonusId() + "," + line.getEngineerId() + "," + csv(line.getEngineerName()) + ","
+                + csv(line.getEngineerEmail()) + "," + csv(line.getTeamName()) + ","
+                + amount(line).toPlainString() + "," + line.getStartPeriod() + "," + line.getEndPeriod() + "\n";
+    }
+
+    // Amounts are paid in cents, rounded like the bonus calculation; the total adds the rounded amounts
+    private static BigDecimal amount(PayoutLine line) {
+        return line.getAmount().setScale(2, RoundingMode.HALF_UP);
+    }
+
+    static String fixedLine(PayoutLine line) {
+        long cents = amount(line).movePointRight(2).longValueExact();
+        return String.format("%010d", line.getEngineerId())
+                + pad(line.getEngineerName(), 40)
+                + pad(line.getEngineerEmail(), 50)
+                + pad(line.getTeamName(), 30)
+                + String.format("%012d", cents)
+                + line.getStartPeriod().format(FIXED_DATE)
+                + line.getEndPeriod().format(FIXED_DATE)
+                + "\n";
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    // Fixed-width fields are ASCII only so that characters and bytes line up
+    private static String pad(String value, int width) {
+        String ascii = value == null ? "" : Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("[^\\x20-\\x7E]", "");
+        if (ascii.length() >= width) {
+            return ascii.substring(0, width);
+        }
+        return ascii + " ".repeat(width - ascii.length());
+    }
+
+    private Path storageDirectory() throws IOException {
+        Path directory = Paths.get(payoutDir).toAbsolutePath().normalize();
+        Files.createDirectories(directory);
+        return directory;
+    }
+
+    /**
+     * Buffers encoded lines in a direct buffer and hashes every byte written.
+     */
+    private static final class ChannelWriter {
+        private final FileChannel channel;
+        private final MessageDigest digest;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        ChannelWriter(FileChannel channel, MessageDigest digest) {
+            this.channel = channel;
+            this.digest = digest;
+        }
+
+        void write(String text) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            digest.update(bytes);
+            if (bytes.length > buffer.remaining()) {
+                flush();
+            }
+            if (bytes.length > buffer.capacity()) {
+                drain(ByteBuffer.wrap(bytes));
+            } else {
+                buffer.put(bytes);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            drain(buffer);
+            buffer.clear();
+        }
+
+        private void drain(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+    }
+}
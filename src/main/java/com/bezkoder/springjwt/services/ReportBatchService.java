@@ -0,0 +1,269 @@
+package com.bezkoder.springjwt.services;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bezkoder.springjwt.exception.OperationNotAllowedException;
+import com.bezkoder.springjwt.exception.ResourceNotFoundException;
+import com.bezkoder.springjwt.models.BatchCheckpoint;
+import com.bezkoder.springjwt.models.BatchRun;
+import com.bezkoder.springjwt.models.EBatchStatus;
+import com.bezkoder.springjwt.models.Engineer;
+import com.bezkoder.springjwt.repository.BatchCheckpointRepository;
+import com.bezkoder.springjwt.repository.BatchRunRepository;
+import com.bezkoder.springjwt.repository.EngineerRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates reports for every engineer, or every engineer of a team, over a period.
+ *
+ * Each engineer is processed in its own transaction on a bounded worker pool, and
+ * the report is committed together with a checkpoint row. A run that was
+ * interrupted (node crash, failed engineers) can be resumed and only processes
+ * the engineers that have no checkpoint yet.
+ */
+@Service
+public class ReportBatchService {
+    private static final Logger logger = LoggerFactory.getLogger(ReportBatchService.class);
+
+    public static final String JOB_NAME = "engineer-reports";
+
+    @Autowired
+    private EngineerRepository engineerRepository;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private BatchRunRepository batchRunRepository;
+
+    @Autowired
+    private BatchCheckpointRepository batchCheckpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Timer reportBatchTimer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bezkoder.app.reportBatchThreads:4}")
+    private int reportBatchThreads = 4;
+
+    // Runs currently executing on this node
+    private final Set<Long> activeRuns = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor workerExecutor;
+    private ExecutorService runExecutor;
+
+    @PostConstruct
+    public void init() {
+        int threads = Math.max(1, reportBatchThreads);
+        // Bounded queue with caller-runs: the run coordinator slows down instead of
+        // queueing thousands of engineers in memory
+        workerExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 4), namedThreads("report-batch-worker"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        runExecutor = Executors.newSingleThreadExecutor(namedThreads("report-batch-run"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runExecutor.shutdownNow();
+        workerExecutor.shutdownNow();
+    }
+
+    /**
+     * Start a new run in the background.
+     *
+     * @param teamId    restrict the run to a team, or null for every engineer
+     * @param startDate start of the case date range (inclusive)
+     * @param endDate   end of the case date range (inclusive)
+     * @return the created run
+     */
+    public BatchRun startRun(Long teamId, LocalDateTime startDate, LocalDateTime endDate) {
+        BatchRun run = batchRunRepository.save(new BatchRun(JOB_NAME, teamId, startDate, endDate));
+        submit(run);
+        return run;
+    }
+
+    /**
+     * Resume a run that failed or whose node died. Engineers that already have a
+     * checkpoint are skipped.
+     */
+    public BatchRun resumeRun(Long runId) {
+        BatchRun run = batchRunRepository.findById(runId)
+                .orElseThrow(() -> new ResourceNotFoundException("BatchRun", "id", runId));
+
+        if (!JOB_NAME.equals(run.getJobName())) {
+            throw new OperationNotAllowedException("Batch run " + runId + " is not a report run");
+        }
+        if (activeRuns.contains(runId)) {
+            throw new OperationNotAllowedException("Batch run " + runId + " is already running");
+        }
+        if (run.getStatus() == EBatchStatus.COMPLETED) {
+            throw new OperationNotAllowedException("Batch run " + runId + " is already completed");
+        }
+
+        run.setStatus(EBatchStatus.RUNNING);
+        run.setFinishedAt(null);
+        run.setLastError(null);
+        run = batchRunRepository.save(run);
+        submit(run);
+        return run;
+    }
+
+    /**
+     * Month-end run for the previous calendar month. The run key is unique, so when
+     * several nodes fire at the same time only the first insert wins.
+     */
+    @Scheduled(cron = "${bezkoder.app.reportBatchCron:0 0 2 1 * *}")
+    public void runMonthlyReports() {
+        YearMonth month = YearMonth.now().minusMonths(1);
+
+        BatchRun run = new BatchRun(JOB_NAME, null,
+                month.atDay(1).atStartOfDay(), month.atEndOfMonth().atTime(LocalTime.MAX));
+        run.setRunKey(JOB_NAME + ":" + month);
+
+        try {
+            run = batchRunRepository.saveAndFlush(run);
+        } catch (DataIntegrityViolationException e) {
+            logger.info("Report run for {} already started by another node", month);
+            return;
+        }
+
+        logger.info("Starting scheduled report run {} for {}", run.getId(), month);
+        submit(run);
+    }
+
+    public Map<String, Object> getRunStatus(Long runId) {
+        BatchRun run = batchRunRepository.findById(runId)
+                .orElseThrow(() -> new ResourceNotFoundException("BatchRun", "id", runId));
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("run", run);
+        status.put("checkpointed", batchCheckpointRepository.countByRunId(runId));
+        status.put("activeOnThisNode", activeRuns.contains(runId));
+        return status;
+    }
+
+    public List<BatchRun> getRecentRuns() {
+        return batchRunRepository.findTop20ByJobNameOrderByIdDesc(JOB_NAME);
+    }
+
+    private void submit(BatchRun run) {
+        activeRuns.add(run.getId());
+        runExecutor.submit(() -> {
+            try {
+                execute(run);
+            } finally {
+                activeRuns.remove(run.getId());
+            }
+        });
+    }
+
+    BatchRun execute(BatchRun run) {
+        Timer.Sample sample = Timer.start();
+        long started = System.nanoTime();
+
+        try {
+            List<Engineer> engineers = run.getTeamId() != null
+                    ? engineerRepository.findByTeamIdOrderByIdAsc(run.getTeamId())
+                    : engineerRepository.findAllByOrderByIdAsc();
+
+            Set<Long> checkpointed = batchCheckpointRepository.findByRunId(run.getId()).stream()
+                    .map(BatchCheckpoint::getFirstItemId)
+                    .collect(Collectors.toSet());
+
+            AtomicInteger processed = new AtomicInteger(checkpointed.size());
+            AtomicInteger failed = new AtomicInteger();
+            AtomicReference<String> lastError = new AtomicReference<>();
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (Engineer engineer : engineers) {
+                if (checkpointed.contains(engineer.getId())) {
+                    continue;
+                }
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> {
+                            reportService.generateEngineerReport(engineer, run.getStartDate(), run.getEndDate());
+                            batchCheckpointRepository.save(
+                                    new BatchCheckpoint(run.getId(), engineer.getId(), engineer.getId(), 1));
+                        });
+                        processed.incrementAndGet();
+                        meterRegistry.counter("cashback_report_batch_engineers_total", "outcome", "success").increment();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        lastError.set("Engineer " + engineer.getId() + ": " + e.getMessage());
+                        meterRegistry.counter("cashback_report_batch_engineers_total", "outcome", "failure").increment();
+                        logger.error("Report run {} failed for engineer {}: {}", run.getId(), engineer.getId(), e.getMessage());
+                    }
+                }, workerExecutor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+            run.setTotalItems(engineers.size());
+            run.setProcessedItems(processed.get());
+            run.setFailedItems(failed.get());
+            run.setLastError(truncate(lastError.get()));
+            run.setStatus(failed.get() > 0 ? EBatchStatus.FAILED : EBatchStatus.COMPLETED);
+        } catch (Exception e) {
+            logger.error("Report run {} aborted: {}", run.getId(), e.getMessage());
+            run.setStatus(EBatchStatus.FAILED);
+            run.setLastError(truncate(e.getMessage()));
+        }
+
+        run.setFinishedAt(LocalDateTime.now());
+        run.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        sample.stop(reportBatchTimer);
+
+        logger.info("Report run {} finished with status {} in {} ms ({} processed, {} failed)",
+                run.getId(), run.getStatus(), run.getDurationMs(), run.getProcessedItems(), run.getFailedItems());
+        return batchRunRepository.save(run);
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private static CustomizableThreadFactory namedThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix + "-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
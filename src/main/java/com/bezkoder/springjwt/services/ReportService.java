@@ -0,0 +1,62 @@
+package com.bezkoder.springjwt.services;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bezkoder.springjwt.models.Engineer;
+import com.bezkoder.springjwt.models.Report;
+import com.bezkoder.springjwt.repository.CaseRepository;
+import com.bezkoder.springjwt.repository.ReportRepository;
+
+/**
+ * Service for generating engineer reports.
+ *
+ * A report is generated with a fixed number of statements regardless of how
+ * many cases the engineer has: one COUNT for the total, one INSERT for the
+ * report and one bulk UPDATE that links the cases to it.
+ */
+@Service
+public class ReportService {
+    private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    /**
+     * Generate a report for an engineer and assign it to the engineer's cases.
+     *
+     * @param engineer  the engineer to report on
+     * @param startDate start of the case date range (inclusive), or null for all cases
+     * @param endDate   end of the case date range (inclusive), or null for all cases
+     * @return the saved report
+     */
+    @Transactional
+    public Report generateEngineerReport(Engineer engineer, LocalDateTime startDate, LocalDateTime endDate) {
+        boolean ranged = startDate != null && endDate != null;
+
+        Long totalCases = ranged
+                ? caseRepository.countCasesResolvedByEngineer(engineer, startDate, endDate)
+                : caseRepository.countByEngineer(engineer);
+
+        Report report = reportRepository.save(new Report(
+                "Cases report for engineer: " + engineer.getFullName(),
+                totalCases != null ? totalCases.intValue() : 0,
+                engineer.getFullName()
+        ));
+
+        int assigned = ranged
+                ? caseRepository.assignReportToEngineerCasesBetween(report, engineer, startDate, endDate)
+                : caseRepository.assignReportToEngineerCases(report, engineer);
+
+        logger.info("Generated report {} for engineer {} covering {} cases", report.getId(), engineer.getId(), assigned);
+        return report;
+    }
+}
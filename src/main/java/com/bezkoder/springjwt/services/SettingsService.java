@@ -0,0 +1,270 @@
+package com.bezkoder.springjwt.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bezkoder.springjwt.models.Setting;
+import com.bezkoder.springjwt.models.User;
+import com.bezkoder.springjwt.repository.SettingRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * In-memory, versioned copy of every {@link Setting}.
+ *
+ * Readers get the current immutable {@link Snapshot} from an atomic reference and
+ * never touch the database. Writes go through this service: they bump the
+ * "settings" change version in the same transaction and publish a new snapshot
+ * once committed. Other nodes poll the version and reload when it moved.
+ */
+@Service
+public class SettingsService {
+    private static final Logger logger = LoggerFactory.getLogger(SettingsService.class);
+
+    public static final String VERSION_NAME = "settings";
+
+    @Autowired
+    private SettingRepository settingRepository;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    /**
+     * The current snapshot, loaded on first use.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            current = refresh();
+        }
+        return current;
+    }
+
+    public long getVersion() {
+        return snapshot().getVersion();
+    }
+
+    public List<Setting> getAllSettings() {
+        return snapshot().getSettings();
+    }
+
+    public Setting getGlobalSetting() {
+        return snapshot().getGlobalSetting();
+    }
+
+    public Optional<Setting> getSetting(Long id) {
+        return Optional.ofNullable(snapshot().settingsById.get(id));
+    }
+
+    public List<Setting> getSettingsForUser(Long userId) {
+        return snapshot().settingsByUser.getOrDefault(userId, Collections.emptyList());
+    }
+
+    public boolean hasSettings() {
+        return !snapshot().getSettings().isEmpty();
+    }
+
+    @Transactional
+    public Setting save(Setting setting) {
+        Setting saved = settingRepository.save(setting);
+        publishChange();
+        return saved;
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        settingRepository.deleteById(id);
+        publishChange();
+    }
+
+    @Scheduled(fixedDelayString = "${bezkoder.app.settingsPollMs:5000}")
+    public void pollVersion() {
+        try {
+            Snapshot current = snapshot.get();
+            long version = changeVersionService.currentVersion(VERSION_NAME);
+            if (current == null || current.getVersion() != version) {
+                refresh();
+            }
+        } catch (Exception e) {
+            logger.error("Could not poll the settings version: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload the snapshot from the database. The version is read before the rows, so
+     * a change committed in between is picked up again by the next poll.
+     */
+    Snapshot refresh() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+
+        Snapshot loaded = transactionTemplate.execute(status -> {
+            long version = changeVersionService.currentVersion(VERSION_NAME);
+            return new Snapshot(version, settingRepository.findAll(Sort.by("id")));
+        });
+
+        Snapshot published = snapshot.accumulateAndGet(loaded,
+                (current, next) -> current == null || next.getVersion() >= current.getVersion() ? next : current);
+        logger.debug("Settings snapshot at version {} ({} settings)", published.getVersion(), published.getSettings().size());
+        return published;
+    }
+
+    private void publishChange() {
+        changeVersionService.bump(VERSION_NAME);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Immutable view of the settings at a given version. The global setting is the
+     * one with the lowest id; a user's effective setting is their own lowest-id
+     * setting, falling back to the global one. The Setting instances are detached
+     * copies and must not be modified.
+     */
+    public static final class Snapshot {
+        private static final ObjectMapper JSON = new ObjectMapper();
+
+        private final long version;
+        private final List<Setting> settings;
+        private final Setting globalSetting;
+        private final Map<Long, Setting> settingsById;
+        private final Map<Long, List<Setting>> settingsByUser;
+
+        Snapshot(long version, List<Setting> entities) {
+            List<Setting> copies = new ArrayList<>(entities.size());
+            Map<Long, Setting> byId = new HashMap<>();
+            Map<Long, List<Setting>> byUser = new HashMap<>();
+            for (Setting entity : entities) {
+                Setting copy = copyOf(entity);
+                copies.add(copy);
+                byId.put(copy.getId(), copy);
+                if (copy.getUser() != null) {
+                    byUser.computeIfAbsent(copy.getUser().getId(), k -> new ArrayList<>()).add(copy);
+                }
+            }
+            byUser.replaceAll((userId, userSettings) -> Collections.unmodifiableList(userSettings));
+
+            this.version = version;
+            this.settings = Collections.unmodifiableList(copies);
+            this.globalSetting = copies.isEmpty() ? null : copies.get(0);
+            this.settingsById = Collections.unmodifiableMap(byId);
+            this.settingsByUser = Collections.unmodifiableMap(byUser);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<Setting> getSettings() {
+            return settings;
+        }
+
+        public Setting getGlobalSetting() {
+            return globalSetting;
+        }
+
+        public Setting getEffectiveSetting(Long userId) {
+            List<Setting> userSettings = userId != null ? settingsByUser.get(userId) : null;
+            return userSettings != null ? userSettings.get(0) : globalSetting;
+        }
+
+        /**
+         * The settings as JSON, for computations that must keep using these values
+         * after the settings change (see {@link #fromJson}).
+         */
+        public String toJson() {
+            List<Map<String, Object>> entries = new ArrayList<>(settings.size());
+            for (Setting setting : settings) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("id", setting.getId());
+                entry.put("settingKey", setting.getSettingKey());
+                entry.put("userId", setting.getUser() != null ? setting.getUser().getId() : null);
+                entry.put("caseCoefficient", setting.getCaseCoefficient());
+                entry.put("chatCoefficient", setting.getChatCoefficient());
+                entries.add(entry);
+            }
+            try {
+                return JSON.writeValueAsString(Map.of("version", version, "settings", entries));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize the settings snapshot", e);
+            }
+        }
+
+        /**
+         * Snapshot read back from {@link #toJson}. Owners only carry their id.
+         */
+        public static Snapshot fromJson(String json) {
+            try {
+                Map<String, Object> stored = JSON.readValue(json, new TypeReference<Map<String, Object>>() { });
+                List<Setting> entities = new ArrayList<>();
+                for (Object value : (List<?>) stored.get("settings")) {
+                    Map<?, ?> entry = (Map<?, ?>) value;
+                    User owner = null;
+                    if (entry.get("userId") != null) {
+                        owner = new User();
+                        owner.setId(((Number) entry.get("userId")).longValue());
+                    }
+                    Setting setting = new Setting((String) entry.get("settingKey"),
+                        ((Number) entry.get("caseCoefficient")).doubleValue(),
+                        ((Number) entry.get("chatCoefficient")).doubleValue(), owner);
+                    setting.setId(((Number) entry.get("id")).longValue());
+                    entities.add(setting);
+                }
+                return new Snapshot(((Number) stored.get("version")).longValue(), entities);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unreadable settings snapshot", e);
+            }
+        }
+
+        // Detached copy with only the identifying fields of the owner, so that the
+        // snapshot holds no lazy associations
+        private static Setting copyOf(Setting entity) {
+            User owner = null;
+            if (entity.getUser() != null) {
+                owner = new User();
+                owner.setId(entity.getUser().getId());
+                owner.setUsername(entity.getUser().getUsername());
+                owner.setEmail(entity.getUser().getEmail());
+                owner.setFirstName(entity.getUser().getFirstName());
+                owner.setLastName(entity.getUser().getLastName());
+            }
+            Setting copy = new Setting(entity.getSettingKey(), entity.getCaseCoefficient(), entity.getChatCoefficient(), owner);
+            copy.setId(entity.getId());
+            return copy;
+        }
+    }
+}
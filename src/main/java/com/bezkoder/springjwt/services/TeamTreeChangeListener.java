@@ -0,0 +1,25 @@
+package com.bezkoder.springjwt.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Entity listener of the teams, engineers and users, bumping the version of the
+ * cached team hierarchy of {@link TeamTreeService} in the transaction of the change.
+ * Instances are created and autowired by Spring through Hibernate's bean container.
+ */
+public class TeamTreeChangeListener {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        ChangeVersionService.bump(jdbcTemplate, TeamTreeService.VERSION_NAME);
+    }
+}
@@ -0,0 +1,238 @@
+package com.bezkoder.springjwt.services;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bezkoder.springjwt.exception.InvalidDataException;
+import com.bezkoder.springjwt.models.Engineer;
+import com.bezkoder.springjwt.models.Team;
+import com.bezkoder.springjwt.models.User;
+import com.bezkoder.springjwt.payload.response.TeamTreeResponse;
+import com.bezkoder.springjwt.payload.response.TeamTreeResponse.EngineerNode;
+import com.bezkoder.springjwt.payload.response.TeamTreeResponse.ManagerNode;
+import com.bezkoder.springjwt.payload.response.TeamTreeResponse.TeamNode;
+import com.bezkoder.springjwt.repository.CaseRepository;
+import com.bezkoder.springjwt.repository.TeamRepository;
+
+/**
+ * The team hierarchy (managers, teams, engineers) behind {@code /api/teams/tree}.
+ *
+ * The hierarchy is loaded with one fetch-join query and kept in memory. Changes of
+ * teams, engineers and users bump the "team-tree" change version through
+ * {@link TeamTreeChangeListener}; each request reads that version (a primary key
+ * lookup) and reloads only when it moved. Case statistics of a period come from one
+ * grouped query, kept for {@code teamTreeStatsTtlMs} as cases change all the time.
+ *
+ * Every tree carries an ETag derived from the version and the statistics, so
+ * clients polling an unchanged tree get a 304 without a body.
+ */
+@Service
+public class TeamTreeService {
+    private static final Logger logger = LoggerFactory.getLogger(TeamTreeService.class);
+
+    public static final String VERSION_NAME = "team-tree";
+
+    private static final int MAX_CACHED_PERIODS = 16;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bezkoder.app.teamTreeStatsTtlMs:60000}")
+    private long teamTreeStatsTtlMs = 60000;
+
+    private final AtomicReference<Hierarchy> hierarchy = new AtomicReference<>();
+
+    private final Map<String, PeriodStats> periodStats = new ConcurrentHashMap<>();
+
+    /**
+     * The hierarchy, with the case count and average CES of every engineer when a
+     * period is given.
+     */
+    public Tree tree(LocalDate startPeriod, LocalDate endPeriod) {
+        if ((startPeriod == null) != (endPeriod == null)) {
+            throw new InvalidDataException("startPeriod and endPeriod must be given together");
+        }
+        if (startPeriod != null && startPeriod.isAfter(endPeriod)) {
+            throw new InvalidDataException("startPeriod must not be after endPeriod");
+        }
+
+        Hierarchy current = hierarchy.get();
+        if (current == null || current.version != changeVersionService.currentVersion(VERSION_NAME)) {
+            current = reload();
+        }
+        String etag = "\"teams-" + current.version;
+        if (startPeriod == null) {
+            return new Tree(etag + "\"", new TeamTreeResponse(null, null, current.managers, current.unmanagedTeams));
+        }
+
+        PeriodStats stats = stats(startPeriod, endPeriod);
+        TeamTreeResponse response = new TeamTreeResponse(startPeriod, endPeriod,
+            current.managers.stream()
+                .map(m -> new ManagerNode(m.getId(), m.getUsername(), m.getFirstName(), m.getLastName(),
+                    withStats(m.getTeams(), stats)))
+                .toList(),
+            withStats(current.unmanagedTeams, stats));
+        return new Tree(etag + "-" + startPeriod + "-" + endPeriod + "-" + Long.toHexString(stats.hash) + "\"", response);
+    }
+
+    /**
+     * Load the hierarchy. The version is read before the rows, so a change committed
+     * in between is picked up again by the next request.
+     */
+    Hierarchy reload() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+
+        Hierarchy loaded = transactionTemplate.execute(status -> {
+            long version = changeVersionService.currentVersion(VERSION_NAME);
+            return build(version, teamRepository.findAllWithManagerAndEngineers());
+        });
+
+        Hierarchy published = hierarchy.accumulateAndGet(loaded,
+            (current, next) -> current == null || next.version >= current.version ? next : current);
+        logger.debug("Team hierarchy at version {} ({} managers)", published.version, published.managers.size());
+        return published;
+    }
+
+    private static Hierarchy build(long version, List<Team> teams) {
+        Map<Long, User> managers = new TreeMap<>();
+        Map<Long, List<TeamNode>> teamsByManager = new LinkedHashMap<>();
+        List<TeamNode> unmanagedTeams = new ArrayList<>();
+
+        for (Team team : teams) {
+            List<EngineerNode> engineers = team.getEngineers().stream()
+                .sorted(Comparator.comparing(Engineer::getFullName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                    .thenComparing(Engineer::getId))
+                .map(e -> new EngineerNode(e.getId(), e.getFullName(), e.getEmail(), null, null))
+                .toList();
+            TeamNode node = new TeamNode(team.getId(), team.getName(), engineers);
+
+            User manager = team.getUser();
+            if (manager == null) {
+                unmanagedTeams.add(node);
+            } else {
+                managers.putIfAbsent(manager.getId(), manager);
+                teamsByManager.computeIfAbsent(manager.getId(), id -> new ArrayList<>()).add(node);
+            }
+        }
+
+        List<ManagerNode> managerNodes = managers.values().stream()
+            .map(u -> new ManagerNode(u.getId(), u.getUsername(), u.getFirstName(), u.getLastName(),
+                List.copyOf(teamsByManager.get(u.getId()))))
+            .toList();
+        return new Hierarchy(version, managerNodes, List.copyOf(unmanagedTeams));
+    }
+
+    private PeriodStats stats(LocalDate startPeriod, LocalDate endPeriod) {
+        String key = startPeriod + "/" + endPeriod;
+        PeriodStats cached = periodStats.get(key);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.loadedAt < teamTreeStatsTtlMs) {
+            return cached;
+        }
+
+        // Ordered by engineer, so that every node derives the same ETag
+        Map<Long, Object[]> byEngineer = new TreeMap<>();
+        for (Object[] row : caseRepository.countAndAverageCesByEngineer(startPeriod.atStartOfDay(),
+                endPeriod.atTime(LocalTime.MAX))) {
+            byEngineer.put((Long) row[0], row);
+        }
+        long hash = 17;
+        for (Object[] row : byEngineer.values()) {
+            hash = 31 * hash + row[0].hashCode();
+            hash = 31 * hash + row[1].hashCode();
+            hash = 31 * hash + (row[2] != null ? row[2].hashCode() : 0);
+        }
+
+        PeriodStats loaded = new PeriodStats(now, byEngineer, hash);
+        if (periodStats.size() >= MAX_CACHED_PERIODS) {
+            periodStats.clear();
+        }
+        periodStats.put(key, loaded);
+        return loaded;
+    }
+
+    private static List<TeamNode> withStats(List<TeamNode> teams, PeriodStats stats) {
+        return teams.stream()
+            .map(t -> new TeamNode(t.getId(), t.getName(), t.getEngineers().stream()
+                .map(e -> {
+                    Object[] row = stats.byEngineer.get(e.getId());
+                    return new EngineerNode(e.getId(), e.getFullName(), e.getEmail(),
+                        row != null ? (Long) row[1] : 0L, row != null ? (Double) row[2] : null);
+                })
+                .toList()))
+            .toList();
+    }
+
+    /**
+     * A tree and its ETag.
+     */
+    public static final class Tree {
+        private final String etag;
+        private final TeamTreeResponse response;
+
+        Tree(String etag, TeamTreeResponse response) {
+            this.etag = etag;
+            this.response = response;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public TeamTreeResponse getResponse() {
+            return response;
+        }
+    }
+
+    static final class Hierarchy {
+        final long version;
+        final List<ManagerNode> managers;
+        final List<TeamNode> unmanagedTeams;
+
+        Hierarchy(long version, List<ManagerNode> managers, List<TeamNode> unmanagedTeams) {
+            this.version = version;
+            this.managers = managers;
+            this.unmanagedTeams = unmanagedTeams;
+        }
+    }
+
+    private static final class PeriodStats {
+        final long loadedAt;
+        final Map<Long, Object[]> byEngineer;
+        final long hash;
+
+        PeriodStats(long loadedAt, Map<Long, Object[]> byEngineer, long hash) {
+            this.loadedAt = loadedAt;
+            this.byEngineer = byEngineer;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.bezkoder.springjwt.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bezkoder.springjwt.models.ERole;
+import com.bezkoder.springjwt.models.Role;
+import com.bezkoder.springjwt.payload.request.SignupRequest;
+import com.bezkoder.springjwt.payload.response.BulkSignupResponse;
+import com.bezkoder.springjwt.repository.RoleRepository;
+import com.bezkoder.springjwt.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Account creation: uniqueness checks, role resolution and bulk onboarding.
+ *
+ * A batch of signups costs a constant number of statements whatever its size:
+ * duplicates inside the batch are found in memory, conflicts with existing
+ * accounts with one query on the username and email unique indexes, and users and
+ * their role links are written with JDBC batches. Passwords are hashed before the
+ * transaction, on a pool of {@code bulkSignupThreads} so that a batch does not take
+ * the cores sign-ins need, and the transaction only spans the two batches. Roles
+ * are reference data, kept in memory once loaded.
+ */
+@Service
+public class UserOnboardingService {
+    private static final Logger logger = LoggerFactory.getLogger(UserOnboardingService.class);
+
+    static final int BATCH_SIZE = 500;
+
+    static final String USERNAME_TAKEN = "Error: Username is already taken!";
+    static final String EMAIL_IN_USE = "Error: Email is already in use!";
+
+    private static final String INSERT_USER_SQL =
+        "INSERT INTO users (username, email, password, first_name, last_name, token_version) VALUES (?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_USER_ROLE_SQL =
+        "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bezkoder.app.bulkSignupThreads:2}")
+    private int bulkSignupThreads = 2;
+
+    private volatile Map<ERole, Role> roles = Map.of();
+
+    private ThreadPoolExecutor hashExecutor;
+
+    @PostConstruct
+    public void init() {
+        int threads = Math.max(1, bulkSignupThreads);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("signup-hash-");
+        threadFactory.setDaemon(true);
+        hashExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(threads * 2), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    /**
+     * Error message when the username or email already belongs to another user than
+     * {@code exceptUserId}, otherwise null. Username conflicts are reported first.
+     */
+    public String findConflict(String username, String email, Long exceptUserId) {
+        List<Object[]> existing = userRepository.findByUsernamesOrEmails(
+            username != null ? List.of(username) : List.of(), email != null ? List.of(email) : List.of());
+
+        String conflict = null;
+        for (Object[] row : existing) {
+            if (row[0].equals(exceptUserId)) {
+                continue;
+            }
+            if (username != null && username.equalsIgnoreCase((String) row[1])) {
+                return USERNAME_TAKEN;
+            }
+            if (email != null && email.equalsIgnoreCase((String) row[2])) {
+                conflict = EMAIL_IN_USE;
+            }
+        }
+        return conflict;
+    }
+
+    /**
+     * Roles of a signup: "admin" and "mod" map to their roles, anything else, or
+     * nothing, to the user role.
+     */
+    public Set<Role> resolveRoles(Set<String> requested) {
+        Set<Role> resolved = new HashSet<>();
+        if (requested == null) {
+            resolved.add(findRole(ERole.ROLE_USER));
+            return resolved;
+        }
+        for (String name : requested) {
+            switch (name) {
+            case "admin":
+                resolved.add(findRole(ERole.ROLE_ADMIN));
+                break;
+            case "mod":
+                resolved.add(findRole(ERole.ROLE_MODERATOR));
+                break;
+            default:
+                resolved.add(findRole(ERole.ROLE_USER));
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Create the accounts of a batch. Signups conflicting with an existing account or
+     * an earlier signup of the batch are rejected, the others created.
+     *
+     * @return the outcome of every signup, in request order
+     */
+    public BulkSignupResponse registerAll(List<SignupRequest> requests) {
+        long started = System.nanoTime();
+        String[] errors = new String[requests.size()];
+
+        // Duplicates inside the batch, in memory
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            SignupRequest request = requests.get(i);
+            if (!usernames.add(normalize(request.getUsername()))) {
+                errors[i] = USERNAME_TAKEN;
+            } else if (!emails.add(normalize(request.getEmail()))) {
+                errors[i] = EMAIL_IN_USE;
+            }
+        }
+
+        // Conflicts with existing accounts, one query
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> usedEmails = new HashSet<>();
+        for (Object[] row : userRepository.findByUsernamesOrEmails(original(requests, true), original(requests, false))) {
+            takenUsernames.add(normalize((String) row[1]));
+            usedEmails.add(normalize((String) row[2]));
+        }
+
+        List<Integer> accepted = new ArrayList<>();
+        Map<Integer, Set<Role>> rolesByIndex = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            SignupRequest request = requests.get(i);
+            if (errors[i] == null && takenUsernames.contains(normalize(request.getUsername()))) {
+                errors[i] = USERNAME_TAKEN;
+            } else if (errors[i] == null && usedEmails.contains(normalize(request.getEmail()))) {
+                errors[i] = EMAIL_IN_USE;
+            }
+            if (errors[i] == null) {
+                accepted.add(i);
+                rolesByIndex.put(i, resolveRoles(request.getRole()));
+            }
+        }
+
+        // BCrypt dominates the cost of a batch: hash on the bounded pool, outside the transaction
+        String[] hashes = new String[requests.size()];
+        CompletableFuture.allOf(accepted.stream()
+            .map(i -> CompletableFuture.runAsync(() -> hashes[i] = encoder.encode(requests.get(i).getPassword()),
+                hashExecutor))
+            .toArray(CompletableFuture[]::new)).join();
+
+        Map<String, Long> ids = new TransactionTemplate(transactionManager).execute(status ->
+            insertAll(requests, accepted, hashes, rolesByIndex));
+
+        List<BulkSignupResponse.Item> results = IntStream.range(0, requests.size())
+            .mapToObj(i -> new BulkSignupResponse.Item(i, requests.get(i).getUsername(),
+                errors[i] == null ? ids.get(normalize(requests.get(i).getUsername())) : null, errors[i]))
+            .toList();
+
+        logger.info("Bulk signup: {} created, {} rejected in {} ms", accepted.size(),
+            requests.size() - accepted.size(), (System.nanoTime() - started) / 1_000_000);
+        return new BulkSignupResponse(accepted.size(), requests.size() - accepted.size(), results);
+    }
+
+    // The users and their role links; returns the new ids by normalized username
+    private Map<String, Long> insertAll(List<SignupRequest> requests, List<Integer> accepted, String[] hashes,
+                                        Map<Integer, Set<Role>> rolesByIndex) {
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, accepted, BATCH_SIZE, (ps, i) -> {
+            SignupRequest request = requests.get(i);
+            ps.setString(1, request.getUsername());
+            ps.setString(2, request.getEmail());
+            ps.setString(3, hashes[i]);
+            // Same defaults as a single signup: username as first name, no last name
+            ps.setString(4, request.getUsername());
+            ps.setString(5, "");
+        });
+
+        Map<String, Long> ids = new HashMap<>();
+        if (!accepted.isEmpty()) {
+            List<String> created = accepted.stream().map(i -> requests.get(i).getUsername()).toList();
+            for (Object[] row : userRepository.findIdsByUsernames(created)) {
+                ids.put(normalize((String) row[1]), (Long) row[0]);
+            }
+        }
+
+        List<Long[]> links = new ArrayList<>();
+        for (Integer i : accepted) {
+            Long userId = ids.get(normalize(requests.get(i).getUsername()));
+            for (Role role : rolesByIndex.get(i)) {
+                links.add(new Long[] { userId, role.getId().longValue() });
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE_SQL, links, BATCH_SIZE, (ps, link) -> {
+            ps.setLong(1, link[0]);
+            ps.setLong(2, link[1]);
+        });
+        return ids;
+    }
+
+    /**
+     * The role, from memory once loaded.
+     */
+    public Role findRole(ERole name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            // Roles are seeded once; reload in case they were seeded after the first lookup
+            Map<ERole, Role> loaded = new EnumMap<>(ERole.class);
+            roleRepository.findAll().forEach(r -> loaded.put(r.getName(), r));
+            roles = loaded;
+            role = loaded.get(name);
+            if (role == null) {
+                throw new RuntimeException("Error: Role is not found.");
+            }
+        }
+        return role;
+    }
+
+    private static Collection<String> original(List<SignupRequest> requests, boolean usernames) {
+        return requests.stream().map(r -> usernames ? r.getUsername() : r.getEmail()).toList();
+    }
+
+    // MySQL compares usernames and emails case-insensitively, so do the batch checks
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -7,12 +7,20 @@ import com.bezkoder.springjwt.payload.request.LoginRequest;
 import com.bezkoder.springjwt.payload.request.SignupRequest;
 import com.bezkoder.springjwt.payload.response.JwtResponse;
 import com.bezkoder.springjwt.payload.response.MessageResponse;
-import com.bezkoder.springjwt.repository.RoleRepository;
 import com.bezkoder.springjwt.repository.UserRepository;
 import com.bezkoder.springjwt.security.jwt.JwtUtils;
+import com.bezkoder.springjwt.payload.request.TokenRefreshRequest;
+import com.bezkoder.springjwt.payload.response.TokenRefreshResponse;
+import com.bezkoder.springjwt.security.services.RefreshTokenService;
+import com.bezkoder.springjwt.security.services.SignInService;
+import com.bezkoder.springjwt.security.services.TokenRevocationService;
 import com.bezkoder.springjwt.security.services.UserDetailsImpl;
+import com.bezkoder.springjwt.services.UserOnboardingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -20,14 +28,14 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -40,13 +48,19 @@ public class AuthControllerTest {
     private MockMvc mockMvc;
 
     @Mock
-    private AuthenticationManager authenticationManager;
+    private SignInService signInService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
 
     @Mock
     private UserRepository userRepository;
 
     @Mock
-    private RoleRepository roleRepository;
+    private UserOnboardingService userOnboardingService;
 
     @Mock
     private PasswordEncoder encoder;
@@ -77,24 +91,76 @@ public class AuthControllerTest {
                 Collections.emptyList());
         
         // Mock dependencies
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
+        when(signInService.authenticate("testuser", "password"))
+                .thenReturn(CompletableFuture.completedFuture(authentication));
         when(authentication.getPrincipal()).thenReturn(userDetails);
         when(jwtUtils.generateJwtToken(authentication)).thenReturn("test-jwt-token");
+        when(refreshTokenService.createRefreshToken(userDetails)).thenReturn("test-refresh-token");
 
         // Execute method
-        ResponseEntity<?> response = authController.authenticateUser(loginRequest);
+        ResponseEntity<?> response = authController.authenticateUser(loginRequest).join();
 
         // Verify results
         assertEquals(200, response.getStatusCodeValue());
         assertTrue(response.getBody() instanceof JwtResponse);
         JwtResponse jwtResponse = (JwtResponse) response.getBody();
         assertEquals("test-jwt-token", jwtResponse.getAccessToken());
+        assertEquals("test-refresh-token", jwtResponse.getRefreshToken());
         assertEquals(1L, jwtResponse.getId());
         assertEquals("testuser", jwtResponse.getUsername());
         assertEquals("test@example.com", jwtResponse.getEmail());
     }
 
+    @Test
+    public void testRefreshToken() {
+        UserDetailsImpl userDetails = new UserDetailsImpl(1L, "testuser", "test@example.com", "password",
+                Collections.emptyList());
+        TokenRefreshRequest request = new TokenRefreshRequest();
+        request.setRefreshToken("old-refresh-token");
+
+        RefreshTokenService.Rotation rotation = mock(RefreshTokenService.Rotation.class);
+        when(rotation.getRefreshToken()).thenReturn("new-refresh-token");
+        when(rotation.getUser()).thenReturn(userDetails);
+        when(refreshTokenService.rotate("old-refresh-token")).thenReturn(rotation);
+        when(jwtUtils.generateTokenFromUserDetails(userDetails)).thenReturn("new-jwt-token");
+
+        ResponseEntity<?> response = authController.refreshToken(request);
+
+        assertEquals(200, response.getStatusCodeValue());
+        TokenRefreshResponse body = (TokenRefreshResponse) response.getBody();
+        assertEquals("new-jwt-token", body.getAccessToken());
+        assertEquals("new-refresh-token", body.getRefreshToken());
+    }
+
+    @Test
+    public void testLogoutUser() {
+        Date expiration = new Date((System.currentTimeMillis() / 1000 + 60) * 1000);
+        Claims claims = Jwts.claims();
+        claims.setId("token-id");
+        claims.setExpiration(expiration);
+        claims.put("uid", 1L);
+        when(jwtUtils.getVerifiedClaims("jwt-token")).thenReturn(claims);
+        TokenRefreshRequest request = new TokenRefreshRequest();
+        request.setRefreshToken("refresh-token");
+
+        ResponseEntity<?> response = authController.logoutUser("Bearer jwt-token", request);
+
+        assertEquals(200, response.getStatusCodeValue());
+        verify(tokenRevocationService).revoke("token-id", 1L, expiration.toInstant(), "signout");
+        verify(refreshTokenService).revoke("refresh-token");
+    }
+
+    @Test
+    public void testLogoutUser_InvalidTokenNotRevoked() {
+        when(jwtUtils.getVerifiedClaims("bad-token")).thenReturn(null);
+
+        ResponseEntity<?> response = authController.logoutUser("Bearer bad-token", null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        verify(tokenRevocationService, never()).revoke(any(), any(), any(Instant.class), any());
+        verify(refreshTokenService, never()).revoke(any());
+    }
+
     @Test
     public void testRegisterUser() throws Exception {
         // Prepare test data
@@ -108,14 +174,13 @@ public class AuthControllerTest {
         signupRequest.setRole(roles);
 
         // Mock dependencies
-        when(userRepository.existsByUsername("newuser")).thenReturn(false);
-        when(userRepository.existsByEmail("newuser@example.com")).thenReturn(false);
-        
+        when(userOnboardingService.findConflict("newuser", "newuser@example.com", null)).thenReturn(null);
+
         Role userRole = new Role();
         userRole.setId(1);
         userRole.setName(ERole.ROLE_USER);
         
-        when(roleRepository.findByName(ERole.ROLE_USER)).thenReturn(Optional.of(userRole));
+        when(userOnboardingService.resolveRoles(roles)).thenReturn(new HashSet<>(Set.of(userRole)));
         when(encoder.encode("password")).thenReturn("encoded_password");
 
         // Execute method
@@ -138,7 +203,8 @@ public class AuthControllerTest {
         signupRequest.setPassword("password");
 
         // Mock dependencies
-        when(userRepository.existsByUsername("existinguser")).thenReturn(true);
+        when(userOnboardingService.findConflict("existinguser", "newuser@example.com", null))
+            .thenReturn("Error: Username is already taken!");
 
         // Execute method
         ResponseEntity<?> response = authController.registerUser(signupRequest);
@@ -160,8 +226,8 @@ public class AuthControllerTest {
         signupRequest.setPassword("password");
 
         // Mock dependencies
-        when(userRepository.existsByUsername("newuser")).thenReturn(false);
-        when(userRepository.existsByEmail("existing@example.com")).thenReturn(true);
+        when(userOnboardingService.findConflict("newuser", "existing@example.com", null))
+            .thenReturn("Error: Email is already in use!");
 
         // Execute method
         ResponseEntity<?> response = authController.registerUser(signupRequest);
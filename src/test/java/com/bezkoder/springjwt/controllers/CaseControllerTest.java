@@ -6,6 +6,7 @@ import com.bezkoder.springjwt.models.Report;
 import com.bezkoder.springjwt.repository.CaseRepository;
 import com.bezkoder.springjwt.repository.EngineerRepository;
 import com.bezkoder.springjwt.repository.ReportRepository;
+import com.bezkoder.springjwt.services.CaseStatisticsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -37,6 +38,9 @@ public class CaseControllerTest {
     @Mock
     private ReportRepository reportRepository;
 
+    @Mock
+    private CaseStatisticsService caseStatisticsService;
+
     @InjectMocks
     private CaseController caseController;
 
@@ -241,9 +245,9 @@ public class CaseControllerTest {
 
     @Test
     public void testGetEngineerStatistics() {
-        when(engineerRepository.findById(1L)).thenReturn(Optional.of(testEngineer));
-        when(caseRepository.countCasesResolvedByEngineer(testEngineer, startDate, endDate)).thenReturn(10L);
-        when(caseRepository.calculateAverageCesRating(testEngineer, startDate, endDate)).thenReturn(4.5);
+        when(caseStatisticsService.engineerStatistics(1L, startDate, endDate)).thenReturn(Optional.of(Map.of(
+                "engineerId", 1L, "engineerName", "John Doe", "caseCount", 10L, "averageCesRating", 4.5,
+                "startDate", startDate, "endDate", endDate)));
 
         ResponseEntity<?> response = caseController.getEngineerStatistics(1L, startDate, endDate);
 
@@ -257,6 +261,15 @@ public class CaseControllerTest {
         assertEquals(4.5, responseBody.get("averageCesRating"));
     }
 
+    @Test
+    public void testGetEngineerStatistics_NotFound() {
+        when(caseStatisticsService.engineerStatistics(2L, startDate, endDate)).thenReturn(Optional.empty());
+
+        ResponseEntity<?> response = caseController.getEngineerStatistics(2L, startDate, endDate);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
     @Test
     public void testStreamCasesByDateRange() {
         List<Case> cases = new ArrayList<>();
@@ -3,6 +3,8 @@ package com.bezkoder.springjwt.controllers;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -18,6 +20,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -27,8 +31,10 @@ import com.bezkoder.springjwt.models.Role;
 import com.bezkoder.springjwt.models.User;
 import com.bezkoder.springjwt.payload.response.MessageResponse;
 import com.bezkoder.springjwt.payload.response.UserResponse;
-import com.bezkoder.springjwt.repository.RoleRepository;
 import com.bezkoder.springjwt.repository.UserRepository;
+import com.bezkoder.springjwt.security.services.TokenVersionService;
+import com.bezkoder.springjwt.security.services.UserDetailsServiceImpl;
+import com.bezkoder.springjwt.services.UserOnboardingService;
 
 @ExtendWith(MockitoExtension.class)
 public class UserControllerTest {
@@ -37,10 +43,16 @@ public class UserControllerTest {
     private UserRepository userRepository;
 
     @Mock
-    private RoleRepository roleRepository;
+    private PasswordEncoder encoder;
 
     @Mock
-    private PasswordEncoder encoder;
+    private TokenVersionService tokenVersionService;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private UserOnboardingService userOnboardingService;
 
     @InjectMocks
     private UserController userController;
@@ -89,28 +101,43 @@ public class UserControllerTest {
 
     @Test
     public void testGetAllManagers() {
-        // Setup test data
-        List<User> users = new ArrayList<>();
-        users.add(testUser);
-        users.add(testManager);
-
-        // Mock repository method
-        when(userRepository.findAll()).thenReturn(users);
+        // Managers come from the role query, their roles from one more query
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { 2L, "testmanager", "manager@example.com", "Test", "Manager" });
+        when(userRepository.findSummariesByRole(ERole.ROLE_MODERATOR, PageRequest.of(1, 20)))
+            .thenReturn(new PageImpl<>(rows, PageRequest.of(1, 20), 21));
+        when(userRepository.findRoleNamesByUserIds(List.of(2L))).thenReturn(List.of(
+            new Object[] { 2L, ERole.ROLE_USER }, new Object[] { 2L, ERole.ROLE_MODERATOR }));
 
         // Execute the test
-        ResponseEntity<List<UserResponse>> response = userController.getAllManagers();
+        ResponseEntity<List<UserResponse>> response = userController.getAllManagers(1, 20);
 
         // Verify results
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("21", response.getHeaders().getFirst("X-Total-Count"));
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().size());
         assertEquals("testmanager", response.getBody().get(0).getUsername());
+        assertEquals(List.of("ROLE_USER", "ROLE_MODERATOR"), response.getBody().get(0).getRoles());
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    public void testGetAllManagers_ClampsPageSize() {
+        when(userRepository.findSummariesByRole(ERole.ROLE_MODERATOR, PageRequest.of(0, UserController.MAX_PAGE_SIZE)))
+            .thenReturn(new PageImpl<>(new ArrayList<>()));
+
+        ResponseEntity<List<UserResponse>> response = userController.getAllManagers(-1, 100000);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(0, response.getBody().size());
+        verify(userRepository, never()).findRoleNamesByUserIds(any());
     }
 
     @Test
     public void testGetManagerById_Success() {
         // Mock repository method
-        when(userRepository.findById(2L)).thenReturn(Optional.of(testManager));
+        when(userRepository.findWithRolesById(2L)).thenReturn(Optional.of(testManager));
 
         // Execute the test
         ResponseEntity<?> response = userController.getManagerById(2L);
@@ -125,7 +152,7 @@ public class UserControllerTest {
     @Test
     public void testGetManagerById_NotManager() {
         // Mock repository method
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.findWithRolesById(1L)).thenReturn(Optional.of(testUser));
 
         // Execute the test
         ResponseEntity<?> response = userController.getManagerById(1L);
@@ -140,7 +167,7 @@ public class UserControllerTest {
     @Test
     public void testGetManagerById_NotFound() {
         // Mock repository method
-        when(userRepository.findById(3L)).thenReturn(Optional.empty());
+        when(userRepository.findWithRolesById(3L)).thenReturn(Optional.empty());
 
         // Execute the test
         ResponseEntity<?> response = userController.getManagerById(3L);
@@ -152,8 +179,8 @@ public class UserControllerTest {
     @Test
     public void testAddManagerRole_Success() {
         // Mock repository methods
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(roleRepository.findByName(ERole.ROLE_MODERATOR)).thenReturn(Optional.of(managerRole));
+        when(userRepository.findWithRolesById(1L)).thenReturn(Optional.of(testUser));
+        when(userOnboardingService.findRole(ERole.ROLE_MODERATOR)).thenReturn(managerRole);
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // Execute the test
@@ -164,12 +191,14 @@ public class UserControllerTest {
         assertNotNull(response.getBody());
         MessageResponse messageResponse = (MessageResponse) response.getBody();
         assertEquals("Manager role added successfully!", messageResponse.getMessage());
+        verify(tokenVersionService).revokeTokens(1L);
+        verify(userDetailsService).evictUser("testuser");
     }
 
     @Test
     public void testRemoveManagerRole_Success() {
         // Mock repository methods
-        when(userRepository.findById(2L)).thenReturn(Optional.of(testManager));
+        when(userRepository.findWithRolesById(2L)).thenReturn(Optional.of(testManager));
         when(userRepository.save(any(User.class))).thenReturn(testManager);
 
         // Execute the test
@@ -180,13 +209,15 @@ public class UserControllerTest {
         assertNotNull(response.getBody());
         MessageResponse messageResponse = (MessageResponse) response.getBody();
         assertEquals("Manager role removed successfully!", messageResponse.getMessage());
+        verify(tokenVersionService).revokeTokens(2L);
+        verify(userDetailsService).evictUser("testmanager");
     }
 
     @Test
     public void testAddManagerRoleByUsername_Success() {
         // Mock repository methods
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(roleRepository.findByName(ERole.ROLE_MODERATOR)).thenReturn(Optional.of(managerRole));
+        when(userRepository.findWithRolesByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userOnboardingService.findRole(ERole.ROLE_MODERATOR)).thenReturn(managerRole);
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // Execute the test
@@ -202,7 +233,7 @@ public class UserControllerTest {
     @Test
     public void testAddManagerRoleByUsername_UserNotFound() {
         // Mock repository method
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(userRepository.findWithRolesByUsername("nonexistent")).thenReturn(Optional.empty());
 
         // Execute the test
         ResponseEntity<?> response = userController.addManagerRoleByUsername("nonexistent");
@@ -214,7 +245,7 @@ public class UserControllerTest {
     @Test
     public void testRemoveManagerRoleByUsername_Success() {
         // Mock repository methods
-        when(userRepository.findByUsername("testmanager")).thenReturn(Optional.of(testManager));
+        when(userRepository.findWithRolesByUsername("testmanager")).thenReturn(Optional.of(testManager));
         when(userRepository.save(any(User.class))).thenReturn(testManager);
 
         // Execute the test
@@ -230,7 +261,7 @@ public class UserControllerTest {
     @Test
     public void testRemoveManagerRoleByUsername_UserNotFound() {
         // Mock repository method
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(userRepository.findWithRolesByUsername("nonexistent")).thenReturn(Optional.empty());
 
         // Execute the test
         ResponseEntity<?> response = userController.removeManagerRoleByUsername("nonexistent");
@@ -238,4 +269,36 @@ public class UserControllerTest {
         // Verify results
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
+
+    @Test
+    public void testUpdateUser_EmailInUse() {
+        when(userRepository.findWithRolesById(1L)).thenReturn(Optional.of(testUser));
+        when(userOnboardingService.findConflict(null, "taken@example.com", 1L))
+            .thenReturn("Error: Email is already in use!");
+
+        User request = new User();
+        request.setUsername("testuser");
+        request.setEmail("taken@example.com");
+        ResponseEntity<?> response = userController.updateUser(1L, request);
+
+        // Only the changed email is checked, and nothing is saved
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Error: Email is already in use!", ((MessageResponse) response.getBody()).getMessage());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    public void testUpdateUser_NameOnlySkipsUniquenessCheck() {
+        when(userRepository.findWithRolesById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        User request = new User();
+        request.setFirstName("Renamed");
+        ResponseEntity<?> response = userController.updateUser(1L, request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Renamed", ((UserResponse) response.getBody()).getFirstName());
+        verify(userOnboardingService, never()).findConflict(any(), any(), any());
+        verify(tokenVersionService, never()).revokeTokens(any());
+    }
 }
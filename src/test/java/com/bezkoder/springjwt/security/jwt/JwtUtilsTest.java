@@ -1,6 +1,11 @@
 package com.bezkoder.springjwt.security.jwt;
 
+import com.bezkoder.springjwt.security.services.JwtKeyService;
 import com.bezkoder.springjwt.security.services.UserDetailsImpl;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -9,7 +14,11 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.security.KeyPair;
 import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -22,13 +31,21 @@ public class JwtUtilsTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private JwtKeyService jwtKeyService;
+
+    private static final KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.RS256);
+
     private UserDetailsImpl userDetails;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "testSecretKey12345678901234567890123456789012345678901234567890");
+        when(jwtKeyService.signingKey())
+                .thenReturn(new JwtKeyService.SigningKey("key-1", SignatureAlgorithm.RS256, keyPair.getPrivate()));
+        when(jwtKeyService.publicKey("key-1")).thenReturn(keyPair.getPublic());
         ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        jwtUtils.init();
 
         userDetails = new UserDetailsImpl(
                 1L,
@@ -86,4 +103,59 @@ public class JwtUtilsTest {
         
         assertFalse(isValid);
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testUserDetailsFromClaims() {
+        UserDetailsImpl admin = new UserDetailsImpl(7L, "admin", "admin@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_MODERATOR")), 3L);
+        when(authentication.getPrincipal()).thenReturn(admin);
+
+        String token = jwtUtils.generateJwtToken(authentication);
+        UserDetailsImpl fromClaims = jwtUtils.getUserDetailsFromClaims(jwtUtils.getVerifiedClaims(token));
+
+        assertEquals(7L, fromClaims.getId());
+        assertEquals("admin", fromClaims.getUsername());
+        assertEquals("admin@example.com", fromClaims.getEmail());
+        assertEquals(3L, fromClaims.getTokenVersion());
+        assertNull(fromClaims.getPassword());
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_MODERATOR"),
+                fromClaims.getAuthorities().stream().map(a -> a.getAuthority()).toList());
+    }
+
+    @Test
+    public void testGetVerifiedClaims_WrongKey() {
+        String token = jwtUtils.generateJwtToken(authentication);
+        when(jwtKeyService.publicKey("key-1")).thenReturn(Keys.keyPairFor(SignatureAlgorithm.RS256).getPublic());
+        jwtUtils.init();
+
+        assertNull(jwtUtils.getVerifiedClaims(token));
+    }
+
+    @Test
+    public void testGetVerifiedClaims_UnknownKeyId() {
+        when(jwtKeyService.signingKey())
+                .thenReturn(new JwtKeyService.SigningKey("key-2", SignatureAlgorithm.RS256, keyPair.getPrivate()));
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        assertNull(jwtUtils.getVerifiedClaims(token));
+    }
+
+    @Test
+    public void testGetVerifiedClaims_HmacTokenRejected() {
+        String token = Jwts.builder()
+                .setHeaderParam("kid", "key-1")
+                .setSubject("testuser")
+                .signWith(Keys.hmacShaKeyFor(keyPair.getPublic().getEncoded()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertNull(jwtUtils.getVerifiedClaims(token));
+    }
+
+    @Test
+    public void testGetVerifiedClaims_CachedUntilExpiry() {
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        assertSame(jwtUtils.getVerifiedClaims(token), jwtUtils.getVerifiedClaims(token));
+        assertNull(jwtUtils.getVerifiedClaims(token + "x"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.bezkoder.springjwt.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bezkoder.springjwt.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SecurityErrorWriterTest {
+
+    private SecurityErrorWriter securityErrorWriter;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        securityErrorWriter = new SecurityErrorWriter();
+        ReflectionTestUtils.setField(securityErrorWriter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(securityErrorWriter, "securityLogPerMinute", 2);
+        securityErrorWriter.init();
+    }
+
+    @Test
+    public void testRender_SameBodyAsObjectMapper() throws Exception {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        long now = System.currentTimeMillis();
+        String path = "/api/cases/\"quoted\"/é";
+
+        byte[] body = securityErrorWriter.render(401, "Unauthorized", "Full \"authentication\" is required", path, now);
+
+        String expected = mapper.writeValueAsString(
+                new ErrorResponse(new Date(now), 401, "Unauthorized", "Full \"authentication\" is required", path));
+        assertEquals(expected, new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testReject_WritesResponseAndCounts() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/managers");
+        request.setServletPath("/api/users/managers");
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            securityErrorWriter.reject(request, response, 403, "Access Denied", "No permission");
+
+            assertEquals(403, response.getStatus());
+            assertEquals("application/json", response.getContentType());
+            assertTrue(response.getContentAsString().contains("\"path\":\"/api/users/managers\""));
+        }
+
+        assertEquals(5.0, meterRegistry.get("cashback_security_rejections_total").tag("status", "403").counter().count());
+    }
+}
@@ -0,0 +1,49 @@
+package com.bezkoder.springjwt.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+public class VerifiedTokenCacheTest {
+
+    @Test
+    public void testReturnsClaimsUntilExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        Claims claims = Jwts.claims().setSubject("user").setExpiration(new Date(10_000L));
+
+        cache.put("token", claims);
+
+        assertSame(claims, cache.get("token", 9_999L));
+        assertNull(cache.get("token", 10_000L));
+        // Expired entries are dropped
+        assertNull(cache.get("token", 0L));
+    }
+
+    @Test
+    public void testTokensWithoutExpirationAreNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+
+        cache.put("token", Jwts.claims().setSubject("user"));
+
+        assertNull(cache.get("token", 0L));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(32);
+        Date expiration = new Date(Long.MAX_VALUE);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("token-" + i, Jwts.claims().setSubject("user-" + i).setExpiration(expiration));
+        }
+
+        assertTrue(cache.size() <= 32);
+    }
+}
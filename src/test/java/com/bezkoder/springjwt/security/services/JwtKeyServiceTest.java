@@ -0,0 +1,170 @@
+package com.bezkoder.springjwt.security.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bezkoder.springjwt.models.JwtSigningKey;
+import com.bezkoder.springjwt.repository.JwtSigningKeyRepository;
+import com.bezkoder.springjwt.services.ChangeVersionService;
+
+import io.jsonwebtoken.Jwts;
+
+class JwtKeyServiceTest {
+
+    private static final long ROTATION_MS = 7 * 86400000L;
+    private static final long PUBLISH_DELAY_MS = 600000L;
+
+    @Mock
+    private JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    @Mock
+    private ChangeVersionService changeVersionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private JwtKeyService jwtKeyService;
+
+    private final List<JwtSigningKey> stored = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(jwtKeyService, "jwtSecret", "secret");
+        ReflectionTestUtils.setField(jwtKeyService, "jwtExpirationMs", 900000L);
+        jwtKeyService.init();
+
+        AtomicLong ids = new AtomicLong();
+        when(jwtSigningKeyRepository.save(any(JwtSigningKey.class))).thenAnswer(invocation -> {
+            JwtSigningKey key = invocation.getArgument(0);
+            key.setId(ids.incrementAndGet());
+            stored.add(key);
+            return key;
+        });
+        when(jwtSigningKeyRepository.findAllByOrderByCreatedAtDesc()).thenAnswer(invocation -> stored.stream()
+                .sorted(Comparator.comparing(JwtSigningKey::getCreatedAt).reversed())
+                .toList());
+        doAnswer(invocation -> stored.removeAll(invocation.getArgument(0)))
+                .when(jwtSigningKeyRepository).deleteAll(any());
+    }
+
+    @Test
+    void testSigningKey_GeneratedOnFirstUseAndStoredEncrypted() {
+        JwtKeyService.SigningKey signingKey = jwtKeyService.signingKey();
+
+        assertEquals(1, stored.size());
+        assertEquals(stored.get(0).getKid(), signingKey.getKid());
+        assertEquals("RS256", stored.get(0).getAlgorithm());
+        assertNotEquals(Base64.getEncoder().encodeToString(signingKey.getPrivateKey().getEncoded()),
+                stored.get(0).getPrivateKey());
+
+        String token = Jwts.builder().setSubject("engineer")
+                .signWith(signingKey.getPrivateKey(), signingKey.getAlgorithm()).compact();
+        assertEquals("engineer", Jwts.parserBuilder().setSigningKey(jwtKeyService.publicKey(signingKey.getKid()))
+                .build().parseClaimsJws(token).getBody().getSubject());
+    }
+
+    @Test
+    void testRotateKeys_NewKeySignsOnlyAfterPublishDelay() {
+        String first = jwtKeyService.signingKey().getKid();
+        age(stored.get(0), ROTATION_MS + 1000);
+
+        jwtKeyService.rotateKeys();
+
+        assertEquals(2, stored.size());
+        assertEquals(first, jwtKeyService.signingKey().getKid());
+        List<?> published = (List<?>) jwtKeyService.jwks().get("keys");
+        assertEquals(2, published.size());
+
+        age(newest(), PUBLISH_DELAY_MS + 1000);
+        jwtKeyService.reload();
+        assertEquals(newest().getKid(), jwtKeyService.signingKey().getKid());
+    }
+
+    @Test
+    void testRotateKeys_DeletesKeysOnceTheirTokensExpired() {
+        jwtKeyService.signingKey();
+        JwtSigningKey old = stored.get(0);
+        age(old, 3 * ROTATION_MS);
+        jwtKeyService.rotateKeys();
+        age(newest(), ROTATION_MS - 1000);
+
+        jwtKeyService.rotateKeys();
+
+        assertEquals(1, stored.size());
+        assertNull(jwtKeyService.publicKey(old.getKid()));
+    }
+
+    @Test
+    void testPublicKey_UnknownIdReloadsAtMostOncePerInterval() {
+        jwtKeyService.signingKey();
+        clearInvocations(jwtSigningKeyRepository);
+
+        assertNull(jwtKeyService.publicKey("unknown"));
+        assertNull(jwtKeyService.publicKey("unknown"));
+
+        verify(jwtSigningKeyRepository, times(1)).findAllByOrderByCreatedAtDesc();
+    }
+
+    @Test
+    void testReload_GeneratesKeyWhenStoredOnesWereEncryptedUnderAnotherSecret() {
+        String previous = jwtKeyService.signingKey().getKid();
+
+        ReflectionTestUtils.setField(jwtKeyService, "jwtSecret", "rotated-secret");
+        jwtKeyService.init();
+        jwtKeyService.reload();
+
+        assertEquals(2, stored.size());
+        String current = jwtKeyService.signingKey().getKid();
+        assertNotEquals(previous, current);
+        assertNull(jwtKeyService.publicKey(previous));
+        assertEquals(1, ((List<?>) jwtKeyService.jwks().get("keys")).size());
+    }
+
+    @Test
+    void testJwks_EllipticCurveKey() {
+        ReflectionTestUtils.setField(jwtKeyService, "jwtSigningAlgorithm", "ES256");
+        jwtKeyService.init();
+
+        Map<?, ?> jwk = (Map<?, ?>) ((List<?>) jwtKeyService.jwks().get("keys")).get(0);
+
+        assertEquals("EC", jwk.get("kty"));
+        assertEquals("P-256", jwk.get("crv"));
+        assertEquals("ES256", jwk.get("alg"));
+        assertEquals(43, ((String) jwk.get("x")).length());
+        assertEquals(43, ((String) jwk.get("y")).length());
+    }
+
+    @Test
+    void testInit_RejectsHmac() {
+        ReflectionTestUtils.setField(jwtKeyService, "jwtSigningAlgorithm", "HS256");
+
+        assertThrows(IllegalStateException.class, () -> jwtKeyService.init());
+    }
+
+    private JwtSigningKey newest() {
+        return stored.stream().max(Comparator.comparing(JwtSigningKey::getCreatedAt)).orElseThrow();
+    }
+
+    private static void age(JwtSigningKey key, long millis) {
+        key.setCreatedAt(Instant.now().minusMillis(millis));
+    }
+}
@@ -0,0 +1,77 @@
+package com.bezkoder.springjwt.security.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitServiceTest {
+
+    private RateLimitService rateLimitService;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitService = new RateLimitService();
+        ReflectionTestUtils.setField(rateLimitService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(rateLimitService, "rateLimits", "GET /api/cases/**=0.5/3; /api/**=100");
+        rateLimitService.init();
+    }
+
+    @Test
+    void testBudgetFor_FirstMatchingRule() {
+        assertEquals("GET /api/cases/**", rateLimitService.budgetFor("GET", "/api/cases/statistics").getName());
+        assertEquals("/api/**", rateLimitService.budgetFor("POST", "/api/cases").getName());
+        assertNull(rateLimitService.budgetFor("GET", "/actuator/prometheus"));
+    }
+
+    @Test
+    void testTryAcquire_BurstThenThrottled() {
+        RateLimitService.Budget budget = rateLimitService.budgetFor("GET", "/api/cases");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimitService.tryAcquire(budget, "user", "u1"));
+        }
+        long waitNanos = rateLimitService.tryAcquire(budget, "user", "u1");
+
+        // One token every two seconds
+        assertTrue(waitNanos > 1_000_000_000L && waitNanos <= 2_000_000_000L);
+        assertEquals(1.0, meterRegistry.get("cashback_rate_limited_total")
+                .tag("budget", "GET /api/cases/**").tag("client", "user").counter().count());
+    }
+
+    @Test
+    void testTryAcquire_SeparateBucketsPerClient() {
+        RateLimitService.Budget budget = rateLimitService.budgetFor("GET", "/api/cases");
+        for (int i = 0; i < 3; i++) {
+            rateLimitService.tryAcquire(budget, "user", "u1");
+        }
+
+        assertTrue(rateLimitService.tryAcquire(budget, "user", "u1") > 0);
+        assertEquals(0, rateLimitService.tryAcquire(budget, "ip", "10.0.0.1"));
+    }
+
+    @Test
+    void testSweep_DropsOnlyRefilledBuckets() throws Exception {
+        rateLimitService.tryAcquire(rateLimitService.budgetFor("GET", "/api/cases"), "user", "u1");
+        rateLimitService.tryAcquire(rateLimitService.budgetFor("POST", "/api/cases"), "user", "u1");
+        Thread.sleep(20);
+
+        rateLimitService.sweep();
+
+        assertEquals(1, rateLimitService.bucketCount());
+    }
+
+    @Test
+    void testInit_InvalidRule() {
+        ReflectionTestUtils.setField(rateLimitService, "rateLimits", "/api/**=fast");
+
+        assertThrows(IllegalStateException.class, () -> rateLimitService.init());
+    }
+}
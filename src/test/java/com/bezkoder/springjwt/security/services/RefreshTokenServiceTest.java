@@ -0,0 +1,141 @@
+package com.bezkoder.springjwt.security.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bezkoder.springjwt.exception.TokenRefreshException;
+import com.bezkoder.springjwt.models.RefreshToken;
+import com.bezkoder.springjwt.models.User;
+import com.bezkoder.springjwt.repository.RefreshTokenRepository;
+import com.bezkoder.springjwt.repository.UserRepository;
+
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private TokenVersionService tokenVersionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private UserDetailsImpl user;
+
+    private final List<RefreshToken> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        user = new UserDetailsImpl(3L, "engineer", "engineer@example.com", "hash", List.of(), 2L);
+
+        User owner = new User("engineer", "engineer@example.com", "hash", "Eve", "Engineer");
+        owner.setId(3L);
+        AtomicLong ids = new AtomicLong();
+        when(userRepository.getReferenceById(3L)).thenReturn(owner);
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            token.setId(ids.incrementAndGet());
+            saved.add(token);
+            return token;
+        });
+        when(tokenVersionService.isCurrent(3L, 2L)).thenReturn(true);
+        when(userDetailsService.loadUserByUsername("engineer")).thenReturn(user);
+    }
+
+    @Test
+    void testCreateRefreshToken_StoresOnlyTheHash() {
+        String token = refreshTokenService.createRefreshToken(user);
+
+        assertEquals(1, saved.size());
+        assertNotEquals(token, saved.get(0).getTokenHash());
+        assertEquals(RefreshTokenService.hash(token), saved.get(0).getTokenHash());
+        assertEquals(2L, saved.get(0).getTokenVersion());
+    }
+
+    @Test
+    void testRotate_IssuesNewTokenOfSameFamilyWithoutLookup() {
+        String token = refreshTokenService.createRefreshToken(user);
+        when(refreshTokenRepository.revokeIfActive(1L)).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(token);
+
+        assertNotEquals(token, rotation.getRefreshToken());
+        assertSame(user, rotation.getUser());
+        assertEquals(saved.get(0).getFamilyId(), saved.get(1).getFamilyId());
+        verify(refreshTokenRepository, never()).findByTokenHash(anyString());
+    }
+
+    @Test
+    void testRotate_ReuseRevokesFamily() {
+        String token = refreshTokenService.createRefreshToken(user);
+        when(refreshTokenRepository.revokeIfActive(1L)).thenReturn(1, 0);
+        refreshTokenService.rotate(token);
+
+        // The rotated token is looked up again and found already revoked
+        RefreshToken stored = saved.get(0);
+        stored.setRevoked(true);
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotate(token));
+        verify(refreshTokenRepository).revokeFamily(stored.getFamilyId());
+    }
+
+    @Test
+    void testRotate_ExpiredToken() {
+        ReflectionTestUtils.setField(refreshTokenService, "jwtRefreshExpirationMs", -1000L);
+        String token = refreshTokenService.createRefreshToken(user);
+
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotate(token));
+        verify(refreshTokenRepository, never()).revokeIfActive(anyLong());
+    }
+
+    @Test
+    void testRotate_RevokedTokenVersion() {
+        String token = refreshTokenService.createRefreshToken(user);
+        when(tokenVersionService.isCurrent(3L, 2L)).thenReturn(false);
+
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotate(token));
+        verify(refreshTokenRepository, never()).revokeIfActive(anyLong());
+    }
+
+    @Test
+    void testRotate_UnknownToken() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotate("unknown"));
+    }
+
+    @Test
+    void testDeleteExpiredTokens() {
+        refreshTokenService.deleteExpiredTokens();
+
+        verify(refreshTokenRepository).deleteExpired(any(Instant.class));
+    }
+}
@@ -0,0 +1,109 @@
+package com.bezkoder.springjwt.security.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bezkoder.springjwt.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SignInServiceTest {
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private Authentication authentication;
+
+    @InjectMocks
+    private SignInService signInService;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(signInService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(signInService, "signinThreads", 1);
+        ReflectionTestUtils.setField(signInService, "signinQueueCapacity", 1);
+        signInService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        signInService.shutdown();
+    }
+
+    @Test
+    void testAuthenticate_RunsOnSigninPool() {
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().matches("signin-\\d+"));
+            return authentication;
+        });
+
+        assertSame(authentication, signInService.authenticate("user", "secret").join());
+    }
+
+    @Test
+    void testAuthenticate_ChainedWorkRunsOffSigninPool() {
+        when(authenticationManager.authenticate(any())).thenReturn(authentication);
+
+        String thread = signInService.authenticate("user", "secret")
+                .thenApply(result -> Thread.currentThread().getName())
+                .join();
+        // On the issuing pool, or on the caller when the future was already complete
+        assertFalse(thread.matches("signin-\\d+"), thread);
+    }
+
+    @Test
+    void testAuthenticate_BadCredentialsCompleteExceptionally() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> signInService.authenticate("user", "wrong").join());
+        assertInstanceOf(BadCredentialsException.class, e.getCause());
+    }
+
+    @Test
+    void testAuthenticate_ShedsWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return authentication;
+        });
+
+        CompletableFuture<Authentication> running = signInService.authenticate("a", "secret");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Authentication> queued = signInService.authenticate("b", "secret");
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> signInService.authenticate("c", "secret"));
+        assertEquals(2, e.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("cashback_signin_rejected_total").counter().count());
+
+        release.countDown();
+        assertSame(authentication, running.join());
+        assertSame(authentication, queued.join());
+    }
+}
@@ -0,0 +1,117 @@
+package com.bezkoder.springjwt.security.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bezkoder.springjwt.models.RevokedToken;
+import com.bezkoder.springjwt.repository.RevokedTokenRepository;
+import com.bezkoder.springjwt.services.ChangeVersionService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private ChangeVersionService changeVersionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(tokenRevocationService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(tokenRevocationService, "revocationExpectedTokens", 1000L);
+        tokenRevocationService.init();
+        when(revokedTokenRepository.findActiveJtis(any(Instant.class))).thenReturn(List.of("revoked-id"));
+    }
+
+    @Test
+    void testIsRevoked_UnknownIdNeedsNoLookup() {
+        assertFalse(tokenRevocationService.isRevoked("other-id"));
+
+        verify(revokedTokenRepository, never()).existsByJti(anyString());
+    }
+
+    @Test
+    void testIsRevoked_FilterHitConfirmedInDatabase() {
+        when(revokedTokenRepository.existsByJti("revoked-id")).thenReturn(true);
+
+        assertTrue(tokenRevocationService.isRevoked("revoked-id"));
+        assertEquals(1.0, meterRegistry.get("cashback_token_revocation_lookups_total").counter().count());
+        assertEquals(0.0, meterRegistry.get("cashback_token_revocation_false_positives_total").counter().count());
+    }
+
+    @Test
+    void testRevoke_AddsToLocalFilterAndBumpsVersion() {
+        tokenRevocationService.isRevoked("new-id");
+        when(revokedTokenRepository.existsByJti("new-id")).thenReturn(true);
+
+        tokenRevocationService.revoke("new-id", 3L, Instant.now().plusSeconds(60), "signout");
+
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        verify(changeVersionService).bump(TokenRevocationService.VERSION_NAME);
+        assertTrue(tokenRevocationService.isRevoked("new-id"));
+    }
+
+    @Test
+    void testRevoke_AlreadyRevokedIsNotAnError() {
+        when(revokedTokenRepository.save(any(RevokedToken.class)))
+            .thenThrow(new DataIntegrityViolationException("uk_revoked_tokens_jti"));
+        when(revokedTokenRepository.existsByJti("revoked-id")).thenReturn(true);
+
+        assertDoesNotThrow(() -> tokenRevocationService.revoke("revoked-id", 3L, Instant.now().plusSeconds(60), "signout"));
+    }
+
+    @Test
+    void testRevoke_OtherIntegrityViolationPropagates() {
+        when(revokedTokenRepository.save(any(RevokedToken.class)))
+            .thenThrow(new DataIntegrityViolationException("reason too long"));
+        when(revokedTokenRepository.existsByJti("new-id")).thenReturn(false);
+
+        assertThrows(DataIntegrityViolationException.class,
+            () -> tokenRevocationService.revoke("new-id", 3L, Instant.now().plusSeconds(60), "signout"));
+    }
+
+    @Test
+    void testRevoke_ExpiredTokenIgnored() {
+        tokenRevocationService.revoke("old-id", 3L, Instant.now().minusSeconds(1), "signout");
+
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void testPollVersion_RebuildsWhenVersionMoved() {
+        tokenRevocationService.pollVersion();
+        tokenRevocationService.pollVersion();
+        verify(revokedTokenRepository, times(1)).findActiveJtis(any(Instant.class));
+
+        when(changeVersionService.currentVersion(TokenRevocationService.VERSION_NAME)).thenReturn(1L);
+        tokenRevocationService.pollVersion();
+        verify(revokedTokenRepository, times(2)).findActiveJtis(any(Instant.class));
+    }
+}
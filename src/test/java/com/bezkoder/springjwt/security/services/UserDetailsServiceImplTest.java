@@ -0,0 +1,125 @@
+package com.bezkoder.springjwt.security.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bezkoder.springjwt.models.ERole;
+import com.bezkoder.springjwt.models.Role;
+import com.bezkoder.springjwt.models.User;
+import com.bezkoder.springjwt.repository.UserRepository;
+import com.bezkoder.springjwt.services.ChangeVersionService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserDetailsServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ChangeVersionService changeVersionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UserDetailsServiceImpl userDetailsService;
+
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(userDetailsService, "meterRegistry", meterRegistry);
+        userDetailsService.init();
+
+        user = new User("engineer", "engineer@example.com", "hash", "Eve", "Engineer");
+        user.setId(5L);
+        user.setRoles(Set.of(new Role(ERole.ROLE_USER)));
+        when(userRepository.findByUsername("engineer")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void testLoadUserByUsername_CachedAfterFirstLoad() {
+        UserDetails first = userDetailsService.loadUserByUsername("engineer");
+        UserDetails second = userDetailsService.loadUserByUsername("engineer");
+
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByUsername("engineer");
+        assertEquals(0.5, meterRegistry.get("cashback_user_details_cache_hit_ratio").gauge().value());
+    }
+
+    @Test
+    void testLoadUserByUsername_ExpiredEntryReloaded() {
+        ReflectionTestUtils.setField(userDetailsService, "userDetailsCacheTtlMs", 0L);
+
+        userDetailsService.loadUserByUsername("engineer");
+        userDetailsService.loadUserByUsername("engineer");
+
+        verify(userRepository, times(2)).findByUsername("engineer");
+    }
+
+    @Test
+    void testEvictUser_ReloadsAndBumpsVersion() {
+        userDetailsService.loadUserByUsername("engineer");
+        userDetailsService.evictUser("engineer");
+        userDetailsService.loadUserByUsername("engineer");
+
+        verify(changeVersionService).bump(UserDetailsServiceImpl.VERSION_NAME);
+        verify(userRepository, times(2)).findByUsername("engineer");
+    }
+
+    @Test
+    void testPollVersion_ClearsCacheWhenVersionMoved() {
+        when(changeVersionService.currentVersion(UserDetailsServiceImpl.VERSION_NAME)).thenReturn(1L);
+        userDetailsService.pollVersion();
+        userDetailsService.loadUserByUsername("engineer");
+        assertEquals(1, userDetailsService.cacheSize());
+
+        // Same version, cache kept
+        userDetailsService.pollVersion();
+        assertEquals(1, userDetailsService.cacheSize());
+
+        when(changeVersionService.currentVersion(UserDetailsServiceImpl.VERSION_NAME)).thenReturn(2L);
+        userDetailsService.pollVersion();
+        assertEquals(0, userDetailsService.cacheSize());
+    }
+
+    @Test
+    void testLoadUserByUsername_UnknownUserNotCached() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertEquals(0, userDetailsService.cacheSize());
+    }
+
+    @Test
+    void testUpdatePassword_StoresNewHashAndRefreshesEntry() {
+        UserDetails loaded = userDetailsService.loadUserByUsername("engineer");
+
+        UserDetails updated = userDetailsService.updatePassword(loaded, "new-hash");
+
+        verify(userRepository).updatePassword("engineer", "new-hash");
+        assertEquals("new-hash", updated.getPassword());
+        assertSame(updated, userDetailsService.loadUserByUsername("engineer"));
+        verify(changeVersionService, never()).bump(any());
+    }
+}
@@ -0,0 +1,189 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bezkoder.springjwt.exception.OperationNotAllowedException;
+import com.bezkoder.springjwt.models.BatchCheckpoint;
+import com.bezkoder.springjwt.models.BatchRun;
+import com.bezkoder.springjwt.models.EBatchStatus;
+import com.bezkoder.springjwt.models.Setting;
+import com.bezkoder.springjwt.repository.BatchCheckpointRepository;
+import com.bezkoder.springjwt.repository.BatchRunRepository;
+import com.bezkoder.springjwt.repository.EngineerRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BonusBatchServiceTest {
+
+    @Mock
+    private EngineerRepository engineerRepository;
+
+    @Mock
+    private BonusService bonusService;
+
+    @Mock
+    private BatchRunRepository batchRunRepository;
+
+    @Mock
+    private BatchCheckpointRepository batchCheckpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ChangeVersionService changeVersionService;
+
+    @Mock
+    private Timer bonusBatchTimer;
+
+    @Mock
+    private MeterRegistry meterRegistry;
+
+    @InjectMocks
+    private BonusBatchService bonusBatchService;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private final LocalDate startPeriod = LocalDate.of(2025, 1, 1);
+    private final LocalDate endPeriod = LocalDate.of(2025, 3, 31);
+
+    private BatchRun run;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(bonusBatchService, "bonusBatchReadTimer", registry.timer("read"));
+        ReflectionTestUtils.setField(bonusBatchService, "bonusBatchProcessTimer", registry.timer("process"));
+        ReflectionTestUtils.setField(bonusBatchService, "bonusBatchWriteTimer", registry.timer("write"));
+        ReflectionTestUtils.setField(bonusBatchService, "bonusBatchChunkSize", 2);
+        when(meterRegistry.counter(anyString(), any(String[].class)))
+                .thenAnswer(invocation -> registry.counter("test"));
+        when(batchRunRepository.save(any(BatchRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Setting global = new Setting("global", 10.0, 5.0, null);
+        global.setId(1L);
+        when(bonusService.loadCoefficients()).thenReturn(new SettingsService.Snapshot(1L, List.of(global)));
+        bonusBatchService.init();
+
+        run = new BatchRun(BonusBatchService.JOB_NAME, null, startPeriod.atStartOfDay(), endPeriod.atTime(23, 59, 59));
+        run.setId(9L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bonusBatchService.shutdown();
+    }
+
+    @Test
+    void testExecute_ProcessesChunksAndSkipsCheckpointedRanges() {
+        when(engineerRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(engineerRepository.findIdsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of(3L, 4L));
+        when(engineerRepository.findIdsAfter(eq(4L), any(Pageable.class))).thenReturn(List.of(5L));
+        when(engineerRepository.findIdsAfter(eq(5L), any(Pageable.class))).thenReturn(List.of());
+        // First chunk was committed before the node died
+        when(batchCheckpointRepository.findByRunId(9L)).thenReturn(List.of(new BatchCheckpoint(9L, 1L, 2L, 2)));
+
+        BatchRun result = bonusBatchService.execute(run);
+
+        assertEquals(EBatchStatus.COMPLETED, result.getStatus());
+        assertEquals(5, result.getTotalItems());
+        assertEquals(5, result.getProcessedItems());
+        verify(bonusService, never()).computeBonusRows(any(), any(), eq(List.of(1L, 2L)), any(), any());
+        verify(bonusService).replaceBonusRows(eq(startPeriod), eq(endPeriod), eq(List.of(3L, 4L)), anyList());
+        verify(bonusService).replaceBonusRows(eq(startPeriod), eq(endPeriod), eq(List.of(5L)), anyList());
+
+        ArgumentCaptor<BatchCheckpoint> checkpoints = ArgumentCaptor.forClass(BatchCheckpoint.class);
+        verify(batchCheckpointRepository, times(2)).save(checkpoints.capture());
+        assertTrue(checkpoints.getAllValues().stream()
+                .anyMatch(c -> c.getFirstItemId() == 3L && c.getLastItemId() == 4L && c.getItemCount() == 2));
+        assertEquals(2, registry.timer("write").count());
+    }
+
+    @Test
+    void testExecute_FailedChunkMarksRunFailed() {
+        when(engineerRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(engineerRepository.findIdsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of());
+        doThrow(new RuntimeException("boom")).when(bonusService)
+                .replaceBonusRows(any(), any(), eq(List.of(1L, 2L)), anyList());
+
+        BatchRun result = bonusBatchService.execute(run);
+
+        assertEquals(EBatchStatus.FAILED, result.getStatus());
+        assertEquals(0, result.getProcessedItems());
+        assertEquals(2, result.getFailedItems());
+        assertTrue(result.getLastError().contains("Engineers 1-2"));
+        verify(batchCheckpointRepository, never()).save(any(BatchCheckpoint.class));
+    }
+
+    @Test
+    void testStartRun_RejectsPeriodAlreadyRunning() {
+        BatchRun running = new BatchRun(BonusBatchService.JOB_NAME, null,
+                startPeriod.atStartOfDay(), endPeriod.atTime(23, 59, 59));
+        when(batchRunRepository.findByJobNameAndStatus(BonusBatchService.JOB_NAME, EBatchStatus.RUNNING))
+                .thenReturn(List.of(running));
+
+        assertThrows(OperationNotAllowedException.class,
+                () -> bonusBatchService.startRun(startPeriod, endPeriod));
+        // Checked under the lock of the runs version row
+        verify(changeVersionService).bump(BonusBatchService.RUNS_VERSION_NAME);
+        verify(batchRunRepository, never()).save(any(BatchRun.class));
+    }
+
+    @Test
+    void testStartRun_StoresCoefficientsAndCalculationDate() {
+        when(batchRunRepository.save(any(BatchRun.class))).thenAnswer(invocation -> {
+            BatchRun saved = invocation.getArgument(0);
+            saved.setId(10L);
+            return saved;
+        });
+
+        BatchRun started = bonusBatchService.startRun(startPeriod, endPeriod);
+
+        assertEquals(LocalDate.now(), started.getCalculationDate());
+        assertEquals(10.0, SettingsService.Snapshot.fromJson(started.getCoefficients())
+                .getGlobalSetting().getCaseCoefficient());
+    }
+
+    @Test
+    void testExecute_ResumedRunKeepsItsCoefficientsAndDate() {
+        Setting global = new Setting("global", 10.0, 5.0, null);
+        global.setId(1L);
+        run.setCoefficients(new SettingsService.Snapshot(1L, List.of(global)).toJson());
+        run.setCalculationDate(LocalDate.of(2025, 4, 1));
+        // The settings changed since the run started
+        Setting changed = new Setting("global", 99.0, 99.0, null);
+        changed.setId(1L);
+        when(bonusService.loadCoefficients()).thenReturn(new SettingsService.Snapshot(2L, List.of(changed)));
+        when(engineerRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L));
+        when(engineerRepository.findIdsAfter(eq(1L), any(Pageable.class))).thenReturn(List.of());
+
+        bonusBatchService.execute(run);
+
+        ArgumentCaptor<SettingsService.Snapshot> coefficients = ArgumentCaptor.forClass(SettingsService.Snapshot.class);
+        verify(bonusService).computeBonusRows(eq(startPeriod), eq(endPeriod), eq(List.of(1L)), coefficients.capture(),
+                eq(LocalDate.of(2025, 4, 1)));
+        assertEquals(10.0, coefficients.getValue().getGlobalSetting().getCaseCoefficient());
+        verify(bonusService, never()).loadCoefficients();
+    }
+}
@@ -0,0 +1,156 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import com.bezkoder.springjwt.exception.InvalidDataException;
+import com.bezkoder.springjwt.models.CaseChange;
+import com.bezkoder.springjwt.models.Setting;
+import com.bezkoder.springjwt.models.User;
+import com.bezkoder.springjwt.repository.BonusRepository;
+import com.bezkoder.springjwt.repository.CaseChangeRepository;
+import com.bezkoder.springjwt.repository.CaseRepository;
+import com.bezkoder.springjwt.repository.EngineerSurveyStats;
+
+class BonusServiceTest {
+
+    @Mock
+    private CaseRepository caseRepository;
+
+    @Mock
+    private SettingsService settingsService;
+
+    @Mock
+    private BonusRepository bonusRepository;
+
+    @Mock
+    private CaseChangeRepository caseChangeRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private BonusService bonusService;
+
+    private final LocalDate startPeriod = LocalDate.of(2025, 1, 1);
+    private final LocalDate endPeriod = LocalDate.of(2025, 3, 31);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCalculateBonuses_UsesManagerSettingOverGlobal() {
+        User manager = new User();
+        manager.setId(20L);
+
+        Setting global = new Setting("global", 10.0, 5.0, null);
+        global.setId(1L);
+        Setting managerSetting = new Setting("team", 20.0, 1.5, manager);
+        managerSetting.setId(2L);
+
+        when(settingsService.snapshot()).thenReturn(new SettingsService.Snapshot(1L, List.of(global, managerSetting)));
+        when(caseRepository.aggregateSurveyStats(any(LocalDateTime.class), any(LocalDateTime.class), eq(4)))
+                .thenReturn(List.of(stats(1L, null, 3L, 2L), stats(2L, 20L, 1L, 4L)));
+
+        Map<String, Object> result = bonusService.calculateBonuses(startPeriod, endPeriod);
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), eq(BonusService.BATCH_SIZE),
+                any(ParameterizedPreparedStatementSetter.class));
+
+        // 3 * 10 + 2 * 5 with the global setting, 1 * 20 + 4 * 1.5 with the manager's setting
+        assertEquals(new BigDecimal("40.00"), rows.getValue().get(0)[0]);
+        assertEquals(new BigDecimal("26.00"), rows.getValue().get(1)[0]);
+        assertEquals(2, result.get("engineers"));
+        assertEquals(new BigDecimal("66.00"), result.get("totalAmount"));
+        verify(jdbcTemplate).update(startsWith("DELETE FROM bonuses"),
+                eq(Date.valueOf(startPeriod)), eq(Date.valueOf(endPeriod)));
+    }
+
+    @Test
+    void testCalculateBonuses_NoSetting() {
+        when(settingsService.snapshot()).thenReturn(new SettingsService.Snapshot(0L, List.of()));
+        when(caseRepository.aggregateSurveyStats(any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of());
+
+        assertThrows(InvalidDataException.class, () -> bonusService.calculateBonuses(startPeriod, endPeriod));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecomputeChangedBonuses_RefreshesOnlyAffectedEngineers() {
+        CaseChange inPeriod = new CaseChange(1L, LocalDate.of(2025, 2, 10));
+        inPeriod.setId(100L);
+        CaseChange outOfPeriod = new CaseChange(2L, LocalDate.of(2025, 6, 1));
+        outOfPeriod.setId(101L);
+
+        Setting global = new Setting("global", 10.0, 5.0, null);
+        global.setId(1L);
+
+        when(caseChangeRepository.findByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(inPeriod, outOfPeriod));
+        when(bonusRepository.findDistinctPeriods())
+                .thenReturn(List.<Object[]>of(new Object[] { startPeriod, endPeriod }));
+        when(settingsService.snapshot()).thenReturn(new SettingsService.Snapshot(1L, List.of(global)));
+        when(caseRepository.aggregateSurveyStatsForEngineers(any(LocalDateTime.class), any(LocalDateTime.class),
+                eq(4), eq(Set.of(1L)))).thenReturn(List.of(stats(1L, null, 2L, 0L)));
+
+        int consumed = bonusService.recomputeChangedBonuses(500);
+
+        assertEquals(2, consumed);
+        verify(bonusRepository).deleteByPeriodAndEngineerIds(startPeriod, endPeriod, Set.of(1L));
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), eq(BonusService.BATCH_SIZE),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1, rows.getValue().size());
+        assertEquals(new BigDecimal("20.00"), rows.getValue().get(0)[0]);
+        verify(caseChangeRepository).deleteAllByIdInBatch(List.of(100L, 101L));
+    }
+
+    @Test
+    void testRecomputeChangedBonuses_NothingPending() {
+        when(caseChangeRepository.findByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(0, bonusService.recomputeChangedBonuses(500));
+        verifyNoInteractions(jdbcTemplate, bonusRepository);
+    }
+
+    @Test
+    void testComputeAmount_RoundsToCents() {
+        assertEquals(new BigDecimal("0.67"), BonusService.computeAmount(2L, 0L, 0.3333, 1.0));
+        assertEquals(new BigDecimal("0.00"), BonusService.computeAmount(null, null, 1.0, 1.0));
+    }
+
+    private EngineerSurveyStats stats(Long engineerId, Long managerUserId, Long caseCount, Long chatCount) {
+        return new EngineerSurveyStats() {
+            public Long getEngineerId() { return engineerId; }
+            public Long getManagerUserId() { return managerUserId; }
+            public Long getCaseCount() { return caseCount; }
+            public Long getChatCount() { return chatCount; }
+        };
+    }
+}
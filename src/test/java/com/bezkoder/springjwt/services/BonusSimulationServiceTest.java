@@ -0,0 +1,110 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.bezkoder.springjwt.exception.InvalidDataException;
+import com.bezkoder.springjwt.payload.request.BonusSimulationRequest;
+import com.bezkoder.springjwt.payload.request.BonusSimulationRequest.CoefficientSet;
+import com.bezkoder.springjwt.payload.response.BonusSimulationResult;
+import com.bezkoder.springjwt.repository.CaseRepository;
+import com.bezkoder.springjwt.repository.EngineerSurveyStats;
+
+class BonusSimulationServiceTest {
+
+    @Mock
+    private CaseRepository caseRepository;
+
+    @InjectMocks
+    private BonusSimulationService bonusSimulationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        bonusSimulationService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bonusSimulationService.shutdown();
+    }
+
+    @Test
+    void testSimulate_EvaluatesEverySetOnTheSameSnapshot() {
+        when(caseRepository.aggregateSurveyStats(any(LocalDateTime.class), any(LocalDateTime.class), eq(4)))
+                .thenReturn(List.of(stats(1L, 3L, 2L), stats(2L, 1L, 4L), stats(3L, 0L, 0L)));
+
+        BonusSimulationRequest request = request(
+                new CoefficientSet("current", 10.0, 5.0),
+                new CoefficientSet("chat heavy", 2.5, 7.25));
+
+        List<BonusSimulationResult> results = bonusSimulationService.simulate(request);
+
+        assertEquals(2, results.size());
+        BonusSimulationResult current = results.get(0);
+        assertEquals("current", current.getLabel());
+        assertEquals(new BigDecimal("70.00"), current.getTotalAmount());
+        assertEquals(new BigDecimal("40.00"), current.getAmountsByEngineer().get(1L));
+        assertEquals(new BigDecimal("30.00"), current.getAmountsByEngineer().get(2L));
+        assertEquals(new BigDecimal("0.00"), current.getMinAmount());
+        assertEquals(new BigDecimal("30.00"), current.getMedianAmount());
+        assertEquals(new BigDecimal("40.00"), current.getMaxAmount());
+        assertEquals(new BigDecimal("23.33"), current.getAverageAmount());
+
+        // 3 * 2.5 + 2 * 7.25 and 1 * 2.5 + 4 * 7.25
+        assertEquals(new BigDecimal("53.50"), results.get(1).getTotalAmount());
+        verify(caseRepository, times(1)).aggregateSurveyStats(any(), any(), any());
+    }
+
+    @Test
+    void testEvaluate_MatchesBigDecimalRounding() {
+        BonusSimulationService.Snapshot snapshot = new BonusSimulationService.Snapshot(1);
+        snapshot.engineerIds[0] = 1L;
+        snapshot.caseCounts[0] = 2L;
+
+        BonusSimulationResult result = BonusSimulationService.evaluate(snapshot,
+                new CoefficientSet(null, 0.3333, 1.0), false);
+
+        assertEquals(BonusService.computeAmount(2L, 0L, 0.3333, 1.0), result.getTotalAmount());
+        assertNull(result.getAmountsByEngineer());
+    }
+
+    @Test
+    void testSimulate_RejectsNegativeCoefficient() {
+        BonusSimulationRequest request = request(new CoefficientSet("bad", -1.0, 1.0));
+
+        assertThrows(InvalidDataException.class, () -> bonusSimulationService.simulate(request));
+        verifyNoInteractions(caseRepository);
+    }
+
+    private BonusSimulationRequest request(CoefficientSet... sets) {
+        BonusSimulationRequest request = new BonusSimulationRequest();
+        request.setStartPeriod(LocalDate.of(2025, 1, 1));
+        request.setEndPeriod(LocalDate.of(2025, 3, 31));
+        request.setCoefficientSets(List.of(sets));
+        return request;
+    }
+
+    private EngineerSurveyStats stats(Long engineerId, Long caseCount, Long chatCount) {
+        return new EngineerSurveyStats() {
+            public Long getEngineerId() { return engineerId; }
+            public Long getManagerUserId() { return null; }
+            public Long getCaseCount() { return caseCount; }
+            public Long getChatCount() { return chatCount; }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bezkoder.springjwt.models.Engineer;
+import com.bezkoder.springjwt.repository.CaseRepository;
+import com.bezkoder.springjwt.repository.EngineerRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CaseStatisticsServiceTest {
+
+    @Mock
+    private CaseRepository caseRepository;
+
+    @Mock
+    private EngineerRepository engineerRepository;
+
+    @Mock
+    private MeterRegistry meterRegistry;
+
+    @InjectMocks
+    private CaseStatisticsService caseStatisticsService;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private final LocalDateTime startDate = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private final LocalDateTime endDate = LocalDateTime.of(2025, 1, 31, 23, 59, 59);
+
+    private Engineer engineer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(meterRegistry.counter(anyString(), any(String[].class)))
+            .thenAnswer(invocation -> registry.counter(invocation.getArgument(0), "outcome", invocation.getArgument(2)));
+
+        engineer = new Engineer();
+        engineer.setId(1L);
+        engineer.setFullName("Ada Lovelace");
+        when(engineerRepository.findById(1L)).thenReturn(Optional.of(engineer));
+        when(caseRepository.countCasesResolvedByEngineer(engineer, startDate, endDate)).thenReturn(10L);
+        when(caseRepository.calculateAverageCesRating(engineer, startDate, endDate)).thenReturn(4.5);
+    }
+
+    @Test
+    void testEngineerStatistics_ConcurrentIdenticalRequestsShareOneComputation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(caseRepository.countCasesResolvedByEngineer(engineer, startDate, endDate)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 10L;
+        });
+
+        ExecutorService requests = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Optional<Map<String, Object>>>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                results.add(requests.submit(() -> caseStatisticsService.engineerStatistics(1L, startDate, endDate)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Optional<Map<String, Object>>> result : results) {
+                assertEquals(10L, result.get(5, TimeUnit.SECONDS).get().get("caseCount"));
+            }
+        } finally {
+            requests.shutdownNow();
+        }
+
+        verify(caseRepository, times(1)).countCasesResolvedByEngineer(any(), any(), any());
+        verify(caseRepository, times(1)).calculateAverageCesRating(any(), any(), any());
+        assertEquals(1.0, registry.counter(CaseStatisticsService.REQUESTS_METRIC, "outcome", "computed").count());
+        assertEquals(5.0, registry.counter(CaseStatisticsService.REQUESTS_METRIC, "outcome", "coalesced").count());
+        assertEquals(5.0 / 6, caseStatisticsService.dedupeRatio(), 1e-9);
+    }
+
+    @Test
+    void testEngineerStatistics_ReusedWithinTtlOnly() {
+        Map<String, Object> first = caseStatisticsService.engineerStatistics(1L, startDate, endDate).get();
+        // Same period, written differently in the request
+        assertSame(first, caseStatisticsService.engineerStatistics(1L, LocalDateTime.parse("2025-01-01T00:00:00.000"),
+            endDate).get());
+        assertEquals(1.0, registry.counter(CaseStatisticsService.REQUESTS_METRIC, "outcome", "cached").count());
+
+        // Other parameters, other computation
+        caseStatisticsService.engineerStatistics(1L, startDate.plusDays(1), endDate);
+        verify(caseRepository, times(2)).calculateAverageCesRating(any(), any(), any());
+
+        ReflectionTestUtils.setField(caseStatisticsService, "statisticsTtlMs", 0L);
+        assertNotSame(first, caseStatisticsService.engineerStatistics(1L, startDate, endDate).get());
+        verify(caseRepository, times(3)).calculateAverageCesRating(any(), any(), any());
+    }
+
+    @Test
+    void testEngineerStatistics_FailuresAndMissingEngineers() {
+        when(engineerRepository.findById(2L)).thenThrow(new IllegalStateException("down")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> caseStatisticsService.engineerStatistics(2L, startDate, endDate));
+        // The failure is not kept
+        assertTrue(caseStatisticsService.engineerStatistics(2L, startDate, endDate).isEmpty());
+    }
+
+    @Test
+    void testEngineerStatistics_ErrorsAreNotKept() {
+        when(engineerRepository.findById(3L)).thenThrow(new StackOverflowError()).thenReturn(Optional.empty());
+
+        assertThrows(StackOverflowError.class, () -> caseStatisticsService.engineerStatistics(3L, startDate, endDate));
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+            () -> assertTrue(caseStatisticsService.engineerStatistics(3L, startDate, endDate).isEmpty()));
+    }
+}
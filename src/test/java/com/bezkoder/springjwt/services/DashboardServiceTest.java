@@ -0,0 +1,148 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bezkoder.springjwt.payload.response.DashboardResponse;
+import com.bezkoder.springjwt.repository.CaseRepository;
+import com.bezkoder.springjwt.repository.EngineerRepository;
+import com.bezkoder.springjwt.repository.RefreshTokenRepository;
+import com.bezkoder.springjwt.repository.ReportRepository;
+import com.bezkoder.springjwt.repository.TeamRepository;
+import com.bezkoder.springjwt.repository.UserRepository;
+
+class DashboardServiceTest {
+
+    @Mock
+    private CaseRepository caseRepository;
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private EngineerRepository engineerRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private ReportRepository reportRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    // Released to let the computations blocked in caseRepository.count() finish
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        dashboardService.init();
+
+        when(caseRepository.count()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 120L;
+        });
+        when(caseRepository.countAndAverageCesSince(any())).thenReturn(List.<Object[]>of(new Object[] { 12L, 4.25 }));
+        when(teamRepository.count()).thenReturn(2L);
+        when(teamRepository.findSizes(any())).thenReturn(List.<Object[]>of(new Object[] { 1L, "Platform", 7L }));
+        when(engineerRepository.count()).thenReturn(9L);
+        when(engineerRepository.countByTeamIsNull()).thenReturn(2L);
+        when(userRepository.count()).thenReturn(5L);
+        when(refreshTokenRepository.countUsersWithActiveTokens(any())).thenReturn(3L);
+        when(reportRepository.findRecentSummaries(any()))
+            .thenReturn(List.<Object[]>of(new Object[] { 4L, "Ada Lovelace", null, 10 }));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    @Test
+    void testDashboard_ConcurrentFirstRequestsShareOneComputation() throws Exception {
+        release = new CountDownLatch(1);
+        ExecutorService requests = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<DashboardService.Snapshot>> snapshots = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                snapshots.add(requests.submit(dashboardService::dashboard));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            DashboardService.Snapshot first = snapshots.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<DashboardService.Snapshot> snapshot : snapshots) {
+                assertSame(first, snapshot.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            requests.shutdownNow();
+        }
+        verify(caseRepository, times(1)).count();
+
+        DashboardResponse response = dashboardService.dashboard().getResponse();
+        assertEquals(120L, response.getTotalCases());
+        assertEquals(12L, response.getRecentCases());
+        assertEquals(4.25, response.getRecentAverageCes());
+        assertEquals(2L, response.getUnassignedEngineers());
+        assertEquals("Platform", response.getLargestTeams().get(0).getName());
+        assertEquals(3L, response.getActiveUsers());
+        assertEquals("Ada Lovelace", response.getRecentReports().get(0).getEngineerName());
+    }
+
+    @Test
+    void testDashboard_FailedComputationDoesNotBlockTheNextOne() {
+        when(teamRepository.count()).thenThrow(new StackOverflowError()).thenReturn(2L);
+
+        assertThrows(CompletionException.class, () -> dashboardService.dashboard());
+        assertEquals(2L, dashboardService.dashboard().getResponse().getTeamCount());
+    }
+
+    @Test
+    void testDashboard_ServesStaleValueWhileRecomputing() throws Exception {
+        ReflectionTestUtils.setField(dashboardService, "dashboardMinRefreshMs", 0L);
+        DashboardService.Snapshot first = dashboardService.dashboard();
+
+        // A change starts a recomputation, which blocks
+        release = new CountDownLatch(1);
+        dashboardService.dataChanged();
+
+        // Meanwhile requests get the previous aggregate at once and start nothing more
+        assertSame(first, dashboardService.dashboard());
+        assertSame(first, dashboardService.dashboard());
+        CompletableFuture<DashboardService.Snapshot> inFlight = dashboardService.refresh();
+
+        ReflectionTestUtils.setField(dashboardService, "dashboardMinRefreshMs", 60000L);
+        release.countDown();
+        DashboardService.Snapshot second = inFlight.get(5, TimeUnit.SECONDS);
+        assertNotSame(first, second);
+        assertSame(second, dashboardService.dashboard());
+        verify(caseRepository, times(2)).count();
+    }
+}
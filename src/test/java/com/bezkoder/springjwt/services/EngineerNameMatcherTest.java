@@ -0,0 +1,61 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.bezkoder.springjwt.models.Engineer;
+
+class EngineerNameMatcherTest {
+
+    private final EngineerNameMatcher matcher = new EngineerNameMatcher(List.of(
+        engineer(1L, "John Smith"),
+        engineer(2L, "Joan Smithers"),
+        engineer(3L, "Zoë O'Neil")), 0.95);
+
+    @Test
+    void testMatch_SameWordsInAnyOrderAndSpelling() {
+        assertEquals(EngineerNameMatcher.Reason.EXACT, matcher.match("John Smith").reason);
+
+        EngineerNameMatcher.Match reordered = matcher.match("Smith,  John");
+        assertEquals(1L, reordered.engineer.getId());
+        assertEquals(EngineerNameMatcher.Reason.SAME_WORDS, reordered.reason);
+        assertEquals(3L, matcher.match("zoe o neil").engineer.getId());
+    }
+
+    @Test
+    void testMatch_SimilarNamesAboveThreshold() {
+        EngineerNameMatcher.Match typo = matcher.match("Jon Smith");
+        assertEquals(1L, typo.engineer.getId());
+        assertEquals(EngineerNameMatcher.Reason.SIMILAR, typo.reason);
+        assertTrue(typo.similarity >= 0.95 && typo.similarity < 1.0);
+
+        assertNull(matcher.match("Jane Doe"));
+        // Closer to "Joan Smithers" than to "John Smith"
+        assertEquals(2L, matcher.match("Joan Smith").engineer.getId());
+        assertNull(new EngineerNameMatcher(List.of(engineer(1L, "John Smith")), 1.0).match("Jon Smith"));
+    }
+
+    @Test
+    void testAdd_MatchesEngineersCreatedDuringImport() {
+        assertNull(matcher.match("Ada Lovelace"));
+        matcher.add(engineer(4L, "Ada Lovelace"));
+        assertEquals(4L, matcher.match("LOVELACE, Ada").engineer.getId());
+    }
+
+    @Test
+    void testJaroWinkler() {
+        assertEquals(1.0, EngineerNameMatcher.jaroWinkler("martha", "martha"));
+        assertEquals(0.961, EngineerNameMatcher.jaroWinkler("martha", "marhta"), 0.001);
+        assertEquals(0.0, EngineerNameMatcher.jaroWinkler("abc", "xyz"));
+    }
+
+    private static Engineer engineer(Long id, String fullName) {
+        Engineer engineer = new Engineer();
+        engineer.setId(id);
+        engineer.setFullName(fullName);
+        return engineer;
+    }
+}
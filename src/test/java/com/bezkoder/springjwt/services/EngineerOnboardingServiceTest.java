@@ -0,0 +1,105 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import com.bezkoder.springjwt.payload.request.EngineerUpsertRequest;
+import com.bezkoder.springjwt.payload.response.BulkEngineerResponse;
+import com.bezkoder.springjwt.repository.EngineerRepository;
+import com.bezkoder.springjwt.repository.TeamRepository;
+
+class EngineerOnboardingServiceTest {
+
+    @Mock
+    private EngineerRepository engineerRepository;
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private ChangeVersionService changeVersionService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private EngineerOnboardingService engineerOnboardingService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(teamRepository.findIdsByNames(any())).thenReturn(List.<Object[]>of(new Object[] { 7L, "Platform" }));
+        when(engineerRepository.findSearchFields()).thenReturn(List.of(
+            new Object[] { 1L, "John Smith", "mia", null, null },
+            new Object[] { 2L, "Ada Lovelace", "mia", "ada@example.com", 7L }));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpsertAll_MatchesByEmailOrNameAndWritesInBatches() {
+        BulkEngineerResponse response = engineerOnboardingService.upsertAll(List.of(
+            request("Smith,  John", null, "platform"),
+            request("Ada King", "ADA@example.com", null),
+            request("Grace Hopper", "grace@example.com", "Platform"),
+            request("Linus", null, "Kernel"),
+            request("grace hopper", "grace@example.com", null)));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(2, response.getUpdated());
+        assertEquals(2, response.getRejected());
+        List<BulkEngineerResponse.Item> results = response.getResults();
+        assertEquals(List.of("updated", "updated", "created", "rejected", "rejected"),
+            results.stream().map(BulkEngineerResponse.Item::getStatus).toList());
+        assertEquals(1L, results.get(0).getId());
+        assertEquals(2L, results.get(1).getId());
+        assertEquals(EngineerOnboardingService.TEAM_NOT_FOUND + "Kernel", results.get(3).getError());
+        assertEquals(EngineerOnboardingService.DUPLICATE + 2, results.get(4).getError());
+
+        // One team query, one engineer query, one batch of updates and one of inserts
+        verify(teamRepository, times(1)).findIdsByNames(any());
+        verify(engineerRepository, times(1)).findSearchFields();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Integer>> updated = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), updated.capture(), eq(EngineerOnboardingService.BATCH_SIZE),
+            any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of(0, 1), updated.getValue());
+        verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+
+        // Writes bypass the entity listeners
+        verify(changeVersionService).bump(EngineerSearchService.VERSION_NAME);
+        verify(changeVersionService).bump(TeamTreeService.VERSION_NAME);
+    }
+
+    @Test
+    void testUpsertAll_NameMatchWithOtherEmailIsANewEngineer() {
+        BulkEngineerResponse response = engineerOnboardingService.upsertAll(List.of(
+            request("Ada Lovelace", "ada.l@example.com", null)));
+
+        assertEquals(1, response.getCreated());
+        verify(jdbcTemplate, times(1)).execute(ArgumentMatchers.<ConnectionCallback<Object>>any());
+    }
+
+    private static EngineerUpsertRequest request(String fullName, String email, String teamName) {
+        EngineerUpsertRequest request = new EngineerUpsertRequest();
+        request.setFullName(fullName);
+        request.setEmail(email);
+        request.setManager("mia");
+        request.setTeamName(teamName);
+        return request;
+    }
+}
@@ -0,0 +1,89 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bezkoder.springjwt.payload.response.EngineerSuggestion;
+import com.bezkoder.springjwt.repository.EngineerRepository;
+
+class EngineerSearchServiceTest {
+
+    @Mock
+    private EngineerRepository engineerRepository;
+
+    @Mock
+    private ChangeVersionService changeVersionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private EngineerSearchService engineerSearchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(changeVersionService.currentVersion(EngineerSearchService.VERSION_NAME)).thenReturn(7L);
+        when(engineerRepository.findSearchFields()).thenReturn(List.of(
+            new Object[] { 1L, "Ada Lovelace", "Mia Manager", "ada@example.com", 1L },
+            new Object[] { 2L, "Zoë O'Neil", "Mia Manager", null, 1L },
+            new Object[] { 3L, "Adrian Smith", "Adam Boss", null, 2L },
+            new Object[] { 4L, "Carl Jones", "Ada Lovelace", null, 2L }));
+    }
+
+    @Test
+    void testSearch_RanksNamePrefixThenWordsThenManager() {
+        assertEquals(List.of(1L, 3L, 4L), ids(engineerSearchService.search("ad", 10)));
+        assertEquals(List.of(1L, 3L, 4L), ids(engineerSearchService.search("ADA", 10)));
+        assertEquals(List.of(1L, 4L), ids(engineerSearchService.search("Ada L", 10)));
+        assertEquals(List.of(1L, 4L), ids(engineerSearchService.search("love ada", 10)));
+        assertEquals(List.of(1L), ids(engineerSearchService.search("ad", 1)));
+    }
+
+    @Test
+    void testSearch_NormalizesAccentsAndPunctuation() {
+        assertEquals(List.of(2L), ids(engineerSearchService.search("zoe o'n", 10)));
+        assertEquals(List.of(), ids(engineerSearchService.search("oneil", 10)));
+        assertEquals(List.of(2L), ids(engineerSearchService.search("  o NEIL ", 10)));
+        assertEquals(List.of(), engineerSearchService.search("--", 10));
+    }
+
+    @Test
+    void testChangesAppliedWithoutReload() {
+        engineerSearchService.search("x", 10);
+
+        engineerSearchService.engineerSaved(new EngineerSuggestion(5L, "Xavier Ng", "Mia Manager", null, 1L));
+        engineerSearchService.engineerSaved(new EngineerSuggestion(1L, "Ada King", "Mia Manager", null, 1L));
+        engineerSearchService.engineerRemoved(3L);
+
+        assertEquals(List.of(5L), ids(engineerSearchService.search("xav", 10)));
+        assertEquals(List.of(1L), ids(engineerSearchService.search("ada k", 10)));
+        assertEquals(List.of(4L), ids(engineerSearchService.search("lovelace", 10)));
+        assertEquals(List.of(), ids(engineerSearchService.search("adrian", 10)));
+        assertEquals(4, engineerSearchService.size());
+
+        // The version moved by exactly the three changes applied here: no reload
+        when(changeVersionService.currentVersion(EngineerSearchService.VERSION_NAME)).thenReturn(10L);
+        engineerSearchService.pollVersion();
+        verify(engineerRepository, times(1)).findSearchFields();
+
+        // Moved further: changed elsewhere, reload
+        when(changeVersionService.currentVersion(EngineerSearchService.VERSION_NAME)).thenReturn(12L);
+        engineerSearchService.pollVersion();
+        verify(engineerRepository, times(2)).findSearchFields();
+    }
+
+    private static List<Long> ids(List<EngineerSuggestion> suggestions) {
+        return suggestions.stream().map(EngineerSuggestion::getId).toList();
+    }
+}
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.*;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.poi.ss.usermodel.Cell;
@@ -25,6 +26,7 @@ import org.springframework.web.multipart.MultipartFile;
 import com.bezkoder.springjwt.exception.InvalidDataException;
 import com.bezkoder.springjwt.models.Case;
 import com.bezkoder.springjwt.models.Engineer;
+import com.bezkoder.springjwt.payload.response.EngineerMergeDecision;
 import com.bezkoder.springjwt.repository.CaseRepository;
 import com.bezkoder.springjwt.repository.EngineerRepository;
 
@@ -88,6 +90,45 @@ class ExcelImportServiceTest {
         assertFalse(excelImportService.isExcelFormat(invalidFormatFile));
     }
     
+    @Test
+    void testProcessExcelFile_MatchesVariantEngineerNames() throws IOException {
+        Engineer alice = new Engineer();
+        alice.setId(1L);
+        alice.setFullName("Alice Johnson");
+        alice.setManager("Mia Manager");
+        when(engineerRepository.findAllByOrderByIdAsc()).thenReturn(List.of(alice));
+
+        Map<String, Object> result = excelImportService.processExcelFile(
+            createCaseFile("Alice Johnson", "Johnson, Alice", "Alise Johnson", "Bob Smith", "smith  BOB"));
+
+        assertEquals(5, result.get("totalRows"));
+        @SuppressWarnings("unchecked")
+        List<EngineerMergeDecision> merges = (List<EngineerMergeDecision>) result.get("engineerMerges");
+        assertEquals(List.of("Johnson, Alice", "Alise Johnson", "smith  BOB"),
+            merges.stream().map(EngineerMergeDecision::getImportedName).toList());
+        assertEquals(List.of(1L, 1L, 2L), merges.stream().map(EngineerMergeDecision::getEngineerId).toList());
+        assertEquals(3, merges.get(0).getRow());
+        // Only Bob is new: one query for the engineers, one insert
+        verify(engineerRepository, times(1)).save(any(Engineer.class));
+        verify(engineerRepository, never()).findByFullName(any());
+    }
+
+    private MultipartFile createCaseFile(String... engineerNames) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("Cases");
+            sheet.createRow(0).createCell(0).setCellValue("Engineer");
+            for (int i = 0; i < engineerNames.length; i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue(engineerNames[i]);
+                row.createCell(3).setCellValue("Case " + i);
+                row.createCell(5).setCellValue("Case");
+            }
+            workbook.write(out);
+            return new MockMultipartFile("cases.xlsx", "cases.xlsx", ExcelImportService.TYPE, out.toByteArray());
+        }
+    }
+
     private MultipartFile createValidExcelFile() throws IOException {
         try (Workbook workbook = new XSSFWorkbook(); 
              ByteArrayOutputStream out = new ByteArrayOutputStream()) {
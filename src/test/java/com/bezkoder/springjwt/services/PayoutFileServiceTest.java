@@ -0,0 +1,109 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bezkoder.springjwt.exception.ResourceNotFoundException;
+import com.bezkoder.springjwt.models.EPayoutFormat;
+import com.bezkoder.springjwt.repository.BonusRepository;
+import com.bezkoder.springjwt.repository.PayoutLine;
+
+class PayoutFileServiceTest {
+
+    @Mock
+    private BonusRepository bonusRepository;
+
+    @InjectMocks
+    private PayoutFileService payoutFileService;
+
+    @TempDir
+    Path storage;
+
+    private final LocalDate startPeriod = LocalDate.of(2025, 1, 1);
+    private final LocalDate endPeriod = LocalDate.of(2025, 3, 31);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(payoutFileService, "payoutDir", storage.toString());
+    }
+
+    @Test
+    void testGenerateCsv_WritesRowsAndMatchingManifest() throws Exception {
+        when(bonusRepository.streamPayoutLines(startPeriod, endPeriod)).thenReturn(Stream.of(
+                line(1L, 10L, "Smith, Bob", "bob@example.com", "Support", "40.00"),
+                line(2L, 11L, "Zoë \"Z\" Adams", null, null, "26.5")));
+
+        Map<String, Object> result = payoutFileService.generatePayoutFile(startPeriod, endPeriod, EPayoutFormat.CSV);
+
+        assertEquals(2L, result.get("rows"));
+        assertEquals(new BigDecimal("66.50"), result.get("totalAmount"));
+
+        Path file = storage.resolve((String) result.get("fileName"));
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals("1,10,\"Smith, Bob\",bob@example.com,Support,40.00,2025-01-01,2025-03-31", lines.get(1));
+        assertEquals("2,11,\"Zoë \"\"Z\"\" Adams\",,,26.50,2025-01-01,2025-03-31", lines.get(2));
+
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file)));
+        assertEquals(expected, result.get("sha256"));
+        assertEquals(expected + "  " + file.getFileName() + "\n",
+                Files.readString(storage.resolve((String) result.get("manifest"))));
+        assertEquals(1, payoutFileService.listPayoutFiles().size());
+    }
+
+    @Test
+    void testFixedLine_HasConstantWidth() {
+        String fixed = PayoutFileService.fixedLine(line(1L, 42L, "Zoë Adams", "zoe@example.com", "Support", "1234.5"));
+
+        assertEquals(159, fixed.length());
+        assertTrue(fixed.startsWith("0000000042Zoe Adams "));
+        assertTrue(fixed.endsWith("0000001234502025010120250331\n"));
+    }
+
+    @Test
+    void testLines_RoundAmountsToCents() {
+        assertTrue(PayoutFileService.csvLine(line(1L, 42L, "Zoë Adams", null, null, "12.345"))
+                .contains(",12.35,"));
+        assertTrue(PayoutFileService.fixedLine(line(1L, 42L, "Zoë Adams", null, null, "0.005"))
+                .endsWith("0000000000012025010120250331\n"));
+    }
+
+    @Test
+    void testResolvePayoutFile_RejectsNamesOutsideStorage() {
+        assertThrows(ResourceNotFoundException.class, () -> payoutFileService.resolvePayoutFile("../etc/passwd"));
+        assertThrows(ResourceNotFoundException.class, () -> payoutFileService.resolvePayoutFile("payout-missing.csv"));
+    }
+
+    private PayoutLine line(Long bonusId, Long engineerId, String name, String email, String team, String amount) {
+        return new PayoutLine() {
+            public Long getBonusId() { return bonusId; }
+            public Long getEngineerId() { return engineerId; }
+            public String getEngineerName() { return name; }
+            public String getEngineerEmail() { return email; }
+            public String getTeamName() { return team; }
+            public BigDecimal getAmount() { return new BigDecimal(amount); }
+            public LocalDate getStartPeriod() { return startPeriod; }
+            public LocalDate getEndPeriod() { return endPeriod; }
+        };
+    }
+}
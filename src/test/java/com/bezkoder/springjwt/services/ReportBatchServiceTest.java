@@ -0,0 +1,125 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bezkoder.springjwt.models.BatchCheckpoint;
+import com.bezkoder.springjwt.models.BatchRun;
+import com.bezkoder.springjwt.models.EBatchStatus;
+import com.bezkoder.springjwt.models.Engineer;
+import com.bezkoder.springjwt.repository.BatchCheckpointRepository;
+import com.bezkoder.springjwt.repository.BatchRunRepository;
+import com.bezkoder.springjwt.repository.EngineerRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReportBatchServiceTest {
+
+    @Mock
+    private EngineerRepository engineerRepository;
+
+    @Mock
+    private ReportService reportService;
+
+    @Mock
+    private BatchRunRepository batchRunRepository;
+
+    @Mock
+    private BatchCheckpointRepository batchCheckpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Timer reportBatchTimer;
+
+    @Mock
+    private MeterRegistry meterRegistry;
+
+    @InjectMocks
+    private ReportBatchService reportBatchService;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private BatchRun run;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(meterRegistry.counter(anyString(), any(String[].class)))
+                .thenAnswer(invocation -> registry.counter("test"));
+        when(batchRunRepository.save(any(BatchRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        reportBatchService.init();
+
+        run = new BatchRun(ReportBatchService.JOB_NAME, null,
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 1, 31, 23, 59));
+        run.setId(7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportBatchService.shutdown();
+    }
+
+    @Test
+    void testExecute_SkipsCheckpointedEngineers() {
+        Engineer first = engineer(1L, "Alice Johnson");
+        Engineer second = engineer(2L, "Bob Smith");
+        Engineer third = engineer(3L, "Carol White");
+
+        when(engineerRepository.findAllByOrderByIdAsc()).thenReturn(List.of(first, second, third));
+        when(batchCheckpointRepository.findByRunId(7L)).thenReturn(List.of(new BatchCheckpoint(7L, 2L, 2L, 1)));
+
+        BatchRun result = reportBatchService.execute(run);
+
+        assertEquals(EBatchStatus.COMPLETED, result.getStatus());
+        assertEquals(3, result.getTotalItems());
+        assertEquals(3, result.getProcessedItems());
+        assertEquals(0, result.getFailedItems());
+        verify(reportService).generateEngineerReport(eq(first), any(), any());
+        verify(reportService, never()).generateEngineerReport(eq(second), any(), any());
+        verify(reportService).generateEngineerReport(eq(third), any(), any());
+        verify(batchCheckpointRepository, times(2)).save(any(BatchCheckpoint.class));
+    }
+
+    @Test
+    void testExecute_FailedEngineerMarksRunFailed() {
+        Engineer first = engineer(1L, "Alice Johnson");
+        Engineer second = engineer(2L, "Bob Smith");
+
+        when(engineerRepository.findByTeamIdOrderByIdAsc(5L)).thenReturn(List.of(first, second));
+        when(reportService.generateEngineerReport(eq(second), any(), any())).thenThrow(new RuntimeException("boom"));
+        run.setTeamId(5L);
+
+        BatchRun result = reportBatchService.execute(run);
+
+        assertEquals(EBatchStatus.FAILED, result.getStatus());
+        assertEquals(1, result.getProcessedItems());
+        assertEquals(1, result.getFailedItems());
+        assertTrue(result.getLastError().contains("Engineer 2"));
+        verify(batchCheckpointRepository, times(1)).save(any(BatchCheckpoint.class));
+    }
+
+    private Engineer engineer(Long id, String fullName) {
+        Engineer engineer = new Engineer();
+        engineer.setId(id);
+        engineer.setFullName(fullName);
+        return engineer;
+    }
+}
@@ -0,0 +1,79 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.bezkoder.springjwt.models.Case;
+import com.bezkoder.springjwt.models.Engineer;
+import com.bezkoder.springjwt.models.Report;
+import com.bezkoder.springjwt.repository.CaseRepository;
+import com.bezkoder.springjwt.repository.ReportRepository;
+
+class ReportServiceTest {
+
+    @Mock
+    private ReportRepository reportRepository;
+
+    @Mock
+    private CaseRepository caseRepository;
+
+    @InjectMocks
+    private ReportService reportService;
+
+    private Engineer engineer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        engineer = new Engineer();
+        engineer.setId(1L);
+        engineer.setFullName("John Doe");
+
+        when(reportRepository.save(any(Report.class))).thenAnswer(invocation -> {
+            Report report = invocation.getArgument(0);
+            report.setId(10L);
+            return report;
+        });
+    }
+
+    @Test
+    void testGenerateEngineerReport_AllCases() {
+        when(caseRepository.countByEngineer(engineer)).thenReturn(3000L);
+        when(caseRepository.assignReportToEngineerCases(any(Report.class), eq(engineer))).thenReturn(3000);
+
+        Report report = reportService.generateEngineerReport(engineer, null, null);
+
+        assertEquals(10L, report.getId());
+        assertEquals(3000, report.getTotal());
+        assertEquals("John Doe", report.getEngineerName());
+        verify(caseRepository, times(1)).assignReportToEngineerCases(report, engineer);
+        verify(caseRepository, never()).findByEngineer(any(Engineer.class));
+        verify(caseRepository, never()).save(any(Case.class));
+    }
+
+    @Test
+    void testGenerateEngineerReport_DateRange() {
+        LocalDateTime startDate = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime endDate = LocalDateTime.of(2025, 1, 31, 23, 59);
+
+        when(caseRepository.countCasesResolvedByEngineer(engineer, startDate, endDate)).thenReturn(42L);
+        when(caseRepository.assignReportToEngineerCasesBetween(any(Report.class), eq(engineer), eq(startDate), eq(endDate)))
+                .thenReturn(42);
+
+        Report report = reportService.generateEngineerReport(engineer, startDate, endDate);
+
+        assertEquals(42, report.getTotal());
+        verify(caseRepository, times(1)).assignReportToEngineerCasesBetween(report, engineer, startDate, endDate);
+        verify(caseRepository, never()).assignReportToEngineerCases(any(Report.class), any(Engineer.class));
+    }
+}
@@ -0,0 +1,95 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bezkoder.springjwt.models.Setting;
+import com.bezkoder.springjwt.models.User;
+import com.bezkoder.springjwt.repository.SettingRepository;
+
+class SettingsServiceTest {
+
+    @Mock
+    private SettingRepository settingRepository;
+
+    @Mock
+    private ChangeVersionService changeVersionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SettingsService settingsService;
+
+    private Setting global;
+    private Setting managerSetting;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        User manager = new User("manager", "manager@example.com", "secret", "Mia", "Manager");
+        manager.setId(20L);
+
+        global = new Setting("global", 10.0, 5.0, null);
+        global.setId(1L);
+        managerSetting = new Setting("team", 20.0, 1.5, manager);
+        managerSetting.setId(2L);
+    }
+
+    @Test
+    void testSnapshot_LoadedOnceAndServedFromMemory() {
+        when(changeVersionService.currentVersion(SettingsService.VERSION_NAME)).thenReturn(3L);
+        when(settingRepository.findAll(any(Sort.class))).thenReturn(List.of(global, managerSetting));
+
+        assertEquals(3L, settingsService.getVersion());
+        assertEquals(1L, settingsService.getGlobalSetting().getId());
+        assertEquals(2L, settingsService.snapshot().getEffectiveSetting(20L).getId());
+        assertEquals(1L, settingsService.snapshot().getEffectiveSetting(99L).getId());
+        assertEquals(1, settingsService.getSettingsForUser(20L).size());
+        assertNull(settingsService.getSettingsForUser(20L).get(0).getUser().getPassword());
+
+        verify(settingRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void testPollVersion_ReloadsOnlyWhenVersionMoved() {
+        when(changeVersionService.currentVersion(SettingsService.VERSION_NAME)).thenReturn(1L);
+        when(settingRepository.findAll(any(Sort.class))).thenReturn(List.of(global));
+        settingsService.snapshot();
+
+        settingsService.pollVersion();
+        verify(settingRepository, times(1)).findAll(any(Sort.class));
+
+        when(changeVersionService.currentVersion(SettingsService.VERSION_NAME)).thenReturn(2L);
+        when(settingRepository.findAll(any(Sort.class))).thenReturn(List.of(global, managerSetting));
+        settingsService.pollVersion();
+
+        assertEquals(2L, settingsService.getVersion());
+        assertEquals(2, settingsService.getAllSettings().size());
+    }
+
+    @Test
+    void testSave_BumpsVersionAndPublishesSnapshot() {
+        when(changeVersionService.currentVersion(SettingsService.VERSION_NAME)).thenReturn(4L);
+        when(settingRepository.save(global)).thenReturn(global);
+        when(settingRepository.findAll(any(Sort.class))).thenReturn(List.of(global));
+
+        settingsService.save(global);
+
+        verify(changeVersionService).bump(SettingsService.VERSION_NAME);
+        assertTrue(settingsService.hasSettings());
+        assertEquals(4L, settingsService.getVersion());
+    }
+}
@@ -0,0 +1,123 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bezkoder.springjwt.exception.InvalidDataException;
+import com.bezkoder.springjwt.models.Engineer;
+import com.bezkoder.springjwt.models.Team;
+import com.bezkoder.springjwt.models.User;
+import com.bezkoder.springjwt.payload.response.TeamTreeResponse;
+import com.bezkoder.springjwt.payload.response.TeamTreeResponse.EngineerNode;
+import com.bezkoder.springjwt.repository.CaseRepository;
+import com.bezkoder.springjwt.repository.TeamRepository;
+
+class TeamTreeServiceTest {
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private CaseRepository caseRepository;
+
+    @Mock
+    private ChangeVersionService changeVersionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TeamTreeService teamTreeService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        User manager = new User("manager", "manager@example.com", "secret", "Mia", "Manager");
+        manager.setId(20L);
+
+        Team platform = new Team("Platform", manager);
+        platform.setId(1L);
+        platform.setEngineers(Set.of(engineer(11L, "Zoe", platform), engineer(10L, "adam", platform)));
+        Team support = new Team("Support", manager);
+        support.setId(2L);
+        Team orphans = new Team("Orphans", null);
+        orphans.setId(3L);
+
+        when(teamRepository.findAllWithManagerAndEngineers()).thenReturn(List.of(platform, support, orphans));
+    }
+
+    @Test
+    void testTree_GroupsTeamsUnderManagersFromOneQuery() {
+        when(changeVersionService.currentVersion(TeamTreeService.VERSION_NAME)).thenReturn(4L);
+
+        TeamTreeService.Tree tree = teamTreeService.tree(null, null);
+        TeamTreeResponse response = tree.getResponse();
+
+        assertEquals("\"teams-4\"", tree.getEtag());
+        assertEquals(1, response.getManagers().size());
+        assertEquals(List.of("Platform", "Support"),
+            response.getManagers().get(0).getTeams().stream().map(TeamTreeResponse.TeamNode::getName).toList());
+        assertEquals(List.of("adam", "Zoe"), response.getManagers().get(0).getTeams().get(0).getEngineers().stream()
+            .map(EngineerNode::getFullName).toList());
+        assertNull(response.getManagers().get(0).getTeams().get(0).getEngineers().get(0).getCaseCount());
+        assertEquals("Orphans", response.getUnmanagedTeams().get(0).getName());
+
+        // Served from memory while the version holds
+        teamTreeService.tree(null, null);
+        verify(teamRepository, times(1)).findAllWithManagerAndEngineers();
+
+        when(changeVersionService.currentVersion(TeamTreeService.VERSION_NAME)).thenReturn(5L);
+        assertEquals("\"teams-5\"", teamTreeService.tree(null, null).getEtag());
+        verify(teamRepository, times(2)).findAllWithManagerAndEngineers();
+    }
+
+    @Test
+    void testTree_WithPeriodStats() {
+        when(changeVersionService.currentVersion(TeamTreeService.VERSION_NAME)).thenReturn(4L);
+        when(caseRepository.countAndAverageCesByEngineer(any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenReturn(List.<Object[]>of(new Object[] { 10L, 3L, 4.5 }));
+
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 1, 31);
+        TeamTreeService.Tree tree = teamTreeService.tree(start, end);
+
+        List<EngineerNode> engineers = tree.getResponse().getManagers().get(0).getTeams().get(0).getEngineers();
+        assertEquals(3L, engineers.get(0).getCaseCount());
+        assertEquals(4.5, engineers.get(0).getAverageCes());
+        assertEquals(0L, engineers.get(1).getCaseCount());
+        assertNull(engineers.get(1).getAverageCes());
+        assertTrue(tree.getEtag().startsWith("\"teams-4-2024-01-01-2024-01-31-"));
+
+        // Same statistics, same ETag, within the TTL without another query
+        assertEquals(tree.getEtag(), teamTreeService.tree(start, end).getEtag());
+        verify(caseRepository, times(1)).countAndAverageCesByEngineer(any(), any());
+    }
+
+    @Test
+    void testTree_RejectsPartialPeriod() {
+        assertThrows(InvalidDataException.class, () -> teamTreeService.tree(LocalDate.of(2024, 1, 1), null));
+        assertThrows(InvalidDataException.class,
+            () -> teamTreeService.tree(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)));
+    }
+
+    private static Engineer engineer(Long id, String fullName, Team team) {
+        Engineer engineer = new Engineer(fullName, null, fullName.toLowerCase() + "@example.com", null, "manager");
+        engineer.setId(id);
+        engineer.setTeam(team);
+        return engineer;
+    }
+}
@@ -0,0 +1,159 @@
+package com.bezkoder.springjwt.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bezkoder.springjwt.models.ERole;
+import com.bezkoder.springjwt.models.Role;
+import com.bezkoder.springjwt.payload.request.SignupRequest;
+import com.bezkoder.springjwt.payload.response.BulkSignupResponse;
+import com.bezkoder.springjwt.repository.RoleRepository;
+import com.bezkoder.springjwt.repository.UserRepository;
+
+class UserOnboardingServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private PasswordEncoder encoder;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UserOnboardingService userOnboardingService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        Role user = new Role(ERole.ROLE_USER);
+        user.setId(1);
+        Role admin = new Role(ERole.ROLE_ADMIN);
+        admin.setId(3);
+        when(roleRepository.findAll()).thenReturn(List.of(user, admin));
+        when(encoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        userOnboardingService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userOnboardingService.shutdown();
+    }
+
+    @Test
+    void findConflict_ReportsUsernameBeforeEmail() {
+        when(userRepository.findByUsernamesOrEmails(List.of("alice"), List.of("bob@example.com")))
+            .thenReturn(rows(new Object[] { 2L, "bob", "bob@example.com" }, new Object[] { 1L, "Alice", "a@example.com" }));
+
+        assertEquals(UserOnboardingService.USERNAME_TAKEN,
+            userOnboardingService.findConflict("alice", "bob@example.com", null));
+    }
+
+    @Test
+    void findConflict_IgnoresTheUserItself() {
+        when(userRepository.findByUsernamesOrEmails(List.of("alice"), List.of()))
+            .thenReturn(rows(new Object[] { 1L, "alice", "a@example.com" }));
+
+        assertNull(userOnboardingService.findConflict("alice", null, 1L));
+    }
+
+    @Test
+    void resolveRoles_LoadsRolesOnce() {
+        assertEquals(Set.of(ERole.ROLE_USER), names(userOnboardingService.resolveRoles(null)));
+        assertEquals(Set.of(ERole.ROLE_ADMIN, ERole.ROLE_USER), names(userOnboardingService.resolveRoles(Set.of("admin", "user"))));
+
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registerAll_RejectsConflictsAndBatchesTheRest() {
+        List<SignupRequest> requests = List.of(
+            signup("carol", "carol@example.com"),
+            signup("Carol", "carol2@example.com"),   // same username as the first, other case
+            signup("dave", "taken@example.com"),     // email of an existing user
+            signup("erin", "erin@example.com", "admin"));
+
+        when(userRepository.findByUsernamesOrEmails(anyCollection(), anyCollection()))
+            .thenReturn(rows(new Object[] { 9L, "zed", "Taken@example.com" }));
+        when(userRepository.findIdsByUsernames(List.of("carol", "erin")))
+            .thenReturn(rows(new Object[] { 10L, "carol" }, new Object[] { 11L, "erin" }));
+
+        BulkSignupResponse response = userOnboardingService.registerAll(requests);
+
+        assertEquals(2, response.getCreated());
+        assertEquals(2, response.getRejected());
+        assertEquals(10L, response.getResults().get(0).getId());
+        assertEquals(UserOnboardingService.USERNAME_TAKEN, response.getResults().get(1).getError());
+        assertEquals(UserOnboardingService.EMAIL_IN_USE, response.getResults().get(2).getError());
+        assertEquals(11L, response.getResults().get(3).getId());
+
+        // One uniqueness query for the whole batch, one batch per table
+        verify(userRepository, times(1)).findByUsernamesOrEmails(anyCollection(), anyCollection());
+        ArgumentCaptor<Collection<Integer>> users = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO users"), users.capture(),
+            eq(UserOnboardingService.BATCH_SIZE), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of(0, 3), new ArrayList<>(users.getValue()));
+
+        ArgumentCaptor<Collection<Long[]>> links = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO user_roles"), links.capture(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of("10:1", "11:3"), links.getValue().stream().map(link -> link[0] + ":" + link[1]).toList());
+        verify(encoder, times(2)).encode(anyString());
+
+        // Passwords are hashed before the transaction starts
+        InOrder order = inOrder(encoder, transactionManager);
+        order.verify(encoder, times(2)).encode(anyString());
+        order.verify(transactionManager).getTransaction(any());
+    }
+
+    private static SignupRequest signup(String username, String email, String... roles) {
+        SignupRequest request = new SignupRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPassword("secret12");
+        request.setRole(roles.length > 0 ? Set.of(roles) : null);
+        return request;
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+
+    private static Set<ERole> names(Set<Role> roles) {
+        return roles.stream().map(Role::getName).collect(Collectors.toSet());
+    }
+}